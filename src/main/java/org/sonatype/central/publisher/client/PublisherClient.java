@@ -5,13 +5,19 @@
 package org.sonatype.central.publisher.client;
 
 import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
+import org.sonatype.central.publisher.client.httpclient.PublisherHttpClient;
+import org.sonatype.central.publisher.client.httpclient.PublisherHttpClientConfig;
+import org.sonatype.central.publisher.client.httpclient.UploadListener;
 import org.sonatype.central.publisher.client.httpclient.auth.AuthProvider;
 import org.sonatype.central.publisher.client.httpclient.auth.AuthProviderType;
 import org.sonatype.central.publisher.client.httpclient.utils.PublisherBundle;
 import org.sonatype.central.publisher.client.model.DeploymentApiResponse;
 import org.sonatype.central.publisher.client.model.PublishingType;
 
+import org.jspecify.annotations.Nullable;
+
 public interface PublisherClient
 {
   PublisherBundle compose(final Path sourceDir, final String bundleFileName);
@@ -20,14 +26,71 @@ public interface PublisherClient
 
   PublisherBundle.BundleBuilder getBuilder(final Path sourceDir);
 
-  String upload(final String name, final Path body, final PublishingType publishingType);
+  default String upload(final String name, final Path body, final PublishingType publishingType) {
+    return upload(name, body, publishingType, (UploadListener) null);
+  }
+
+  /**
+   * Upload the bundle, reporting the progress of sending it to the {@code uploadListener}, if any.
+   */
+  String upload(
+      final String name,
+      final Path body,
+      final PublishingType publishingType,
+      @Nullable final UploadListener uploadListener);
+
+  /**
+   * Upload the bundle while it is being created, without writing it to a file.
+   */
+  default String upload(
+      final String name,
+      final PublisherBundle.BundleBuilder body,
+      final PublishingType publishingType)
+  {
+    return upload(name, body, publishingType, null);
+  }
+
+  /**
+   * Upload the bundle while it is being created, reporting the progress of sending it to the {@code uploadListener},
+   * if any.
+   */
+  String upload(
+      final String name,
+      final PublisherBundle.BundleBuilder body,
+      final PublishingType publishingType,
+      @Nullable final UploadListener uploadListener);
+
+  /**
+   * Upload the bundle in chunks of {@code chunkSize} bytes, resuming a previous upload of the same bundle if any. The
+   * progress of the upload is kept in {@code progressDirectory}, that must survive a restart of the build to resume.
+   * The {@code contentKey}, if any, identifies the content of the bundle instead of the bundle bytes.
+   */
+  String upload(
+      final String name,
+      final Path body,
+      final PublishingType publishingType,
+      final long chunkSize,
+      final Path progressDirectory,
+      @Nullable final String contentKey);
 
   DeploymentApiResponse status(final String deploymentId);
 
+  /**
+   * Same as {@link #status(String)} without waiting for the response: the requests sent at the same time share the
+   * connections to Central, multiplexed over a single connection when Central negotiates HTTP/2.
+   */
+  CompletableFuture<DeploymentApiResponse> statusAsync(final String deploymentId);
+
   void delete(final String deploymentId);
 
   boolean isPublished(final String namespace, final String name, final String version);
 
+  /**
+   * Same as {@link #isPublished(String, String, String)} without waiting for the response, see
+   * {@link #statusAsync(String)}.
+   */
+  CompletableFuture<Boolean> isPublishedAsync(final String namespace, final String name, final String version);
+
   /**
    * For auth providers whose principal is not a userId
    */
@@ -51,4 +114,9 @@ public interface PublisherClient
   }
 
   void setCentralBaseUrl(final String centralBaseUrl);
+
+  /**
+   * Configure the pooled HTTP client shared by all requests, see {@link PublisherHttpClient}.
+   */
+  void setHttpClientConfig(final PublisherHttpClientConfig httpClientConfig);
 }
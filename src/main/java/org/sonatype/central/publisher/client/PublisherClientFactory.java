@@ -6,6 +6,7 @@ package org.sonatype.central.publisher.client;
 
 import org.sonatype.central.publisher.client.httpclient.ComponentPublishedEndpoint;
 import org.sonatype.central.publisher.client.httpclient.DeletePublisherEndpoint;
+import org.sonatype.central.publisher.client.httpclient.ResumableUploadEndpoint;
 import org.sonatype.central.publisher.client.httpclient.StatusPublisherEndpoint;
 import org.sonatype.central.publisher.client.httpclient.UploadPublisherEndpoint;
 import org.sonatype.central.publisher.client.httpclient.auth.AuthProviderFactory;
@@ -16,7 +17,8 @@ public final class PublisherClientFactory
   }
 
   public static PublisherClient createPublisherClient() {
-    return new PublisherClientImpl(new UploadPublisherEndpoint(), new StatusPublisherEndpoint(),
-        new ComponentPublishedEndpoint(), new DeletePublisherEndpoint(), new AuthProviderFactory());
+    return new PublisherClientImpl(new UploadPublisherEndpoint(), new ResumableUploadEndpoint(),
+        new StatusPublisherEndpoint(), new ComponentPublishedEndpoint(), new DeletePublisherEndpoint(),
+        new AuthProviderFactory());
   }
 }
@@ -6,19 +6,27 @@ package org.sonatype.central.publisher.client;
 
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.sonatype.central.publisher.client.httpclient.ComponentPublishedEndpoint;
 import org.sonatype.central.publisher.client.httpclient.DeletePublisherEndpoint;
+import org.sonatype.central.publisher.client.httpclient.PublisherHttpClient;
+import org.sonatype.central.publisher.client.httpclient.PublisherHttpClientConfig;
+import org.sonatype.central.publisher.client.httpclient.ResumableUploadEndpoint;
 import org.sonatype.central.publisher.client.httpclient.StatusPublisherEndpoint;
+import org.sonatype.central.publisher.client.httpclient.UploadListener;
 import org.sonatype.central.publisher.client.httpclient.UploadPublisherEndpoint;
 import org.sonatype.central.publisher.client.httpclient.auth.AuthProvider;
 import org.sonatype.central.publisher.client.httpclient.auth.AuthProviderFactory;
 import org.sonatype.central.publisher.client.httpclient.auth.AuthProviderType;
+import org.sonatype.central.publisher.client.httpclient.utils.BundleContentBody;
 import org.sonatype.central.publisher.client.httpclient.utils.PublisherBundle;
 import org.sonatype.central.publisher.client.httpclient.utils.PublisherBundle.BundleBuilder;
 import org.sonatype.central.publisher.client.model.DeploymentApiResponse;
 import org.sonatype.central.publisher.client.model.PublishingType;
 
+import org.jspecify.annotations.Nullable;
+
 import static org.sonatype.central.publisher.client.PublisherConstants.COMPONENT_NAMESPACE_QUERY_PARAM;
 import static org.sonatype.central.publisher.client.PublisherConstants.COMPONENT_NAME_QUERY_PARAM;
 import static org.sonatype.central.publisher.client.PublisherConstants.COMPONENT_VERSION_QUERY_PARAM;
@@ -36,6 +44,8 @@ class PublisherClientImpl
 
   private final UploadPublisherEndpoint uploadPublisherEndpoint;
 
+  private final ResumableUploadEndpoint resumableUploadEndpoint;
+
   private final StatusPublisherEndpoint statusPublisherEndpoint;
 
   private final ComponentPublishedEndpoint componentPublishedEndpoint;
@@ -46,12 +56,14 @@ class PublisherClientImpl
 
   public PublisherClientImpl(
       final UploadPublisherEndpoint uploadPublisherEndpoint,
+      final ResumableUploadEndpoint resumableUploadEndpoint,
       final StatusPublisherEndpoint statusPublisherEndpoint,
       final ComponentPublishedEndpoint componentPublishedEndpoint,
       final DeletePublisherEndpoint deletePublisherEndpoint,
       final AuthProviderFactory authProviderFactory)
   {
     this.uploadPublisherEndpoint = uploadPublisherEndpoint;
+    this.resumableUploadEndpoint = resumableUploadEndpoint;
     this.statusPublisherEndpoint = statusPublisherEndpoint;
     this.componentPublishedEndpoint = componentPublishedEndpoint;
     this.deletePublisherEndpoint = deletePublisherEndpoint;
@@ -77,11 +89,46 @@ class PublisherClientImpl
   }
 
   @Override
-  public String upload(final String name, final Path body, final PublishingType publishingType) {
+  public String upload(
+      final String name,
+      final Path body,
+      final PublishingType publishingType,
+      @Nullable final UploadListener uploadListener)
+  {
+    Map<String, String> queryParams = authProvider().getQueryParams();
+    queryParams.put(DEPLOYMENT_NAME_QUERY_PARAM, name);
+    queryParams.put(DEPLOYMENT_PUBLISHING_TYPE_QUERY_PARAM, publishingType.name());
+    return uploadPublisherEndpoint.call(centralBaseUrl(), authProvider(), queryParams, body, uploadListener);
+  }
+
+  @Override
+  public String upload(
+      final String name,
+      final BundleBuilder body,
+      final PublishingType publishingType,
+      @Nullable final UploadListener uploadListener)
+  {
+    Map<String, String> queryParams = authProvider().getQueryParams();
+    queryParams.put(DEPLOYMENT_NAME_QUERY_PARAM, name);
+    queryParams.put(DEPLOYMENT_PUBLISHING_TYPE_QUERY_PARAM, publishingType.name());
+    return uploadPublisherEndpoint.call(centralBaseUrl(), authProvider(), queryParams,
+        new BundleContentBody(body, body.getBundleName()), uploadListener);
+  }
+
+  @Override
+  public String upload(
+      final String name,
+      final Path body,
+      final PublishingType publishingType,
+      final long chunkSize,
+      final Path progressDirectory,
+      @Nullable final String contentKey)
+  {
     Map<String, String> queryParams = authProvider().getQueryParams();
     queryParams.put(DEPLOYMENT_NAME_QUERY_PARAM, name);
     queryParams.put(DEPLOYMENT_PUBLISHING_TYPE_QUERY_PARAM, publishingType.name());
-    return uploadPublisherEndpoint.call(centralBaseUrl(), authProvider(), queryParams, body);
+    return resumableUploadEndpoint.call(centralBaseUrl(), authProvider(), queryParams, body, chunkSize,
+        progressDirectory, contentKey);
   }
 
   @Override
@@ -91,6 +138,13 @@ class PublisherClientImpl
     return statusPublisherEndpoint.call(centralBaseUrl(), authProvider(), queryParams);
   }
 
+  @Override
+  public CompletableFuture<DeploymentApiResponse> statusAsync(final String deploymentId) {
+    Map<String, String> queryParams = authProvider().getQueryParams();
+    queryParams.put(DEPLOYMENT_ID_QUERY_PARAM, deploymentId);
+    return statusPublisherEndpoint.callAsync(centralBaseUrl(), authProvider(), queryParams);
+  }
+
   @Override
   public void delete(final String deploymentId) {
     Map<String, String> queryParams = authProvider().getQueryParams();
@@ -106,6 +160,15 @@ class PublisherClientImpl
     return componentPublishedEndpoint.call(centralBaseUrl(), authProvider(), queryParams);
   }
 
+  @Override
+  public CompletableFuture<Boolean> isPublishedAsync(final String namespace, final String name, final String version) {
+    Map<String, String> queryParams = authProvider().getQueryParams();
+    queryParams.put(COMPONENT_NAMESPACE_QUERY_PARAM, namespace);
+    queryParams.put(COMPONENT_NAME_QUERY_PARAM, name);
+    queryParams.put(COMPONENT_VERSION_QUERY_PARAM, version);
+    return componentPublishedEndpoint.callAsync(centralBaseUrl(), authProvider(), queryParams);
+  }
+
   @Override
   public AuthProvider setAuthProvider(
       final AuthProviderType authProviderType,
@@ -130,6 +193,11 @@ class PublisherClientImpl
     this.centralBaseUrl = centralBaseUrl;
   }
 
+  @Override
+  public void setHttpClientConfig(final PublisherHttpClientConfig httpClientConfig) {
+    PublisherHttpClient.configure(httpClientConfig);
+  }
+
   private String centralBaseUrl() {
     return centralBaseUrl != null ? centralBaseUrl : DEFAULT_CENTRAL_BASEURL;
   }
@@ -13,6 +13,8 @@ public class PublisherConstants
 
   public static final String UPLOAD_ENDPOINT_URL = "/api/v1/publisher/upload";
 
+  public static final String RESUMABLE_UPLOAD_ENDPOINT_URL = "/api/v1/publisher/upload/resumable";
+
   public static final String PUBLISHED_ENDPOINT_URL = "/api/v1/publisher/published";
 
   public static final String DELETE_ENDPOINT_URL = "/api/v1/publisher/deployment/%s";
@@ -21,6 +23,10 @@ public class PublisherConstants
 
   public static final String HTTP_USERTOKEN_AUTH_SCHEME = "UserToken";
 
+  public static final String HTTP_UPLOAD_LENGTH_HEADER = "Upload-Length";
+
+  public static final String HTTP_UPLOAD_OFFSET_HEADER = "Upload-Offset";
+
   public static final String ORGANIZATION_ID_QUERY_PARAM = "orgId";
 
   public static final String USER_ID_QUERY_PARAM = "userId";
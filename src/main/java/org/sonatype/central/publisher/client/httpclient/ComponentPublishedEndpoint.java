@@ -7,6 +7,8 @@ package org.sonatype.central.publisher.client.httpclient;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.sonatype.central.publisher.client.httpclient.auth.AuthProvider;
 
@@ -16,6 +18,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.hc.client5.http.HttpResponseException;
 
 import static org.sonatype.central.publisher.client.PublisherConstants.PUBLISHED_ENDPOINT_URL;
+import static org.sonatype.central.publisher.client.httpclient.PublisherHttpClient.sendAsyncRequest;
 import static org.sonatype.central.publisher.client.httpclient.PublisherHttpClient.sendRequest;
 import static org.sonatype.central.publisher.client.httpclient.utils.HttpResponseUtil.toContentString;
 
@@ -33,20 +36,53 @@ public class ComponentPublishedEndpoint
       final Map<String, String> params)
   {
     try {
-      String response = sendRequest(authProvider, baseUrl + PUBLISHED_ENDPOINT_URL, params, null, RequestType.GET);
-      Map<String, Boolean> result = objectMapper.readValue(response, new TypeReference<HashMap<String, Boolean>>()
-      {
-      });
-      return result.get("published");
-    }
-    catch (HttpResponseException e) {
-      throw new RuntimeException("Cannot get component published status. Response status code: "
-          + e.getStatusCode()
-          + " response message: "
-          + toContentString(e));
+      return toPublished(sendRequest(authProvider, baseUrl + PUBLISHED_ENDPOINT_URL, params, null, RequestType.GET));
     }
     catch (IOException e) {
-      throw new RuntimeException(e);
+      throw toRuntimeException(e);
+    }
+  }
+
+  /**
+   * Same as {@link #call(String, AuthProvider, Map)} without waiting for the response.
+   */
+  public CompletableFuture<Boolean> callAsync(
+      final String baseUrl,
+      final AuthProvider authProvider,
+      final Map<String, String> params)
+  {
+    return sendAsyncRequest(authProvider, baseUrl + PUBLISHED_ENDPOINT_URL, params, RequestType.GET)
+        .handle((response, failure) -> {
+          if (failure instanceof IOException) {
+            throw toRuntimeException((IOException) failure);
+          }
+          if (failure != null) {
+            throw new CompletionException(failure);
+          }
+          try {
+            return toPublished(response);
+          }
+          catch (IOException e) {
+            throw toRuntimeException(e);
+          }
+        });
+  }
+
+  private static boolean toPublished(final String response) throws IOException {
+    Map<String, Boolean> result = objectMapper.readValue(response, new TypeReference<HashMap<String, Boolean>>()
+    {
+    });
+    return result.get("published");
+  }
+
+  private static RuntimeException toRuntimeException(final IOException e) {
+    if (e instanceof HttpResponseException) {
+      HttpResponseException responseException = (HttpResponseException) e;
+      return new RuntimeException("Cannot get component published status. Response status code: "
+          + responseException.getStatusCode()
+          + " response message: "
+          + toContentString(responseException));
     }
+    return new RuntimeException(e);
   }
 }
@@ -5,70 +5,416 @@
 
 package org.sonatype.central.publisher.client.httpclient;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.sonatype.central.publisher.client.httpclient.auth.AuthProvider;
 
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
 import org.apache.hc.client5.http.classic.methods.HttpDelete;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.entity.mime.ContentBody;
 import org.apache.hc.client5.http.entity.mime.HttpMultipartMode;
 import org.apache.hc.client5.http.entity.mime.MultipartEntityBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
 import org.apache.hc.client5.http.impl.classic.BasicHttpClientResponseHandler;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.utils.DateUtils;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.io.HttpClientResponseHandler;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.io.ModalCloseable;
 import org.apache.hc.core5.net.URIBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.jspecify.annotations.Nullable;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Sends the requests to Central over a single pooled client, to keep connections alive from one request to the next.
+ * The client is created on first use and lives until {@link #close()}, i.e. for the whole Maven session when the
+ * plugin is loaded as an extension, or until the end of the {@code watch} goal, which is usually run on its own.
+ * Clients replaced by a new configuration are only closed then as well, as they may still be in use.
+ * <p>
+ * Requests without a body can also be sent asynchronously with {@link #sendAsyncRequest}, over a separate client that
+ * negotiates HTTP/2 with Central, so that many of them share a single connection instead of waiting for each other.
+ */
 public class PublisherHttpClient
 {
+  private static final Object clientLock = new Object();
+
+  private static PublisherHttpClientConfig clientConfig = new PublisherHttpClientConfig();
+
+  private static CloseableHttpClient client;
+
+  private static CloseableHttpAsyncClient asyncClient;
+
+  private static RetryPolicy retryPolicy = new RetryPolicy(clientConfig.getMaxRetries());
+
+  // clients replaced by a new configuration, possibly still in use
+  private static final List<ModalCloseable> retiredClients = new ArrayList<>();
+
+  /**
+   * Configure the pooled client, the client is replaced if it already exists with another configuration.
+   */
+  public static void configure(final PublisherHttpClientConfig config) {
+    synchronized (clientLock) {
+      if (!config.equals(clientConfig)) {
+        if (config.getMaxRetries() != clientConfig.getMaxRetries()) {
+          retryPolicy = new RetryPolicy(config.getMaxRetries());
+        }
+        clientConfig = config;
+        retireClients();
+      }
+    }
+  }
+
+  /**
+   * Close the pooled client and its connections, a new client is created if requests are sent afterwards.
+   */
+  public static void close() {
+    synchronized (clientLock) {
+      retireClients();
+      for (ModalCloseable retiredClient : retiredClients) {
+        retiredClient.close(CloseMode.GRACEFUL);
+      }
+      retiredClients.clear();
+    }
+  }
+
+  private static void retireClients() {
+    if (client != null) {
+      retiredClients.add(client);
+      client = null;
+    }
+    if (asyncClient != null) {
+      retiredClients.add(asyncClient);
+      asyncClient = null;
+    }
+  }
+
+  static void setRetryPolicy(final RetryPolicy policy) {
+    synchronized (clientLock) {
+      retryPolicy = policy;
+    }
+  }
+
+  private static RetryPolicy retryPolicy() {
+    synchronized (clientLock) {
+      return retryPolicy;
+    }
+  }
+
+  static List<ModalCloseable> getRetiredClients() {
+    synchronized (clientLock) {
+      return new ArrayList<>(retiredClients);
+    }
+  }
+
+  static CloseableHttpClient client() {
+    synchronized (clientLock) {
+      if (client == null) {
+        client = createClient(clientConfig);
+      }
+      return client;
+    }
+  }
+
+  private static CloseableHttpAsyncClient asyncClient() {
+    synchronized (clientLock) {
+      if (asyncClient == null) {
+        asyncClient = createAsyncClient(clientConfig);
+        asyncClient.start();
+      }
+      return asyncClient;
+    }
+  }
+
+  private static CloseableHttpClient createClient(final PublisherHttpClientConfig config) {
+    PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+        .setMaxConnTotal(config.getMaxConnections())
+        .setMaxConnPerRoute(config.getMaxConnections())
+        .setDefaultConnectionConfig(ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.ofSeconds(config.getConnectTimeoutSeconds()))
+            .setSocketTimeout(Timeout.ofSeconds(config.getSocketTimeoutSeconds()))
+            .build())
+        .build();
+
+    return HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .disableAutomaticRetries()
+        .evictExpiredConnections()
+        .evictIdleConnections(TimeValue.ofSeconds(config.getKeepAliveSeconds()))
+        .build();
+  }
+
+  private static CloseableHttpAsyncClient createAsyncClient(final PublisherHttpClientConfig config) {
+    // HTTP/2 when negotiated with ALPN, one connection then carries all the concurrent requests
+    PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+        .setMaxConnTotal(config.getMaxConnections())
+        .setMaxConnPerRoute(config.getMaxConnections())
+        .setMessageMultiplexing(true)
+        .setDefaultTlsConfig(TlsConfig.custom()
+            .setVersionPolicy(HttpVersionPolicy.NEGOTIATE)
+            .build())
+        .setDefaultConnectionConfig(ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.ofSeconds(config.getConnectTimeoutSeconds()))
+            .setSocketTimeout(Timeout.ofSeconds(config.getSocketTimeoutSeconds()))
+            .build())
+        .build();
+
+    return HttpAsyncClients.custom()
+        .setConnectionManager(connectionManager)
+        .disableAutomaticRetries()
+        .evictExpiredConnections()
+        .evictIdleConnections(TimeValue.ofSeconds(config.getKeepAliveSeconds()))
+        .build();
+  }
+
+  /**
+   * Send a request, retried according to the {@link RetryPolicy}: a POST with a body, i.e. the upload, is not
+   * idempotent, all the other requests are.
+   */
   public static String sendRequest(
       final AuthProvider authProvider,
       final String endpointUrl,
       final Map<String, String> params,
-      final Path body,
+      final ContentBody body,
       final RequestType requestType) throws IOException
   {
-    try {
-      URIBuilder uriBuilder = new URIBuilder(endpointUrl);
-      params.forEach(uriBuilder::addParameter);
+    return sendRequest(authProvider, endpointUrl, params, body, requestType, null);
+  }
 
+  /**
+   * Same as {@link #sendRequest(AuthProvider, String, Map, ContentBody, RequestType)}, reporting the progress of
+   * sending the {@code body} to the {@code uploadListener}, if any.
+   */
+  public static String sendRequest(
+      final AuthProvider authProvider,
+      final String endpointUrl,
+      final Map<String, String> params,
+      final ContentBody body,
+      final RequestType requestType,
+      @Nullable final UploadListener uploadListener) throws IOException
+  {
+    URI uri = toUri(endpointUrl, params);
+    boolean idempotent = requestType != RequestType.POST || body == null;
+    return retry(idempotent, () -> {
+      UploadMonitor uploadMonitor = null;
+      HttpUriRequestBase httpRequest;
       switch (requestType) {
         case POST: {
-          HttpPost httpPost = new HttpPost(uriBuilder.build());
-          authProvider.getAuthHeaders().forEach(httpPost::addHeader);
-
+          HttpPost httpPost = new HttpPost(uri);
           if (body != null) {
-            File file = body.toFile();
             MultipartEntityBuilder builder = MultipartEntityBuilder.create();
             builder.setMode(HttpMultipartMode.LEGACY);
-            builder.addBinaryBody("bundle", file, ContentType.APPLICATION_OCTET_STREAM, file.getName());
-            httpPost.setEntity(builder.build());
-          }
-
-          try (CloseableHttpClient client = HttpClients.createDefault()) {
-            return client.execute(httpPost, new BasicHttpClientResponseHandler());
+            builder.addPart("bundle", body);
+            HttpEntity entity = builder.build();
+            if (uploadListener != null) {
+              uploadMonitor = new UploadMonitor(uploadListener, entity.getContentLength());
+              entity = uploadMonitor.wrap(entity);
+            }
+            httpPost.setEntity(entity);
           }
+          httpRequest = httpPost;
+          break;
         }
-        case GET:
         case DELETE:
-        default: {
-          HttpUriRequestBase httpRequest =
-              requestType == RequestType.DELETE ? new HttpDelete(uriBuilder.build()) : new HttpGet(uriBuilder.build());
-          authProvider.getAuthHeaders().forEach(httpRequest::addHeader);
-          try (CloseableHttpClient client = HttpClients.createDefault()) {
-            return client.execute(httpRequest, new BasicHttpClientResponseHandler());
+          httpRequest = new HttpDelete(uri);
+          break;
+        case GET:
+        default:
+          httpRequest = new HttpGet(uri);
+          break;
+      }
+      return execute(authProvider, httpRequest, new BasicHttpClientResponseHandler(), uploadMonitor);
+    });
+  }
+
+  /**
+   * Send a request without a body asynchronously, retried according to the {@link RetryPolicy}. The returned future
+   * completes with the response body, or with the {@link IOException} of the last attempt.
+   */
+  public static CompletableFuture<String> sendAsyncRequest(
+      final AuthProvider authProvider,
+      final String endpointUrl,
+      final Map<String, String> params,
+      final RequestType requestType)
+  {
+    URI uri;
+    try {
+      uri = toUri(endpointUrl, params);
+    }
+    catch (IOException e) {
+      CompletableFuture<String> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+
+    return retryPolicy().executeAsync(true, () -> {
+      SimpleHttpRequest request = SimpleRequestBuilder.create(requestType.name()).setUri(uri).build();
+      authProvider.getAuthHeaders().forEach(request::addHeader);
+
+      CompletableFuture<String> response = new CompletableFuture<>();
+      asyncClient().execute(request, new FutureCallback<SimpleHttpResponse>()
+      {
+        @Override
+        public void completed(final SimpleHttpResponse result) {
+          try {
+            response.complete(toBodyString(result));
+          }
+          catch (IOException e) {
+            response.completeExceptionally(e);
           }
         }
-      }
+
+        @Override
+        public void failed(final Exception e) {
+          response.completeExceptionally(e);
+        }
+
+        @Override
+        public void cancelled() {
+          response.completeExceptionally(new InterruptedIOException("Request cancelled"));
+        }
+      });
+      return response;
+    });
+  }
+
+  private static URI toUri(final String endpointUrl, final Map<String, String> params) throws IOException {
+    try {
+      URIBuilder uriBuilder = new URIBuilder(endpointUrl);
+      params.forEach(uriBuilder::addParameter);
+      return uriBuilder.build();
     }
     catch (URISyntaxException e) {
       throw new IOException(e);
     }
   }
+
+  /**
+   * Send a request once, with the headers of the {@link AuthProvider}. A response with a status code of {@code 300}
+   * or more is not passed to the {@code handler}, it fails with a {@link RetryAfterHttpResponseException}.
+   */
+  public static <T> T execute(
+      final AuthProvider authProvider,
+      final ClassicHttpRequest request,
+      final HttpClientResponseHandler<T> handler) throws IOException
+  {
+    return execute(authProvider, request, handler, null);
+  }
+
+  private static <T> T execute(
+      final AuthProvider authProvider,
+      final ClassicHttpRequest request,
+      final HttpClientResponseHandler<T> handler,
+      @Nullable final UploadMonitor uploadMonitor) throws IOException
+  {
+    authProvider.getAuthHeaders().forEach(request::addHeader);
+    return client().execute(request, response -> {
+      if (uploadMonitor != null) {
+        uploadMonitor.responseReceived();
+      }
+      checkResponse(response);
+      return handler.handleResponse(response);
+    });
+  }
+
+  /**
+   * Send a request, and send it again as long as the {@link RetryPolicy} allows.
+   */
+  public static <T> T retry(final boolean idempotent, final RetryPolicy.Request<T> request) throws IOException {
+    return retryPolicy().execute(idempotent, request);
+  }
+
+  /**
+   * Same check as {@link BasicHttpClientResponseHandler}, but keeps the {@code Retry-After} header of failed
+   * responses.
+   */
+  private static void checkResponse(final ClassicHttpResponse response) throws IOException {
+    if (response.getCode() < HttpStatus.SC_REDIRECTION) {
+      return;
+    }
+
+    HttpEntity entity = response.getEntity();
+    byte[] contentBytes = entity != null ? EntityUtils.toByteArray(entity) : null;
+    ContentType contentType = entity != null ? ContentType.parseLenient(entity.getContentType()) : null;
+    throw new RetryAfterHttpResponseException(
+        response.getCode(),
+        response.getReasonPhrase(),
+        contentBytes,
+        contentType,
+        getRetryAfterMillis(response));
+  }
+
+  /**
+   * Same as {@link #checkResponse(ClassicHttpResponse)} for an asynchronous response, whose body is then returned.
+   */
+  @Nullable
+  private static String toBodyString(final SimpleHttpResponse response) throws IOException {
+    ContentType contentType = response.getContentType();
+    byte[] contentBytes = response.getBodyBytes();
+    if (response.getCode() >= HttpStatus.SC_REDIRECTION) {
+      throw new RetryAfterHttpResponseException(
+          response.getCode(),
+          response.getReasonPhrase(),
+          contentBytes,
+          contentType,
+          getRetryAfterMillis(response));
+    }
+    if (contentBytes == null) {
+      return null;
+    }
+    return new String(contentBytes, contentType != null ? contentType.getCharset(UTF_8) : UTF_8);
+  }
+
+  @Nullable
+  private static Long getRetryAfterMillis(final HttpResponse response) {
+    Header header = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+    if (header == null || header.getValue() == null) {
+      return null;
+    }
+
+    String value = header.getValue().trim();
+    try {
+      return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(value)));
+    }
+    catch (NumberFormatException e) {
+      Instant date = DateUtils.parseStandardDate(value);
+      return date != null ? Math.max(0, Duration.between(Instant.now(), date).toMillis()) : null;
+    }
+  }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+package org.sonatype.central.publisher.client.httpclient;
+
+import java.util.Objects;
+
+/**
+ * Connection pool limits, timeouts and retries of the {@link PublisherHttpClient}.
+ */
+public class PublisherHttpClientConfig
+{
+  public static final int DEFAULT_MAX_CONNECTIONS = 20;
+
+  public static final int DEFAULT_CONNECT_TIMEOUT_SECONDS = 180;
+
+  public static final int DEFAULT_SOCKET_TIMEOUT_SECONDS = 0;
+
+  public static final int DEFAULT_KEEP_ALIVE_SECONDS = 60;
+
+  public static final int DEFAULT_MAX_RETRIES = RetryPolicy.DEFAULT_MAX_RETRIES;
+
+  private final int maxConnections;
+
+  private final int connectTimeoutSeconds;
+
+  private final int socketTimeoutSeconds;
+
+  private final int keepAliveSeconds;
+
+  private final int maxRetries;
+
+  public PublisherHttpClientConfig() {
+    this(DEFAULT_MAX_CONNECTIONS, DEFAULT_CONNECT_TIMEOUT_SECONDS, DEFAULT_SOCKET_TIMEOUT_SECONDS,
+        DEFAULT_KEEP_ALIVE_SECONDS, DEFAULT_MAX_RETRIES);
+  }
+
+  /**
+   * @param maxConnections - the maximum number of pooled connections, Central being a single route
+   * @param connectTimeoutSeconds - the timeout to establish a connection, 0 for none
+   * @param socketTimeoutSeconds - the timeout waiting for data on a connection, 0 for none
+   * @param keepAliveSeconds - how long an idle connection is kept in the pool for reuse
+   * @param maxRetries - how many times a failed request is sent again, see {@link RetryPolicy}
+   */
+  public PublisherHttpClientConfig(
+      final int maxConnections,
+      final int connectTimeoutSeconds,
+      final int socketTimeoutSeconds,
+      final int keepAliveSeconds,
+      final int maxRetries)
+  {
+    this.maxConnections = maxConnections;
+    this.connectTimeoutSeconds = connectTimeoutSeconds;
+    this.socketTimeoutSeconds = socketTimeoutSeconds;
+    this.keepAliveSeconds = keepAliveSeconds;
+    this.maxRetries = maxRetries;
+  }
+
+  public int getMaxConnections() {
+    return maxConnections;
+  }
+
+  public int getConnectTimeoutSeconds() {
+    return connectTimeoutSeconds;
+  }
+
+  public int getSocketTimeoutSeconds() {
+    return socketTimeoutSeconds;
+  }
+
+  public int getKeepAliveSeconds() {
+    return keepAliveSeconds;
+  }
+
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    PublisherHttpClientConfig that = (PublisherHttpClientConfig) o;
+    return maxConnections == that.maxConnections
+        && connectTimeoutSeconds == that.connectTimeoutSeconds
+        && socketTimeoutSeconds == that.socketTimeoutSeconds
+        && keepAliveSeconds == that.keepAliveSeconds
+        && maxRetries == that.maxRetries;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(maxConnections, connectTimeoutSeconds, socketTimeoutSeconds, keepAliveSeconds, maxRetries);
+  }
+}
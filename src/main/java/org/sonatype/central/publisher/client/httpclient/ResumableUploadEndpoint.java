@@ -0,0 +1,378 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+package org.sonatype.central.publisher.client.httpclient;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.sonatype.central.publisher.client.httpclient.auth.AuthProvider;
+import org.sonatype.central.publisher.client.httpclient.utils.FileRegionEntity;
+
+import org.apache.hc.client5.http.ClientProtocolException;
+import org.apache.hc.client5.http.HttpResponseException;
+import org.apache.hc.client5.http.classic.methods.HttpHead;
+import org.apache.hc.client5.http.classic.methods.HttpPatch;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.net.URIBuilder;
+import org.jspecify.annotations.Nullable;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.sonatype.central.publisher.client.PublisherConstants.HTTP_UPLOAD_LENGTH_HEADER;
+import static org.sonatype.central.publisher.client.PublisherConstants.HTTP_UPLOAD_OFFSET_HEADER;
+import static org.sonatype.central.publisher.client.PublisherConstants.RESUMABLE_UPLOAD_ENDPOINT_URL;
+import static org.sonatype.central.publisher.client.httpclient.utils.HttpResponseUtil.toContentString;
+
+/**
+ * Uploads a bundle in chunks, so that a failed upload resumes from the last chunk the server acknowledged instead of
+ * starting over, also after a restart of the build. The protocol follows the tus resumable upload protocol:
+ * <ul>
+ *   <li>{@code POST} to {@link org.sonatype.central.publisher.client.PublisherConstants#RESUMABLE_UPLOAD_ENDPOINT_URL}
+ *   with the bundle size as {@code Upload-Length} creates the upload, the response {@code Location} is its URL</li>
+ *   <li>{@code HEAD} to the upload URL answers the acknowledged {@code Upload-Offset}</li>
+ *   <li>{@code PATCH} to the upload URL sends the chunk at the given {@code Upload-Offset}, a chunk at another offset
+ *   is rejected with {@code 409}; the response carries the new {@code Upload-Offset}</li>
+ *   <li>{@code POST} to the upload URL once all bytes are acknowledged creates the deployment, the response body is
+ *   its id, the same id if it is sent again</li>
+ * </ul>
+ * The upload URL and the acknowledged offset are kept in a progress file per bundle name, and are only reused for the
+ * same content and upload parameters, and only as long as the bundle file was not written again: the bytes of a bundle
+ * written again differ, e.g. by the times of its entries, even for the same content.
+ * <p>
+ * Central does not offer this endpoint, it is only used against servers that do.
+ */
+public class ResumableUploadEndpoint
+{
+  public static final String PROGRESS_FILE_EXTENSION = ".upload";
+
+  private static final ContentType OFFSET_OCTET_STREAM = ContentType.create("application/offset+octet-stream");
+
+  public String call(
+      final String baseUrl,
+      final AuthProvider authProvider,
+      final Map<String, String> params,
+      final Path body,
+      final long chunkSize,
+      final Path progressDirectory,
+      @Nullable final String contentKey)
+  {
+    try {
+      return upload(baseUrl, authProvider, params, body, chunkSize, progressDirectory, contentKey);
+    }
+    catch (HttpResponseException e) {
+      throw new RuntimeException(
+          "Invalid request. Status: " + e.getStatusCode() + " Response body: " + toContentString(e));
+    }
+    catch (IOException e) {
+      throw new RuntimeException("Invalid request. " + e.getMessage());
+    }
+  }
+
+  /**
+   * @param progressDirectory - the directory the progress of the uploads is kept in
+   * @param bundle - the bundle
+   * @param contentKey - the key of the content of the bundle
+   * @return true if an upload of the bundle file, as it is, was started for the same content and can be resumed.
+   */
+  public static boolean canResume(final Path progressDirectory, final Path bundle, final String contentKey) {
+    Properties properties = UploadProgress.read(progressFile(progressDirectory, bundle));
+    return properties != null && contentKey.equals(properties.getProperty("content"))
+        && bundleVersion(bundle).equals(properties.getProperty("bundle"));
+  }
+
+  private String upload(
+      final String baseUrl,
+      final AuthProvider authProvider,
+      final Map<String, String> params,
+      final Path bundle,
+      final long chunkSize,
+      final Path progressDirectory,
+      @Nullable final String contentKey) throws IOException
+  {
+    Files.createDirectories(progressDirectory);
+    Path progressFile = progressFile(progressDirectory, bundle);
+    long length = Files.size(bundle);
+    String uploadKey = uploadKey(bundle, params, contentKey);
+    String bundleVersion = bundleVersion(bundle);
+
+    UploadProgress progress = UploadProgress.load(progressFile, uploadKey, bundleVersion);
+    if (progress != null) {
+      try {
+        progress.offset = getOffset(authProvider, progress.uploadUri);
+      }
+      catch (HttpResponseException e) {
+        if (e.getStatusCode() != HttpStatus.SC_NOT_FOUND && e.getStatusCode() != HttpStatus.SC_GONE) {
+          throw e;
+        }
+        // expired on the server
+        progress = null;
+      }
+    }
+    if (progress == null) {
+      progress = new UploadProgress(progressFile, uploadKey, contentKey, bundleVersion,
+          create(baseUrl, authProvider, params, length));
+      progress.save();
+    }
+
+    URI uploadUri = progress.uploadUri;
+    while (progress.offset < length) {
+      long offset = progress.offset;
+      boolean[] resync = {false};
+      progress.offset = PublisherHttpClient.retry(true, () -> {
+        try {
+          long chunkOffset = resync[0] ? headOffset(authProvider, uploadUri) : offset;
+          return chunkOffset < length
+              ? sendChunk(authProvider, uploadUri, bundle, chunkOffset, Math.min(chunkSize, length - chunkOffset))
+              : chunkOffset;
+        }
+        catch (IOException e) {
+          // the chunk may have been partly acknowledged, ask the server where to continue from
+          resync[0] = true;
+          throw e;
+        }
+      });
+      progress.save();
+    }
+
+    String deploymentId = PublisherHttpClient.retry(true, () -> PublisherHttpClient.execute(
+        authProvider, new HttpPost(uploadUri), response -> EntityUtils.toString(response.getEntity(), UTF_8)));
+
+    Files.deleteIfExists(progressFile);
+    return deploymentId;
+  }
+
+  private static URI create(
+      final String baseUrl,
+      final AuthProvider authProvider,
+      final Map<String, String> params,
+      final long length) throws IOException
+  {
+    URI endpointUri;
+    try {
+      URIBuilder uriBuilder = new URIBuilder(baseUrl + RESUMABLE_UPLOAD_ENDPOINT_URL);
+      params.forEach(uriBuilder::addParameter);
+      endpointUri = uriBuilder.build();
+    }
+    catch (URISyntaxException e) {
+      throw new IOException(e);
+    }
+
+    // creating twice is harmless, an unused upload expires on the server
+    return PublisherHttpClient.retry(true, () -> {
+      HttpPost httpPost = new HttpPost(endpointUri);
+      httpPost.addHeader(HTTP_UPLOAD_LENGTH_HEADER, length);
+      return PublisherHttpClient.execute(authProvider, httpPost, response -> {
+        Header location = response.getFirstHeader(HttpHeaders.LOCATION);
+        if (location == null) {
+          throw new ClientProtocolException("No Location for the created upload");
+        }
+        return endpointUri.resolve(location.getValue());
+      });
+    });
+  }
+
+  private static long getOffset(final AuthProvider authProvider, final URI uploadUri) throws IOException {
+    return PublisherHttpClient.retry(true, () -> headOffset(authProvider, uploadUri));
+  }
+
+  private static long headOffset(final AuthProvider authProvider, final URI uploadUri) throws IOException {
+    return PublisherHttpClient.execute(authProvider, new HttpHead(uploadUri), ResumableUploadEndpoint::toOffset);
+  }
+
+  private static long sendChunk(
+      final AuthProvider authProvider,
+      final URI uploadUri,
+      final Path bundle,
+      final long offset,
+      final long length) throws IOException
+  {
+    HttpPatch httpPatch = new HttpPatch(uploadUri);
+    httpPatch.addHeader(HTTP_UPLOAD_OFFSET_HEADER, offset);
+    httpPatch.setEntity(new FileRegionEntity(bundle, offset, length, OFFSET_OCTET_STREAM));
+    return PublisherHttpClient.execute(authProvider, httpPatch, ResumableUploadEndpoint::toOffset);
+  }
+
+  private static long toOffset(final ClassicHttpResponse response) throws IOException {
+    Header header = response.getFirstHeader(HTTP_UPLOAD_OFFSET_HEADER);
+    if (header == null) {
+      throw new ClientProtocolException("No " + HTTP_UPLOAD_OFFSET_HEADER + " in the response");
+    }
+    try {
+      return Long.parseLong(header.getValue());
+    }
+    catch (NumberFormatException e) {
+      throw new ClientProtocolException("Invalid " + HTTP_UPLOAD_OFFSET_HEADER + ": " + header.getValue());
+    }
+  }
+
+  private static Path progressFile(final Path progressDirectory, final Path bundle) {
+    return progressDirectory.resolve(bundle.getFileName() + PROGRESS_FILE_EXTENSION);
+  }
+
+  /**
+   * @return the version of the bundle file, that changes whenever it is written again.
+   */
+  private static String bundleVersion(final Path bundle) {
+    File file = bundle.toFile();
+    return file.length() + "@" + file.lastModified();
+  }
+
+  /**
+   * @return the key of an upload: the digest of the upload parameters and of the content key, or of the bundle content
+   *     if there is no content key.
+   */
+  private static String uploadKey(
+      final Path bundle,
+      final Map<String, String> params,
+      @Nullable final String contentKey) throws IOException
+  {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      new TreeMap<>(params).forEach((key, value) -> digest.update((key + '=' + value + '\n').getBytes(UTF_8)));
+
+      if (contentKey != null) {
+        digest.update(contentKey.getBytes(UTF_8));
+      }
+      else {
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(bundle)) {
+          int read;
+          while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+          }
+        }
+      }
+
+      StringBuilder key = new StringBuilder();
+      for (byte b : digest.digest()) {
+        key.append(String.format("%02x", b));
+      }
+      return key.toString();
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * The upload URL and acknowledged offset of an upload, replaced atomically on every save.
+   */
+  private static final class UploadProgress
+  {
+    private final Path progressFile;
+
+    private final String uploadKey;
+
+    @Nullable
+    private final String contentKey;
+
+    private final String bundleVersion;
+
+    private final URI uploadUri;
+
+    private long offset;
+
+    private UploadProgress(
+        final Path progressFile,
+        final String uploadKey,
+        @Nullable final String contentKey,
+        final String bundleVersion,
+        final URI uploadUri)
+    {
+      this.progressFile = progressFile;
+      this.uploadKey = uploadKey;
+      this.contentKey = contentKey;
+      this.bundleVersion = bundleVersion;
+      this.uploadUri = uploadUri;
+    }
+
+    /**
+     * @return the progress of the upload with the given key of the given version of the bundle file, or null if none
+     *     is found.
+     */
+    @Nullable
+    private static UploadProgress load(final Path progressFile, final String uploadKey, final String bundleVersion) {
+      Properties properties = read(progressFile);
+      if (properties == null || !uploadKey.equals(properties.getProperty("key"))
+          || !bundleVersion.equals(properties.getProperty("bundle"))) {
+        return null;
+      }
+      try {
+        UploadProgress progress = new UploadProgress(progressFile, uploadKey, properties.getProperty("content"),
+            bundleVersion, new URI(properties.getProperty("uri")));
+        progress.offset = Long.parseLong(properties.getProperty("offset"));
+        return progress;
+      }
+      catch (URISyntaxException | RuntimeException ignore) {
+        // unreadable progress, the upload starts over
+        return null;
+      }
+    }
+
+    @Nullable
+    private static Properties read(final Path progressFile) {
+      Properties properties = new Properties();
+      try (Reader reader = Files.newBufferedReader(progressFile, UTF_8)) {
+        properties.load(reader);
+        return properties;
+      }
+      catch (NoSuchFileException ignore) {
+        return null;
+      }
+      catch (IOException | RuntimeException ignore) {
+        // unreadable progress, the upload starts over
+        return null;
+      }
+    }
+
+    private void save() throws IOException {
+      Properties properties = new Properties();
+      properties.setProperty("key", uploadKey);
+      if (contentKey != null) {
+        properties.setProperty("content", contentKey);
+      }
+      properties.setProperty("bundle", bundleVersion);
+      properties.setProperty("uri", uploadUri.toString());
+      properties.setProperty("offset", Long.toString(offset));
+
+      Path tempFile = Files.createTempFile(progressFile.getParent(), progressFile.getFileName().toString(), ".tmp");
+      try {
+        try (Writer writer = Files.newBufferedWriter(tempFile, UTF_8)) {
+          properties.store(writer, null);
+        }
+        try {
+          Files.move(tempFile, progressFile, ATOMIC_MOVE, REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException e) {
+          Files.move(tempFile, progressFile, REPLACE_EXISTING);
+        }
+      }
+      finally {
+        Files.deleteIfExists(tempFile);
+      }
+    }
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+package org.sonatype.central.publisher.client.httpclient;
+
+import org.apache.hc.client5.http.HttpResponseException;
+import org.apache.hc.core5.http.ContentType;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * {@link HttpResponseException} that also carries the delay asked by the {@code Retry-After} header of the response.
+ */
+public class RetryAfterHttpResponseException
+    extends HttpResponseException
+{
+  private static final long serialVersionUID = 1L;
+
+  @Nullable
+  private final Long retryAfterMillis;
+
+  public RetryAfterHttpResponseException(
+      final int statusCode,
+      final String reasonPhrase,
+      final byte[] contentBytes,
+      final ContentType contentType,
+      @Nullable final Long retryAfterMillis)
+  {
+    super(statusCode, reasonPhrase, contentBytes, contentType);
+    this.retryAfterMillis = retryAfterMillis;
+  }
+
+  /**
+   * @return the delay asked by the response before sending the request again, or null if it did not ask for any.
+   */
+  @Nullable
+  public Long getRetryAfterMillis() {
+    return retryAfterMillis;
+  }
+}
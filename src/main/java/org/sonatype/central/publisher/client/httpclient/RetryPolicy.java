@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+package org.sonatype.central.publisher.client.httpclient;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.client5.http.HttpResponseException;
+import org.apache.hc.core5.http.HttpStatus;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Decides if and when a failed request to Central is sent again: transient failures are retried up to
+ * {@code maxRetries} times with an exponential backoff and full jitter, or after the delay asked by the
+ * {@code Retry-After} header of a {@code 429} or {@code 503} response.
+ * <p>
+ * Requests that are not idempotent, i.e. the upload, are only retried when Central cannot have processed them: the
+ * connection could not be established, or the request was rejected with a {@code 429} or {@code 503}.
+ * <p>
+ * All requests share a retry budget, so that an unavailable Central fails the build instead of multiplying the
+ * requests: besides a reserve of {@link #BUDGET_RESERVE} retries, at most {@link #BUDGET_RATIO} of the requests sent
+ * can be retries. This class is thread safe.
+ */
+public class RetryPolicy
+{
+  public static final int DEFAULT_MAX_RETRIES = 5;
+
+  public static final long DEFAULT_INITIAL_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+  public static final long DEFAULT_MAX_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+  // a longer Retry-After is not honored, the request fails instead
+  private static final long MAX_RETRY_AFTER_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+  private static final int BUDGET_RESERVE = 20;
+
+  private static final double BUDGET_RATIO = 0.2;
+
+  private static final ScheduledExecutorService RETRY_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+      new ThreadFactoryBuilder().setNameFormat("central-retry-%d").setDaemon(true).build());
+
+  private final int maxRetries;
+
+  private final long initialDelayMillis;
+
+  private final long maxDelayMillis;
+
+  private long requests;
+
+  private long retries;
+
+  public RetryPolicy(final int maxRetries) {
+    this(maxRetries, DEFAULT_INITIAL_DELAY_MILLIS, DEFAULT_MAX_DELAY_MILLIS);
+  }
+
+  /**
+   * @param maxRetries - the maximum number of times a request is sent again, 0 to never retry
+   * @param initialDelayMillis - the upper bound of the delay before the first retry, doubled for every next retry
+   * @param maxDelayMillis - the upper bound of the delay before any retry
+   */
+  public RetryPolicy(final int maxRetries, final long initialDelayMillis, final long maxDelayMillis) {
+    this.maxRetries = maxRetries;
+    this.initialDelayMillis = initialDelayMillis;
+    this.maxDelayMillis = maxDelayMillis;
+  }
+
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  /**
+   * Send a request, and send it again as long as it fails in a way that can be retried.
+   *
+   * @param idempotent - whether Central can process the request more than once
+   * @param request - sends the request, called once per attempt
+   * @return the response of the first successful attempt
+   * @throws IOException the failure of the last attempt
+   */
+  public <T> T execute(final boolean idempotent, final Request<T> request) throws IOException {
+    for (int retry = 0; ; retry++) {
+      countRequest();
+      try {
+        return request.send();
+      }
+      catch (IOException e) {
+        long delayMillis = retry < maxRetries ? getDelayMillis(e, idempotent, retry) : -1;
+        if (delayMillis < 0 || !acquireRetry()) {
+          throw e;
+        }
+        sleep(delayMillis, e);
+      }
+    }
+  }
+
+  /**
+   * Same as {@link #execute(boolean, Request)} for a request that is sent asynchronously: the retries are scheduled
+   * instead of waited for.
+   *
+   * @param idempotent - whether Central can process the request more than once
+   * @param request - sends the request, called once per attempt
+   * @return the response of the first successful attempt, or the failure of the last attempt
+   */
+  public <T> CompletableFuture<T> executeAsync(final boolean idempotent, final AsyncRequest<T> request) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    attempt(idempotent, request, 0, result);
+    return result;
+  }
+
+  private <T> void attempt(
+      final boolean idempotent,
+      final AsyncRequest<T> request,
+      final int retry,
+      final CompletableFuture<T> result)
+  {
+    countRequest();
+    request.send().whenComplete((response, failure) -> {
+      if (failure == null) {
+        result.complete(response);
+        return;
+      }
+
+      Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+          ? failure.getCause()
+          : failure;
+      long delayMillis = cause instanceof IOException && retry < maxRetries
+          ? getDelayMillis((IOException) cause, idempotent, retry)
+          : -1;
+      if (delayMillis < 0 || !acquireRetry()) {
+        result.completeExceptionally(cause);
+        return;
+      }
+      RETRY_SCHEDULER.schedule(() -> attempt(idempotent, request, retry + 1, result), delayMillis, MILLISECONDS);
+    });
+  }
+
+  /**
+   * @return the delay before retrying a request that failed with the given exception, or -1 if it is not retried.
+   */
+  long getDelayMillis(final IOException e, final boolean idempotent, final int retry) {
+    if (e instanceof HttpResponseException) {
+      int statusCode = ((HttpResponseException) e).getStatusCode();
+      boolean rejected =
+          statusCode == HttpStatus.SC_TOO_MANY_REQUESTS || statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE;
+      if (rejected && e instanceof RetryAfterHttpResponseException) {
+        Long retryAfterMillis = ((RetryAfterHttpResponseException) e).getRetryAfterMillis();
+        if (retryAfterMillis != null) {
+          return retryAfterMillis <= MAX_RETRY_AFTER_MILLIS ? retryAfterMillis : -1;
+        }
+      }
+      if (rejected || idempotent && isTransient(statusCode)) {
+        return backoffMillis(retry);
+      }
+      return -1;
+    }
+
+    // interrupted or aborted, unlike timeouts which are also InterruptedIOExceptions
+    if (Thread.currentThread().isInterrupted() || e.getClass() == InterruptedIOException.class) {
+      return -1;
+    }
+
+    if (idempotent || isNotSent(e)) {
+      return backoffMillis(retry);
+    }
+    return -1;
+  }
+
+  private static boolean isTransient(final int statusCode) {
+    return statusCode == HttpStatus.SC_REQUEST_TIMEOUT
+        || statusCode == HttpStatus.SC_INTERNAL_SERVER_ERROR
+        || statusCode == HttpStatus.SC_BAD_GATEWAY
+        || statusCode == HttpStatus.SC_GATEWAY_TIMEOUT;
+  }
+
+  /**
+   * @return whether the request failed before anything was sent to Central.
+   */
+  private static boolean isNotSent(final IOException e) {
+    return e instanceof ConnectException
+        || e instanceof ConnectTimeoutException
+        || e instanceof NoRouteToHostException
+        || e instanceof UnknownHostException;
+  }
+
+  private long backoffMillis(final int retry) {
+    long ceiling = initialDelayMillis << Math.min(retry, 20);
+    return ThreadLocalRandom.current().nextLong(Math.min(ceiling, maxDelayMillis) + 1);
+  }
+
+  private synchronized void countRequest() {
+    requests++;
+  }
+
+  private synchronized boolean acquireRetry() {
+    if (retries >= BUDGET_RESERVE + BUDGET_RATIO * requests) {
+      return false;
+    }
+    retries++;
+    return true;
+  }
+
+  private static void sleep(final long delayMillis, final IOException cause) throws IOException {
+    try {
+      Thread.sleep(delayMillis);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      InterruptedIOException interrupted = new InterruptedIOException("Interrupted while waiting to retry");
+      interrupted.addSuppressed(cause);
+      throw interrupted;
+    }
+  }
+
+  /**
+   * A request to Central, sent once per attempt.
+   */
+  @FunctionalInterface
+  public interface Request<T>
+  {
+    T send() throws IOException;
+  }
+
+  /**
+   * A request to Central sent asynchronously, once per attempt.
+   */
+  @FunctionalInterface
+  public interface AsyncRequest<T>
+  {
+    CompletableFuture<T> send();
+  }
+}
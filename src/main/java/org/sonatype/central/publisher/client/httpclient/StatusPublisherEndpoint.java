@@ -6,6 +6,8 @@ package org.sonatype.central.publisher.client.httpclient;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.sonatype.central.publisher.client.httpclient.auth.AuthProvider;
 import org.sonatype.central.publisher.client.model.DeploymentApiResponse;
@@ -15,6 +17,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.hc.client5.http.HttpResponseException;
 
 import static org.sonatype.central.publisher.client.PublisherConstants.STATUS_ENDPOINT_URL;
+import static org.sonatype.central.publisher.client.httpclient.PublisherHttpClient.sendAsyncRequest;
 import static org.sonatype.central.publisher.client.httpclient.PublisherHttpClient.sendRequest;
 import static org.sonatype.central.publisher.client.httpclient.utils.HttpResponseUtil.toContentString;
 
@@ -35,14 +38,44 @@ public class StatusPublisherEndpoint
       String response = sendRequest(authProvider, baseUrl + STATUS_ENDPOINT_URL, params, null, RequestType.POST);
       return objectMapper.readValue(response, DeploymentApiResponse.class);
     }
-    catch (HttpResponseException e) {
-      throw new RuntimeException("Cannot get deployment status. Response status code: "
-          + e.getStatusCode()
-          + " response message: "
-          + toContentString(e));
-    }
     catch (IOException e) {
-      throw new RuntimeException(e);
+      throw toRuntimeException(e);
+    }
+  }
+
+  /**
+   * Same as {@link #call(String, AuthProvider, Map)} without waiting for the response.
+   */
+  public CompletableFuture<DeploymentApiResponse> callAsync(
+      final String baseUrl,
+      final AuthProvider authProvider,
+      final Map<String, String> params)
+  {
+    return sendAsyncRequest(authProvider, baseUrl + STATUS_ENDPOINT_URL, params, RequestType.POST)
+        .handle((response, failure) -> {
+          if (failure instanceof IOException) {
+            throw toRuntimeException((IOException) failure);
+          }
+          if (failure != null) {
+            throw new CompletionException(failure);
+          }
+          try {
+            return objectMapper.readValue(response, DeploymentApiResponse.class);
+          }
+          catch (IOException e) {
+            throw toRuntimeException(e);
+          }
+        });
+  }
+
+  private static RuntimeException toRuntimeException(final IOException e) {
+    if (e instanceof HttpResponseException) {
+      HttpResponseException responseException = (HttpResponseException) e;
+      return new RuntimeException("Cannot get deployment status. Response status code: "
+          + responseException.getStatusCode()
+          + " response message: "
+          + toContentString(responseException), responseException);
     }
+    return new RuntimeException(e);
   }
 }
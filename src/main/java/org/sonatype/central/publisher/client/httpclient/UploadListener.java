@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+package org.sonatype.central.publisher.client.httpclient;
+
+/**
+ * Notified of the progress of a bundle upload, e.g. to log it or to collect its timings.
+ */
+public interface UploadListener
+{
+  /**
+   * Called periodically while the bundle is sent.
+   */
+  void progress(UploadStats stats);
+
+  /**
+   * Called once the response to the upload is received, whatever its status.
+   */
+  void completed(UploadStats stats);
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+package org.sonatype.central.publisher.client.httpclient;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+
+/**
+ * Counts the bytes of a request body as they are written, and times the writes, to report {@link UploadStats} to an
+ * {@link UploadListener}: every {@link #PROGRESS_INTERVAL_NANOS} while the body is sent, and once the response is
+ * received. One monitor is used per attempt of the request.
+ */
+class UploadMonitor
+{
+  private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+  private final UploadListener listener;
+
+  private final long contentLength;
+
+  private long bytesSent;
+
+  private long startNanos = -1;
+
+  private long endNanos = -1;
+
+  private long networkNanos;
+
+  private long lastProgressNanos;
+
+  UploadMonitor(final UploadListener listener, final long contentLength) {
+    this.listener = listener;
+    this.contentLength = contentLength;
+  }
+
+  HttpEntity wrap(final HttpEntity entity) {
+    return new HttpEntityWrapper(entity)
+    {
+      @Override
+      public void writeTo(final OutputStream out) throws IOException {
+        super.writeTo(new CountingOutputStream(out));
+        out.flush();
+        sent();
+      }
+    };
+  }
+
+  /**
+   * To be called as soon as the response is received.
+   */
+  void responseReceived() {
+    long nowNanos = System.nanoTime();
+    UploadStats stats;
+    synchronized (this) {
+      if (endNanos < 0) {
+        sent();
+      }
+      stats = stats(nowNanos, nowNanos - endNanos);
+    }
+    listener.completed(stats);
+  }
+
+  private synchronized void sent() {
+    endNanos = System.nanoTime();
+    if (startNanos < 0) {
+      startNanos = endNanos;
+    }
+  }
+
+  private void written(final int bytes, final long writeStartNanos) {
+    long nowNanos = System.nanoTime();
+    UploadStats progress = null;
+    synchronized (this) {
+      if (startNanos < 0) {
+        startNanos = writeStartNanos;
+        lastProgressNanos = writeStartNanos;
+      }
+      bytesSent += bytes;
+      networkNanos += nowNanos - writeStartNanos;
+      if (nowNanos - lastProgressNanos >= PROGRESS_INTERVAL_NANOS) {
+        lastProgressNanos = nowNanos;
+        progress = stats(nowNanos, -1);
+      }
+    }
+    if (progress != null) {
+      listener.progress(progress);
+    }
+  }
+
+  private UploadStats stats(final long nowNanos, final long timeToFirstByteNanos) {
+    long transferNanos = startNanos < 0 ? 0 : (endNanos < 0 ? nowNanos : endNanos) - startNanos;
+    return new UploadStats(
+        bytesSent,
+        contentLength,
+        TimeUnit.NANOSECONDS.toMillis(transferNanos),
+        TimeUnit.NANOSECONDS.toMillis(networkNanos),
+        timeToFirstByteNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(timeToFirstByteNanos));
+  }
+
+  private class CountingOutputStream
+      extends FilterOutputStream
+  {
+    private CountingOutputStream(final OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      long writeStartNanos = System.nanoTime();
+      out.write(b);
+      written(1, writeStartNanos);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      long writeStartNanos = System.nanoTime();
+      out.write(b, off, len);
+      written(len, writeStartNanos);
+    }
+  }
+}
@@ -4,6 +4,7 @@
  */
 package org.sonatype.central.publisher.client.httpclient;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Map;
@@ -11,6 +12,10 @@ import java.util.Map;
 import org.sonatype.central.publisher.client.httpclient.auth.AuthProvider;
 
 import org.apache.hc.client5.http.HttpResponseException;
+import org.apache.hc.client5.http.entity.mime.ContentBody;
+import org.apache.hc.client5.http.entity.mime.FileBody;
+import org.apache.hc.core5.http.ContentType;
+import org.jspecify.annotations.Nullable;
 
 import static org.sonatype.central.publisher.client.PublisherConstants.UPLOAD_ENDPOINT_URL;
 import static org.sonatype.central.publisher.client.httpclient.PublisherHttpClient.sendRequest;
@@ -24,9 +29,43 @@ public class UploadPublisherEndpoint
       final AuthProvider authProvider,
       final Map<String, String> params,
       final Path body)
+  {
+    return call(baseUrl, authProvider, params, body, null);
+  }
+
+  public String call(
+      final String baseUrl,
+      final AuthProvider authProvider,
+      final Map<String, String> params,
+      final Path body,
+      @Nullable final UploadListener uploadListener)
+  {
+    File file = body.toFile();
+    return call(baseUrl, authProvider, params,
+        new FileBody(file, ContentType.APPLICATION_OCTET_STREAM, file.getName()), uploadListener);
+  }
+
+  public String call(
+      final String baseUrl,
+      final AuthProvider authProvider,
+      final Map<String, String> params,
+      final ContentBody body)
+  {
+    return call(baseUrl, authProvider, params, body, null);
+  }
+
+  /**
+   * Upload the bundle, reporting the progress of sending it to the {@code uploadListener}, if any.
+   */
+  public String call(
+      final String baseUrl,
+      final AuthProvider authProvider,
+      final Map<String, String> params,
+      final ContentBody body,
+      @Nullable final UploadListener uploadListener)
   {
     try {
-      return sendRequest(authProvider, baseUrl + UPLOAD_ENDPOINT_URL, params, body, POST);
+      return sendRequest(authProvider, baseUrl + UPLOAD_ENDPOINT_URL, params, body, POST, uploadListener);
     }
     catch (HttpResponseException e) {
       throw new RuntimeException(
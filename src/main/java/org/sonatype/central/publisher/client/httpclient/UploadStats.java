@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+package org.sonatype.central.publisher.client.httpclient;
+
+/**
+ * Snapshot of the progress and timings of a bundle upload. The time to send the request is split between the time
+ * spent writing to the network and the rest, spent producing the bytes, i.e. reading (and possibly creating) the
+ * bundle. The time to first byte is the time the server took to answer once the whole request was sent.
+ */
+public class UploadStats
+{
+  private final long bytesSent;
+
+  private final long contentLength;
+
+  private final long transferMillis;
+
+  private final long networkMillis;
+
+  private final long timeToFirstByteMillis;
+
+  public UploadStats(
+      final long bytesSent,
+      final long contentLength,
+      final long transferMillis,
+      final long networkMillis,
+      final long timeToFirstByteMillis)
+  {
+    this.bytesSent = bytesSent;
+    this.contentLength = contentLength;
+    this.transferMillis = transferMillis;
+    this.networkMillis = networkMillis;
+    this.timeToFirstByteMillis = timeToFirstByteMillis;
+  }
+
+  public long getBytesSent() {
+    return bytesSent;
+  }
+
+  /**
+   * @return the size of the request body, or -1 if it is not known upfront, i.e. for a streamed bundle.
+   */
+  public long getContentLength() {
+    return contentLength;
+  }
+
+  /**
+   * @return the time since the first byte of the request body was sent, until the last one once it is sent.
+   */
+  public long getTransferMillis() {
+    return transferMillis;
+  }
+
+  /**
+   * @return the part of {@link #getTransferMillis()} spent writing to the network.
+   */
+  public long getNetworkMillis() {
+    return networkMillis;
+  }
+
+  /**
+   * @return the part of {@link #getTransferMillis()} spent producing the bytes to send.
+   */
+  public long getSourceMillis() {
+    return Math.max(0, transferMillis - networkMillis);
+  }
+
+  /**
+   * @return the time between the last byte of the request and the response, or -1 until the response is received.
+   */
+  public long getTimeToFirstByteMillis() {
+    return timeToFirstByteMillis;
+  }
+
+  public double getBytesPerSecond() {
+    return transferMillis > 0 ? bytesSent * 1000d / transferMillis : 0;
+  }
+
+  /**
+   * @return the estimated time to send the rest of the request body, or -1 if it cannot be estimated.
+   */
+  public long getEtaMillis() {
+    double bytesPerSecond = getBytesPerSecond();
+    if (contentLength < 0 || bytesPerSecond <= 0) {
+      return -1;
+    }
+    return (long) (Math.max(0, contentLength - bytesSent) * 1000d / bytesPerSecond);
+  }
+}
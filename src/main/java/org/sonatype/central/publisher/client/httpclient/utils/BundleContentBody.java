@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+package org.sonatype.central.publisher.client.httpclient.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.sonatype.central.publisher.client.httpclient.utils.PublisherBundle.BundleBuilder;
+
+import org.apache.hc.client5.http.entity.mime.AbstractContentBody;
+import org.apache.hc.core5.http.ContentType;
+
+/**
+ * Multipart body that creates the bundle while it is sent, without writing it to a file first. Its length is unknown
+ * upfront, so the request is sent chunked.
+ */
+public class BundleContentBody
+    extends AbstractContentBody
+{
+  private final BundleBuilder bundleBuilder;
+
+  private final String filename;
+
+  public BundleContentBody(final BundleBuilder bundleBuilder, final String filename) {
+    super(ContentType.APPLICATION_OCTET_STREAM);
+    this.bundleBuilder = bundleBuilder;
+    this.filename = filename;
+  }
+
+  @Override
+  public String getFilename() {
+    return filename;
+  }
+
+  @Override
+  public long getContentLength() {
+    return -1;
+  }
+
+  @Override
+  public void writeTo(final OutputStream out) throws IOException {
+    bundleBuilder.writeTo(out);
+  }
+}
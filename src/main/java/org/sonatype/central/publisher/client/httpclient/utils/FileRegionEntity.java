@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+package org.sonatype.central.publisher.client.httpclient.utils;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
+
+/**
+ * Request entity of a region of a file, read from the file each time it is sent, e.g. one chunk of a bundle.
+ */
+public class FileRegionEntity
+    extends AbstractHttpEntity
+{
+  private final Path file;
+
+  private final long offset;
+
+  private final long length;
+
+  public FileRegionEntity(final Path file, final long offset, final long length, final ContentType contentType) {
+    super(contentType, null);
+    this.file = file;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  @Override
+  public InputStream getContent() throws IOException {
+    InputStream in = new FileInputStream(file.toFile());
+    try {
+      IOUtils.skipFully(in, offset);
+    }
+    catch (IOException e) {
+      in.close();
+      throw e;
+    }
+    return new BoundedInputStream(in, length);
+  }
+
+  @Override
+  public long getContentLength() {
+    return length;
+  }
+
+  @Override
+  public boolean isRepeatable() {
+    return true;
+  }
+
+  @Override
+  public boolean isStreaming() {
+    return false;
+  }
+
+  @Override
+  public void close() {
+    // nothing is kept open between two reads
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+package org.sonatype.central.publisher.client.httpclient.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.sonatype.central.publisher.client.httpclient.utils.PublisherBundle.BundleBuilder;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+
+/**
+ * Bundle that is created while the files to bundle are staged: files are appended as soon as they are final, e.g. as
+ * each module of a build is staged, and {@link #finish()} only adds what was not appended yet before writing the
+ * central directory.
+ * <p>
+ * Entries are written the same way as by {@link BundleBuilder}. This class is thread safe.
+ */
+public class IncrementalBundleWriter
+    implements Closeable
+{
+  private final Path sourcePath;
+
+  private final Path bundlePath;
+
+  private final ZipArchiveOutputStream zipOutputStream;
+
+  // entry names, a zip cannot have the same entry twice
+  private final Set<String> appended = new HashSet<>();
+
+  private boolean closed;
+
+  /**
+   * @param sourcePath - the directory the bundle entries are relative to
+   * @param bundlePath - the bundle file, replaced if it exists
+   * @param compressionLevel - the deflate level, see {@link BundleBuilder#compressionLevel(int)}
+   */
+  public IncrementalBundleWriter(
+      final Path sourcePath,
+      final Path bundlePath,
+      final int compressionLevel) throws IOException
+  {
+    this.sourcePath = sourcePath.toAbsolutePath().normalize();
+    this.bundlePath = bundlePath;
+
+    Files.createDirectories(bundlePath.getParent());
+    Files.deleteIfExists(bundlePath);
+    this.zipOutputStream = new ZipArchiveOutputStream(bundlePath);
+    this.zipOutputStream.setLevel(compressionLevel);
+  }
+
+  public Path getBundlePath() {
+    return bundlePath;
+  }
+
+  /**
+   * Append a file of the source directory, unless it was already appended.
+   *
+   * @param filePath - the {@link Path} of the file in the source directory
+   * @param contentPath - the {@link Path} of the file to read, which is not {@code filePath} for files staged elsewhere
+   */
+  public synchronized void append(final Path filePath, final Path contentPath) throws IOException {
+    if (closed) {
+      throw new IOException("Bundle is already finished: " + bundlePath);
+    }
+
+    Path fileRelativePath = sourcePath.relativize(filePath.toAbsolutePath().normalize());
+    if (appended.add(fileRelativePath.toString())) {
+      BundleBuilder.writeEntry(zipOutputStream, fileRelativePath, contentPath.toFile());
+    }
+  }
+
+  /**
+   * Append all files of the source directory that were not appended yet, then write the central directory.
+   *
+   * @return the created {@link PublisherBundle}
+   */
+  public synchronized PublisherBundle finish() throws IOException {
+    BundleBuilder remaining = new BundleBuilder(sourcePath).addAllSourceFiles();
+    for (Path filePath : remaining.getFiles()) {
+      Path contentPath = remaining.getContentFile(filePath);
+      if (Files.isRegularFile(contentPath)) {
+        append(filePath, contentPath);
+      }
+    }
+
+    zipOutputStream.finish();
+    close();
+
+    return new PublisherBundle(bundlePath.getFileName().toString(), bundlePath);
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      zipOutputStream.close();
+    }
+  }
+}
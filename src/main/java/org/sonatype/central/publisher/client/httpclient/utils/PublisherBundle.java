@@ -5,32 +5,83 @@
 
 package org.sonatype.central.publisher.client.httpclient.utils;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.parallel.FileBasedScatterGatherBackingStore;
+import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 
-import static java.util.stream.Collectors.toSet;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
 import static org.sonatype.central.publisher.client.utils.PathUtils.PathOf;
 
 public class PublisherBundle
 {
+  /**
+   * Manifest of files that belong in the bundle without being in the source directory, as lines of
+   * {@code <path in the bundle>=<file URI>}.
+   */
+  public static final String STAGING_MANIFEST_FILE_NAME = ".staging-manifest";
+
+  /**
+   * Index of the files of the source directory that belong in the bundle, as lines of {@code <path in the bundle>} in
+   * the order they were staged, which is not stable for parallel builds. Without an index, the whole source directory
+   * is bundled.
+   */
+  public static final String STAGING_INDEX_FILE_NAME = ".staging-index";
+
+  private static final Object stagingIndexLock = new Object();
+
+  /**
+   * Extensions of files that are already compressed, which are stored in the bundle instead of being deflated again.
+   */
+  public static final Set<String> COMPRESSED_EXTENSIONS = new HashSet<>(Arrays.asList(
+      "jar", "war", "ear", "aar", "zip", "gz", "tgz", "bz2", "xz", "7z"));
+
   private final String name;
 
   private final Path path;
 
-  private Set<Path> files = new HashSet<>();
+  private Set<Path> files = new LinkedHashSet<>();
 
   public PublisherBundle(final String name, final Path path) {
     this.name = name;
@@ -43,6 +94,26 @@ public class PublisherBundle
     this.files = bundleBuilder.files;
   }
 
+  /**
+   * Append files of the source directory to its {@link #STAGING_INDEX_FILE_NAME}. Files that are already in the index
+   * are not added twice when read.
+   *
+   * @param sourcePath - the source directory
+   * @param files - the files, in the source directory
+   */
+  public static void addToStagingIndex(final Path sourcePath, final List<Path> files) throws IOException {
+    Path absoluteSourcePath = sourcePath.toAbsolutePath().normalize();
+    synchronized (stagingIndexLock) {
+      try (Writer writer = Files.newBufferedWriter(absoluteSourcePath.resolve(STAGING_INDEX_FILE_NAME), UTF_8, CREATE,
+          APPEND)) {
+        for (Path file : files) {
+          writer.write(absoluteSourcePath.relativize(file.toAbsolutePath().normalize()).toString());
+          writer.write(System.lineSeparator());
+        }
+      }
+    }
+  }
+
   public String getName() {
     return name;
   }
@@ -65,13 +136,42 @@ public class PublisherBundle
 
     private String bundleName;
 
+    private int threads;
+
+    private int compressionLevel;
+
     private final Set<Path> files;
 
+    // files that are read from elsewhere than their path in the source directory
+    private final Map<Path, Path> contentFiles;
+
     public BundleBuilder(final Path sourcePath) {
       this.sourcePath = sourcePath;
       this.destPath = sourcePath;
       this.bundleName = "bundle.zip";
-      this.files = new HashSet<>();
+      this.threads = 1;
+      this.compressionLevel = Deflater.DEFAULT_COMPRESSION;
+      this.files = new LinkedHashSet<>();
+      this.contentFiles = new HashMap<>();
+    }
+
+    public String getBundleName() {
+      return bundleName;
+    }
+
+    /**
+     * @return the path of the bundle file to build.
+     */
+    public Path getBundlePath() {
+      return PathOf(this.destPath.toString(), this.bundleName);
+    }
+
+    Set<Path> getFiles() {
+      return files;
+    }
+
+    Path getContentFile(final Path filePath) {
+      return contentFiles.getOrDefault(filePath, filePath);
     }
 
     public BundleBuilder sourcePath(Path sourcePath) {
@@ -89,6 +189,25 @@ public class PublisherBundle
       return this;
     }
 
+    /**
+     * Set the number of threads compressing the bundle entries. With more than one thread the entries are compressed
+     * in parallel and then assembled in the bundle, which has the same entries, in the same order, as when compressed
+     * by a single thread.
+     */
+    public BundleBuilder threads(int threads) {
+      this.threads = threads;
+      return this;
+    }
+
+    /**
+     * Set the deflate level (0-9) of the bundle entries that are not already compressed, see
+     * {@link #COMPRESSED_EXTENSIONS}.
+     */
+    public BundleBuilder compressionLevel(int compressionLevel) {
+      this.compressionLevel = compressionLevel;
+      return this;
+    }
+
     public BundleBuilder add(Path filePath) {
       this.files.add(filePath);
       return this;
@@ -99,18 +218,123 @@ public class PublisherBundle
       return this;
     }
 
+    /**
+     * Add the files listed in the {@link #STAGING_INDEX_FILE_NAME} of the source directory, or all files of the source
+     * directory if there is no index, sorted by path so that the bundle does not depend on the order the modules were
+     * staged in. Then add the files of the {@link #STAGING_MANIFEST_FILE_NAME}, see {@link #addAllManifestFiles()}.
+     */
     public BundleBuilder addAllSourceFiles() {
-      Set<Path> files;
-      try (Stream<Path> paths = Files.walk(this.sourcePath)) {
-        files = paths.filter(path -> path.toFile().isFile()).collect(toSet());
-        this.files.addAll(files);
+      Path index = this.sourcePath.resolve(STAGING_INDEX_FILE_NAME);
+      if (Files.isRegularFile(index)) {
+        Set<Path> indexedFiles = new TreeSet<>();
+        try (BufferedReader reader = Files.newBufferedReader(index, UTF_8)) {
+          String line;
+          while ((line = reader.readLine()) != null) {
+            if (!line.isEmpty()) {
+              indexedFiles.add(this.sourcePath.resolve(line));
+            }
+          }
+        }
+        catch (IOException e) {
+          throw new RuntimeException("Error on reading staging index " + index, e);
+        }
+        this.files.addAll(indexedFiles);
+        return addAllManifestFiles();
       }
-      catch (IOException e) {
+
+      Path manifest = this.sourcePath.resolve(STAGING_MANIFEST_FILE_NAME);
+      // the attributes come with the traversal, no further stat per file
+      try (Stream<Path> paths = Files.find(this.sourcePath, Integer.MAX_VALUE,
+          (path, attributes) -> attributes.isRegularFile() && !path.equals(manifest))) {
+        paths.sorted().forEach(this.files::add);
+      }
+      catch (IOException | UncheckedIOException e) {
         throw new RuntimeException("Error on source dir traversal", e);
       }
+      return addAllManifestFiles();
+    }
+
+    /**
+     * Add the files listed in the {@link #STAGING_MANIFEST_FILE_NAME} of the source directory, if there is one. Their
+     * content is read from where the manifest points to.
+     */
+    public BundleBuilder addAllManifestFiles() {
+      Path manifest = this.sourcePath.resolve(STAGING_MANIFEST_FILE_NAME);
+      if (!Files.isRegularFile(manifest)) {
+        return this;
+      }
+
+      Properties entries = new Properties();
+      try (Reader reader = Files.newBufferedReader(manifest, ISO_8859_1)) {
+        entries.load(reader);
+      }
+      catch (IOException e) {
+        throw new RuntimeException("Error on reading staging manifest " + manifest, e);
+      }
+
+      for (String entry : new TreeSet<>(entries.stringPropertyNames())) {
+        Path filePath = this.sourcePath.resolve(entry);
+        this.files.add(filePath);
+        this.contentFiles.put(filePath, Paths.get(URI.create(entries.getProperty(entry))));
+      }
       return this;
     }
 
+    /**
+     * Split the bundle in several bundles of at most {@code maxBundleSize} bytes of content each, without splitting
+     * the files of a directory (i.e. of a GAV) across bundles. A directory with more content than that gets a bundle
+     * of its own. The bundles are named after this bundle, with a {@code -<number>} suffix.
+     *
+     * @return this builder if there is only one bundle, otherwise a builder per bundle.
+     */
+    public List<BundleBuilder> split(final long maxBundleSize) {
+      Map<Path, List<Path>> directories = new TreeMap<>();
+      for (Path filePath : this.files) {
+        directories.computeIfAbsent(filePath.getParent(), directory -> new ArrayList<>()).add(filePath);
+      }
+
+      List<List<Path>> bundles = new ArrayList<>();
+      List<Path> bundle = new ArrayList<>();
+      long bundleSize = 0;
+      for (List<Path> directory : directories.values()) {
+        long directorySize = 0;
+        for (Path filePath : directory) {
+          directorySize += getContentFile(filePath).toFile().length();
+        }
+        if (!bundle.isEmpty() && bundleSize + directorySize > maxBundleSize) {
+          bundles.add(bundle);
+          bundle = new ArrayList<>();
+          bundleSize = 0;
+        }
+        bundle.addAll(directory);
+        bundleSize += directorySize;
+      }
+      bundles.add(bundle);
+
+      if (bundles.size() == 1) {
+        return Collections.singletonList(this);
+      }
+
+      String baseName = FilenameUtils.getBaseName(this.bundleName);
+      String extension = FilenameUtils.getExtension(this.bundleName);
+      List<BundleBuilder> builders = new ArrayList<>();
+      for (int i = 0; i < bundles.size(); i++) {
+        BundleBuilder builder = new BundleBuilder(this.sourcePath)
+            .destPath(this.destPath)
+            .bundleName(baseName + "-" + (i + 1) + (extension.isEmpty() ? "" : "." + extension))
+            .threads(this.threads)
+            .compressionLevel(this.compressionLevel);
+        for (Path filePath : bundles.get(i)) {
+          builder.files.add(filePath);
+          if (this.contentFiles.containsKey(filePath)) {
+            builder.contentFiles.put(filePath, this.contentFiles.get(filePath));
+          }
+        }
+        builders.add(builder);
+      }
+      return builders;
+    }
+
     public PublisherBundle build() {
       this.bundlePath = createBundle();
       return new PublisherBundle(this);
@@ -127,28 +351,141 @@ public class PublisherBundle
       catch (IOException e) {
         throw new RuntimeException("File already exists: " + newBundle);
       }
-      try (ZipOutputStream zipOutputStream = new ZipOutputStream(new FileOutputStream(newBundle.toFile()))) {
-        for (Path filePath : this.files) {
-          Path fileRelativePath = this.sourcePath.relativize(filePath);
-          File bundleEntry = filePath.toFile();
+      // a seekable bundle file gets the crc and size of stored entries written after their content, read only once
+      try (ZipArchiveOutputStream zipOutputStream = new ZipArchiveOutputStream(newBundle)) {
+        write(zipOutputStream);
+      }
+      catch (Exception e) {
+        throw new RuntimeException("Error on bundle creation", e);
+      }
 
-          if (bundleEntry.isFile()) {
-            zipOutputStream.putNextEntry(new ZipEntry(fileRelativePath.toString()));
-            try (FileInputStream in = new FileInputStream(bundleEntry)) {
-              IOUtils.copy(in, zipOutputStream);
-            }
+      return newBundle;
+    }
 
-            zipOutputStream.closeEntry();
-          }
-        }
+    /**
+     * Write the bundle to the given stream instead of creating a bundle file, e.g. to upload it while it is being
+     * created. The stream is not closed.
+     */
+    public void writeTo(final OutputStream out) throws IOException {
+      try (ZipArchiveOutputStream zipOutputStream = new ZipArchiveOutputStream(CloseShieldOutputStream.wrap(out))) {
+        write(zipOutputStream);
+      }
+    }
 
+    private void write(final ZipArchiveOutputStream zipOutputStream) throws IOException {
+      try {
+        if (this.threads > 1) {
+          writeInParallel(zipOutputStream);
+        }
+        else {
+          writeSequentially(zipOutputStream);
+        }
         zipOutputStream.finish();
       }
-      catch (Exception e) {
-        throw new RuntimeException("Error on bundle creation", e);
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted on bundle creation");
+      }
+      catch (ExecutionException e) {
+        throw new IOException("Error on bundle creation", e.getCause());
       }
+    }
 
-      return newBundle;
+    private void writeSequentially(final ZipArchiveOutputStream zipOutputStream) throws IOException {
+      zipOutputStream.setLevel(this.compressionLevel);
+      for (Path filePath : this.files) {
+        Path fileRelativePath = this.sourcePath.relativize(filePath);
+        File bundleEntry = this.contentFiles.getOrDefault(filePath, filePath).toFile();
+
+        if (bundleEntry.isFile()) {
+          writeEntry(zipOutputStream, fileRelativePath, bundleEntry);
+        }
+      }
+    }
+
+    static void writeEntry(
+        final ZipArchiveOutputStream zipOutputStream,
+        final Path fileRelativePath,
+        final File bundleEntry) throws IOException
+    {
+      ZipArchiveEntry zipEntry = new ZipArchiveEntry(fileRelativePath.toString());
+      zipEntry.setTime(System.currentTimeMillis());
+      if (isCompressed(fileRelativePath)) {
+        zipEntry.setMethod(ZipEntry.STORED);
+        if (!zipOutputStream.isSeekable()) {
+          // a stored entry needs its size and crc before its content when they cannot be written after it
+          zipEntry.setSize(bundleEntry.length());
+          zipEntry.setCrc(crc32(bundleEntry));
+        }
+      }
+      zipOutputStream.putArchiveEntry(zipEntry);
+      try (FileInputStream in = new FileInputStream(bundleEntry)) {
+        IOUtils.copy(in, zipOutputStream);
+      }
+
+      zipOutputStream.closeArchiveEntry();
+    }
+
+    /**
+     * Every entry is deflated by a worker into its own scatter file, the compressed entries are then copied to the
+     * bundle as is, in the order they were added.
+     */
+    private void writeInParallel(final ZipArchiveOutputStream zipOutputStream)
+        throws IOException, InterruptedException, ExecutionException
+    {
+      Path scatterDir = Files.createDirectories(this.destPath);
+      ExecutorService executorService = Executors.newFixedThreadPool(this.threads,
+          new ThreadFactoryBuilder().setNameFormat("central-bundle-%d").setDaemon(true).build());
+      // shuts the executor service down once all entries are compressed
+      ParallelScatterZipCreator zipCreator = new ParallelScatterZipCreator(executorService,
+          () -> new FileBasedScatterGatherBackingStore(Files.createTempFile(scatterDir, "scatter", ".tmp")),
+          this.compressionLevel);
+
+      for (Path filePath : this.files) {
+        Path fileRelativePath = this.sourcePath.relativize(filePath);
+        File bundleEntry = this.contentFiles.getOrDefault(filePath, filePath).toFile();
+
+        if (bundleEntry.isFile()) {
+          ZipArchiveEntry zipEntry = new ZipArchiveEntry(fileRelativePath.toString());
+          // the crc of a stored entry is computed while it is scattered
+          zipEntry.setMethod(isCompressed(fileRelativePath) ? ZipEntry.STORED : ZipEntry.DEFLATED);
+          zipEntry.setTime(System.currentTimeMillis());
+          zipCreator.addArchiveEntry(zipEntry, () -> open(bundleEntry));
+        }
+      }
+
+      try {
+        zipCreator.writeTo(zipOutputStream);
+      }
+      finally {
+        executorService.shutdownNow();
+      }
+    }
+
+    private static boolean isCompressed(final Path fileRelativePath) {
+      return COMPRESSED_EXTENSIONS.contains(
+          FilenameUtils.getExtension(fileRelativePath.getFileName().toString()).toLowerCase());
+    }
+
+    private static long crc32(final File file) throws IOException {
+      CRC32 crc32 = new CRC32();
+      byte[] buffer = new byte[IOUtils.DEFAULT_BUFFER_SIZE];
+      try (InputStream in = new FileInputStream(file)) {
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          crc32.update(buffer, 0, read);
+        }
+      }
+      return crc32.getValue();
+    }
+
+    private static InputStream open(final File file) {
+      try {
+        return new FileInputStream(file);
+      }
+      catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
     }
   }
 }
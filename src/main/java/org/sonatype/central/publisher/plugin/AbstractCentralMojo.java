@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+
+package org.sonatype.central.publisher.plugin;
+
+import org.sonatype.central.publisher.client.PublisherClient;
+import org.sonatype.central.publisher.client.httpclient.PublisherHttpClientConfig;
+import org.sonatype.central.publisher.plugin.utils.AuthData;
+import org.sonatype.central.publisher.plugin.watcher.DeploymentJournal;
+import org.sonatype.central.publisher.plugin.watcher.PendingDeployments;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.settings.Server;
+import org.apache.maven.settings.crypto.DefaultSettingsDecryptionRequest;
+import org.apache.maven.settings.crypto.SettingsDecrypter;
+import org.apache.maven.settings.crypto.SettingsDecryptionResult;
+
+import static java.lang.String.format;
+import static org.sonatype.central.publisher.client.PublisherConstants.DEFAULT_ORGANIZATION_ID;
+import static org.sonatype.central.publisher.client.httpclient.auth.AuthProviderType.USERTOKEN;
+import static org.sonatype.central.publisher.plugin.Constants.CENTRAL_BASE_URL_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.CENTRAL_BASE_URL_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.DEFAULT_PENDING_DEPLOYMENTS_DIR_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.HTTP_CONNECT_TIMEOUT_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.HTTP_CONNECT_TIMEOUT_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.HTTP_MAX_CONNECTIONS_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.HTTP_MAX_CONNECTIONS_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.HTTP_RETRIES_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.HTTP_RETRIES_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.HTTP_SOCKET_TIMEOUT_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.HTTP_SOCKET_TIMEOUT_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.PUBLISHING_SERVER_ID_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.PUBLISHING_SERVER_ID_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.PUBLISH_COMPLETION_POLL_INTERVAL_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.PUBLISH_COMPLETION_POLL_INTERVAL_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.WAIT_MAX_POLLING_INTERVAL_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.WAIT_MAX_POLLING_INTERVAL_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.WAIT_MAX_TIME_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.WAIT_MAX_TIME_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.WAIT_POLLING_INTERVAL_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.WAIT_POLLING_INTERVAL_NAME;
+
+/**
+ * The parameters and the client shared by the goals that talk to Central: the credentials, the HTTP client settings
+ * and how long to wait for a deployment state.
+ */
+public abstract class AbstractCentralMojo
+    extends AbstractPublisherMojo
+{
+  /**
+   * ID of the server that you configured in your <code>settings.xml</code>.
+   *
+   * @since 0.1.1
+   */
+  @Parameter(property = PUBLISHING_SERVER_ID_NAME, defaultValue = PUBLISHING_SERVER_ID_DEFAULT_VALUE)
+  private String publishingServerId;
+
+  /**
+   * Assign the amount of seconds that the plugin will wait for a deployment state. Can not be less than
+   * {@link Constants#WAIT_MAX_TIME_DEFAULT_VALUE}.
+   *
+   * @since 0.2.0
+   */
+  @Parameter(
+      property = WAIT_MAX_TIME_NAME,
+      defaultValue = WAIT_MAX_TIME_DEFAULT_VALUE)
+  private int waitMaxTime;
+
+  /**
+   * Assign the amount of seconds between checking whether a deployment has published. Can not be less than
+   * {@link Constants#WAIT_POLLING_INTERVAL_DEFAULT_VALUE}. The deployment is checked once right after the upload, then
+   * at this interval while it is validated.
+   *
+   * @since 0.2.0
+   */
+  @Parameter(
+      property = WAIT_POLLING_INTERVAL_NAME,
+      defaultValue = WAIT_POLLING_INTERVAL_DEFAULT_VALUE)
+  private int waitPollingInterval;
+
+  /**
+   * Assign the maximum amount of seconds between checking whether a deployment has published. While a deployment is
+   * publishing, the interval starts at {@link #waitPollingInterval} and is doubled, with some jitter, after every check
+   * up to this value. Can not be less than {@link #waitPollingInterval}.
+   *
+   * @since 1.3.1
+   */
+  @Parameter(
+      property = WAIT_MAX_POLLING_INTERVAL_NAME,
+      defaultValue = WAIT_MAX_POLLING_INTERVAL_DEFAULT_VALUE)
+  private int waitMaxPollingInterval;
+
+  /**
+   * @deprecated use {@link #waitPollingInterval} instead
+   *
+   * @since 0.1.1
+   */
+  @Deprecated
+  @Parameter(
+      property = PUBLISH_COMPLETION_POLL_INTERVAL_NAME,
+      defaultValue = PUBLISH_COMPLETION_POLL_INTERVAL_DEFAULT_VALUE)
+  private int publishCompletionPollInterval;
+
+  /**
+   * Assign the URL that this plugin uses to publish releases. Defaults to
+   * {@link Constants#CENTRAL_BASE_URL_DEFAULT_VALUE}.
+   *
+   * @since 0.1.1
+   */
+  @Parameter(property = CENTRAL_BASE_URL_NAME, defaultValue = CENTRAL_BASE_URL_DEFAULT_VALUE)
+  private String centralBaseUrl;
+
+  /**
+   * Assign the maximum number of connections to Central that are pooled and kept alive, to be reused by all the
+   * requests of the build.
+   *
+   * @since 1.3.1
+   */
+  @Parameter(property = HTTP_MAX_CONNECTIONS_NAME, defaultValue = HTTP_MAX_CONNECTIONS_DEFAULT_VALUE)
+  private int httpMaxConnections;
+
+  /**
+   * Assign the timeout in seconds to establish a connection to Central, <code>0</code> for none.
+   *
+   * @since 1.3.1
+   */
+  @Parameter(property = HTTP_CONNECT_TIMEOUT_NAME, defaultValue = HTTP_CONNECT_TIMEOUT_DEFAULT_VALUE)
+  private int httpConnectTimeout;
+
+  /**
+   * Assign the timeout in seconds waiting for data from Central on an established connection, <code>0</code> for
+   * none.
+   *
+   * @since 1.3.1
+   */
+  @Parameter(property = HTTP_SOCKET_TIMEOUT_NAME, defaultValue = HTTP_SOCKET_TIMEOUT_DEFAULT_VALUE)
+  private int httpSocketTimeout;
+
+  /**
+   * Assign how many times a request to Central that failed transiently, e.g. with a <code>502</code>, a
+   * <code>429</code> or a connection error, is sent again after an exponential backoff, <code>0</code> for never. The
+   * upload is only sent again when Central cannot have received it.
+   *
+   * @since 1.3.1
+   */
+  @Parameter(property = HTTP_RETRIES_NAME, defaultValue = HTTP_RETRIES_DEFAULT_VALUE)
+  private int httpRetries;
+
+  @Component
+  private PublisherClient publisherClient;
+
+  @Component
+  private SettingsDecrypter theCryptKeeper;
+
+  protected String getPublishingServerId() {
+    return publishingServerId;
+  }
+
+  protected String getCentralBaseUrl() {
+    return centralBaseUrl;
+  }
+
+  protected int getWaitMaxTime() {
+    return waitMaxTime;
+  }
+
+  protected int getWaitPollingInterval() {
+    return waitPollingInterval;
+  }
+
+  protected int getWaitMaxPollingInterval() {
+    return waitMaxPollingInterval;
+  }
+
+  protected int getHttpMaxConnections() {
+    return httpMaxConnections;
+  }
+
+  protected PublisherClient getPublisherClient() {
+    return publisherClient;
+  }
+
+  /**
+   * @return the deployments to wait for with the {@code watch} goal, kept in the
+   *     {@link Constants#DEFAULT_PENDING_DEPLOYMENTS_DIR_NAME} directory of the build directory of the first module,
+   *     which the plugin does not clean but <code>mvn clean</code> does.
+   */
+  protected PendingDeployments getPendingDeployments() {
+    return new PendingDeployments(getMojoUtils()
+        .getWorkDirectoryRoot(DEFAULT_PENDING_DEPLOYMENTS_DIR_NAME, getMavenSession(), getPluginGroupId(),
+            getPluginArtifactId(), null)
+        .toPath());
+  }
+
+  /**
+   * @return the journal of the uploaded deployments, kept in the same directory as {@link #getPendingDeployments()}.
+   */
+  protected DeploymentJournal getDeploymentJournal() {
+    return new DeploymentJournal(getMojoUtils()
+        .getWorkDirectoryRoot(DEFAULT_PENDING_DEPLOYMENTS_DIR_NAME, getMavenSession(), getPluginGroupId(),
+            getPluginArtifactId(), null)
+        .toPath());
+  }
+
+  /**
+   * Validate the parameters of this class, to be called by {@link #doValidateParameters()}.
+   */
+  protected void validateCentralParameters() throws MojoExecutionException {
+    int publishCompletionPollIntervalDefault = Integer.parseInt(PUBLISH_COMPLETION_POLL_INTERVAL_DEFAULT_VALUE);
+    int waitPollingIntervalDefault = Integer.parseInt(WAIT_POLLING_INTERVAL_DEFAULT_VALUE);
+
+    // if the default is not used, update waitPollingIntervalDefault.
+    if (publishCompletionPollInterval != publishCompletionPollIntervalDefault) {
+      getLog().warn(format(
+          "%s is deprecated, using it will set %s (converted to seconds).",
+          PUBLISH_COMPLETION_POLL_INTERVAL_NAME,
+          WAIT_POLLING_INTERVAL_NAME));
+
+      // only update waitPollingInterval if it was still set to the default
+      if (waitPollingInterval == waitPollingIntervalDefault) {
+        // convert to seconds from milliseconds
+        waitPollingInterval = publishCompletionPollInterval / 1000;
+      }
+    }
+
+    if (waitPollingInterval < waitPollingIntervalDefault) {
+      getLog().warn(format(
+          "%s was set to be less than %2$s seconds, will use the default of %2$s seconds.",
+          WAIT_POLLING_INTERVAL_NAME,
+          WAIT_POLLING_INTERVAL_DEFAULT_VALUE));
+
+      waitPollingInterval = waitPollingIntervalDefault;
+    }
+
+    if (waitMaxPollingInterval < waitPollingInterval) {
+      getLog().warn(format(
+          "%s was set to be less than %s, will use %s seconds.",
+          WAIT_MAX_POLLING_INTERVAL_NAME,
+          WAIT_POLLING_INTERVAL_NAME,
+          waitPollingInterval));
+
+      waitMaxPollingInterval = waitPollingInterval;
+    }
+
+    int waitMaxTimeDefault = Integer.parseInt(WAIT_MAX_TIME_DEFAULT_VALUE);
+    if (waitMaxTime < waitMaxTimeDefault) {
+      getLog().warn(format(
+          "%s was set to be less than %2$s seconds, will use the default of %2$s seconds.",
+          WAIT_MAX_TIME_NAME,
+          WAIT_MAX_TIME_DEFAULT_VALUE));
+
+      waitMaxTime = waitMaxTimeDefault;
+    }
+
+    if (httpMaxConnections < 1) {
+      throw new MojoExecutionException(format("%s must be at least 1.", HTTP_MAX_CONNECTIONS_NAME));
+    }
+
+    if (httpConnectTimeout < 0 || httpSocketTimeout < 0 || httpRetries < 0) {
+      throw new MojoExecutionException(format("%s, %s and %s must not be negative.",
+          HTTP_CONNECT_TIMEOUT_NAME,
+          HTTP_SOCKET_TIMEOUT_NAME,
+          HTTP_RETRIES_NAME));
+    }
+  }
+
+  protected void configurePublisherClient() {
+    publisherClient.setHttpClientConfig(new PublisherHttpClientConfig(
+        httpMaxConnections,
+        httpConnectTimeout,
+        httpSocketTimeout,
+        PublisherHttpClientConfig.DEFAULT_KEEP_ALIVE_SECONDS,
+        httpRetries));
+
+    if (centralBaseUrl != null) {
+      getLog().info("Using Central baseUrl: " + centralBaseUrl);
+      publisherClient.setCentralBaseUrl(centralBaseUrl);
+    }
+
+    getLog().info("Using credentials from server id " + publishingServerId + " in settings.xml");
+
+    AuthData authData = getUserCredentials();
+    getLog().debug("Using Usertoken auth, with namecode: " + authData.getUsername());
+    publisherClient.setAuthProvider(USERTOKEN, DEFAULT_ORGANIZATION_ID,
+        authData.getUsername(),
+        authData.getPassword());
+  }
+
+  private AuthData getUserCredentials() {
+    try {
+      Server server = getMavenSession().getSettings().getServer(publishingServerId);
+      if (server == null) {
+        throw new IllegalStateException("No <server> with id '" + publishingServerId + "' found in settings.xml");
+      }
+      SettingsDecryptionResult settingsDecryptionResult =
+          theCryptKeeper.decrypt(new DefaultSettingsDecryptionRequest(server));
+      Server decrypted = settingsDecryptionResult.getServer();
+      if (decrypted == null
+          || StringUtils.isBlank(decrypted.getUsername())
+          || StringUtils.isBlank(decrypted.getPassword())) {
+        if (!settingsDecryptionResult.getProblems().isEmpty()) {
+          getLog().warn("Settings decryption problems: " + settingsDecryptionResult.getProblems());
+        }
+        throw new IllegalStateException("Missing username/password for server id '" + publishingServerId + "'");
+      }
+      return new AuthData(decrypted.getUsername(), decrypted.getPassword());
+    }
+    catch (Exception e) {
+      throw new RuntimeException("Unable to get publisher server properties for server id: " + publishingServerId,
+          e);
+    }
+  }
+}
@@ -12,6 +12,12 @@ public class Constants
 
   public static final String DEFAULT_DEFERRED_DIR_NAME = "central-deferred";
 
+  public static final String DEFAULT_CHECKSUM_CACHE_DIR_NAME = "central-checksum-cache";
+
+  public static final String DEFAULT_UPLOAD_PROGRESS_DIR_NAME = "central-upload-progress";
+
+  public static final String DEFAULT_PENDING_DEPLOYMENTS_DIR_NAME = "central-deployments";
+
   public static final String LOCAL_STAGING_REPOSITORY_NAME = "central-staging";
 
   public static final String CLI_EXECUTION_ID = "default-cli";
@@ -26,6 +32,8 @@ public class Constants
 
   public static final String PUBLISH_GOAL = "publish";
 
+  public static final String WATCH_GOAL = "watch";
+
   public static final String DEPLOY_PHASE = "deploy";
 
   public static final String PUBLISH_GOAL_ID = "injected-central-publishing";
@@ -54,6 +62,16 @@ public class Constants
 
   public static final String DROP_VALIDATED_DEFAULT_VALUE = "false";
 
+  public static final String DETACH_WAIT_NAME = "detachWait";
+
+  public static final String DETACH_WAIT_DEFAULT_VALUE = "false";
+
+  public static final String DEPLOYMENT_IDS_NAME = "deploymentIds";
+
+  public static final String RESUME_DEPLOYMENTS_NAME = "resumeDeployments";
+
+  public static final String RESUME_DEPLOYMENTS_DEFAULT_VALUE = "false";
+
   public static final String WAIT_UNTIL_NAME = "waitUntil";
 
   public static final String WAIT_UNTIL_DEFAULT_VALUE = "VALIDATED";
@@ -66,10 +84,78 @@ public class Constants
 
   public static final String WAIT_POLLING_INTERVAL_DEFAULT_VALUE = "5"; // in seconds.
 
+  public static final String WAIT_MAX_POLLING_INTERVAL_NAME = "waitMaxPollingInterval";
+
+  public static final String WAIT_MAX_POLLING_INTERVAL_DEFAULT_VALUE = "60"; // in seconds.
+
   public static final String CHECKSUMS_NAME = "checksums";
 
   public static final String CHECKSUMS_DEFAULT_VALUE = "ALL";
 
+  public static final String CHECKSUM_THREADS_NAME = "checksumThreads";
+
+  public static final String CHECKSUM_THREADS_DEFAULT_VALUE = "1";
+
+  public static final String BUNDLE_THREADS_NAME = "bundleThreads";
+
+  public static final String BUNDLE_THREADS_DEFAULT_VALUE = "1";
+
+  public static final String BUNDLE_COMPRESSION_LEVEL_NAME = "bundleCompressionLevel";
+
+  public static final String BUNDLE_COMPRESSION_LEVEL_DEFAULT_VALUE = "6";
+
+  public static final String STREAMING_UPLOAD_NAME = "streamingUpload";
+
+  public static final String STREAMING_UPLOAD_DEFAULT_VALUE = "false";
+
+  public static final String INCREMENTAL_BUNDLE_NAME = "incrementalBundle";
+
+  public static final String INCREMENTAL_BUNDLE_DEFAULT_VALUE = "false";
+
+  public static final String MAX_BUNDLE_SIZE_NAME = "maxBundleSize";
+
+  public static final String MAX_BUNDLE_SIZE_DEFAULT_VALUE = "0";
+
+  public static final String MAX_PARALLEL_UPLOADS_NAME = "maxParallelUploads";
+
+  public static final String MAX_PARALLEL_UPLOADS_DEFAULT_VALUE = "2";
+
+  public static final String UPLOAD_CHUNK_SIZE_NAME = "uploadChunkSize";
+
+  public static final String UPLOAD_CHUNK_SIZE_DEFAULT_VALUE = "0";
+
+  public static final String HTTP_MAX_CONNECTIONS_NAME = "httpMaxConnections";
+
+  public static final String HTTP_MAX_CONNECTIONS_DEFAULT_VALUE = "20";
+
+  public static final String HTTP_CONNECT_TIMEOUT_NAME = "httpConnectTimeout";
+
+  public static final String HTTP_CONNECT_TIMEOUT_DEFAULT_VALUE = "180";
+
+  public static final String HTTP_SOCKET_TIMEOUT_NAME = "httpSocketTimeout";
+
+  public static final String HTTP_SOCKET_TIMEOUT_DEFAULT_VALUE = "0";
+
+  public static final String HTTP_RETRIES_NAME = "httpRetries";
+
+  public static final String HTTP_RETRIES_DEFAULT_VALUE = "5";
+
+  public static final String HTTP_ASYNC_NAME = "httpAsync";
+
+  public static final String HTTP_ASYNC_DEFAULT_VALUE = "false";
+
+  public static final String CHECKSUM_SIDECARS_NAME = "checksumSidecars";
+
+  public static final String CHECKSUM_SIDECARS_DEFAULT_VALUE = "NONE";
+
+  public static final String STAGING_MODE_NAME = "stagingMode";
+
+  public static final String STAGING_MODE_DEFAULT_VALUE = "COPY";
+
+  public static final String CHECKSUM_CACHE_NAME = "checksumCache";
+
+  public static final String CHECKSUM_CACHE_DEFAULT_VALUE = "false";
+
   public static final String PUBLISH_COMPLETION_POLL_INTERVAL_NAME = "publishCompletionPollInterval";
 
   public static final String PUBLISH_COMPLETION_POLL_INTERVAL_DEFAULT_VALUE = "1000";
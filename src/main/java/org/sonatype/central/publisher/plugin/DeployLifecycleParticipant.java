@@ -7,6 +7,9 @@ package org.sonatype.central.publisher.plugin;
 import java.util.Collection;
 import java.util.List;
 
+import org.sonatype.central.publisher.client.httpclient.PublisherHttpClient;
+import org.sonatype.central.publisher.plugin.bundler.ArtifactBundler;
+
 import org.apache.maven.AbstractMavenLifecycleParticipant;
 import org.apache.maven.MavenExecutionException;
 import org.apache.maven.execution.MavenSession;
@@ -16,6 +19,7 @@ import org.apache.maven.model.PluginContainer;
 import org.apache.maven.model.PluginExecution;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.LogEnabled;
 import org.codehaus.plexus.logging.Logger;
 
@@ -38,6 +42,9 @@ public class DeployLifecycleParticipant
 {
   protected Logger logger;
 
+  @Requirement
+  private ArtifactBundler artifactBundler;
+
   @Override
   public void enableLogging(final Logger logger) {
     this.logger = logger;
@@ -69,6 +76,14 @@ public class DeployLifecycleParticipant
     }
   }
 
+  @Override
+  public void afterSessionEnd(final MavenSession session) {
+    // the connections to Central are kept alive for the whole session
+    PublisherHttpClient.close();
+    // a bundle left unfinished by a failed build must not be appended to by the next build of a daemon JVM
+    artifactBundler.discardIncrementalBundles();
+  }
+
   private long getCentralPublishingPluginExecutions(final List<MavenProject> projects) {
     return projects.stream()
         .map(project -> getCentralPublishingPlugin(project.getModel()))
@@ -7,36 +7,63 @@ package org.sonatype.central.publisher.plugin;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-
-import org.sonatype.central.publisher.client.PublisherClient;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+
+import org.sonatype.central.publisher.client.httpclient.ResumableUploadEndpoint;
+import org.sonatype.central.publisher.client.httpclient.utils.PublisherBundle.BundleBuilder;
 import org.sonatype.central.publisher.client.model.PublishingType;
 import org.sonatype.central.publisher.plugin.bundler.ArtifactBundler;
 import org.sonatype.central.publisher.plugin.config.PlexusContextConfig;
 import org.sonatype.central.publisher.plugin.deffer.ArtifactDeferrer;
 import org.sonatype.central.publisher.plugin.deffer.ArtifactDeferrerImpl;
 import org.sonatype.central.publisher.plugin.deleter.DeploymentDeleter;
+import org.sonatype.central.publisher.plugin.exceptions.DeploymentsPublishFailedException;
 import org.sonatype.central.publisher.plugin.model.ArtifactWithFile;
 import org.sonatype.central.publisher.plugin.model.BundleArtifactRequest;
 import org.sonatype.central.publisher.plugin.model.ChecksumRequest;
+import org.sonatype.central.publisher.plugin.model.ChecksumSidecars;
 import org.sonatype.central.publisher.plugin.model.DeferArtifactRequest;
 import org.sonatype.central.publisher.plugin.model.DeleteDeploymentRequest;
+import org.sonatype.central.publisher.plugin.model.PreBundleRequest;
 import org.sonatype.central.publisher.plugin.model.StageArtifactRequest;
+import org.sonatype.central.publisher.plugin.model.StagedFile;
+import org.sonatype.central.publisher.plugin.model.StagingMode;
 import org.sonatype.central.publisher.plugin.model.UploadArtifactRequest;
 import org.sonatype.central.publisher.plugin.model.WaitForDeploymentStateRequest;
 import org.sonatype.central.publisher.plugin.model.WaitUntilRequest;
 import org.sonatype.central.publisher.plugin.published.ComponentPublishedChecker;
 import org.sonatype.central.publisher.plugin.stager.ArtifactStager;
 import org.sonatype.central.publisher.plugin.uploader.ArtifactUploader;
-import org.sonatype.central.publisher.plugin.utils.AuthData;
+import org.sonatype.central.publisher.plugin.utils.ChecksumCache;
 import org.sonatype.central.publisher.plugin.utils.DirectoryUtils;
+import org.sonatype.central.publisher.plugin.utils.HashAlgorithm;
+import org.sonatype.central.publisher.plugin.utils.HashUtils;
+import org.sonatype.central.publisher.plugin.watcher.DeploymentJournal;
 import org.sonatype.central.publisher.plugin.watcher.DeploymentPublishedWatcher;
+import org.sonatype.central.publisher.plugin.watcher.PendingDeployments;
+import org.sonatype.central.publisher.plugin.watcher.ReusableDeploymentFinder;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.artifact.deployer.ArtifactDeploymentException;
 import org.apache.maven.artifact.installer.ArtifactInstallationException;
 import org.apache.maven.execution.MavenSession;
@@ -45,50 +72,70 @@ import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.apache.maven.settings.Server;
-import org.apache.maven.settings.crypto.DefaultSettingsDecryptionRequest;
-import org.apache.maven.settings.crypto.SettingsDecrypter;
-import org.apache.maven.settings.crypto.SettingsDecryptionResult;
+import org.eclipse.aether.SessionData;
+import org.jspecify.annotations.Nullable;
 
 import static java.lang.String.format;
 import static java.util.Collections.unmodifiableList;
 import static java.util.stream.Collectors.toList;
-import static org.sonatype.central.publisher.client.PublisherConstants.DEFAULT_ORGANIZATION_ID;
-import static org.sonatype.central.publisher.client.httpclient.auth.AuthProviderType.USERTOKEN;
 import static org.sonatype.central.publisher.plugin.Constants.AUTO_PUBLISH_DEFAULT_VALUE;
 import static org.sonatype.central.publisher.plugin.Constants.AUTO_PUBLISH_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.BUNDLE_COMPRESSION_LEVEL_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.BUNDLE_COMPRESSION_LEVEL_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.BUNDLE_THREADS_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.BUNDLE_THREADS_NAME;
 import static org.sonatype.central.publisher.plugin.Constants.CENTRAL_BASE_URL_DEFAULT_VALUE;
 import static org.sonatype.central.publisher.plugin.Constants.CENTRAL_BASE_URL_NAME;
 import static org.sonatype.central.publisher.plugin.Constants.CENTRAL_SNAPSHOTS_URL_NAME;
 import static org.sonatype.central.publisher.plugin.Constants.CHECKSUMS_DEFAULT_VALUE;
 import static org.sonatype.central.publisher.plugin.Constants.CHECKSUMS_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.CHECKSUM_CACHE_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.CHECKSUM_CACHE_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.CHECKSUM_SIDECARS_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.CHECKSUM_SIDECARS_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.CHECKSUM_THREADS_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.CHECKSUM_THREADS_NAME;
 import static org.sonatype.central.publisher.plugin.Constants.DEFAULT_BUNDLE_OUTPUT_DIR_NAME;
 import static org.sonatype.central.publisher.plugin.Constants.DEFAULT_BUNDLE_OUTPUT_FILENAME;
+import static org.sonatype.central.publisher.plugin.Constants.DEFAULT_CHECKSUM_CACHE_DIR_NAME;
 import static org.sonatype.central.publisher.plugin.Constants.DEFAULT_DEFERRED_DIR_NAME;
 import static org.sonatype.central.publisher.plugin.Constants.DEFAULT_DEPLOYMENT_NAME;
 import static org.sonatype.central.publisher.plugin.Constants.DEFAULT_STAGING_DIR_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.DEFAULT_UPLOAD_PROGRESS_DIR_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.DEPLOYMENT_IDS_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.DETACH_WAIT_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.DETACH_WAIT_NAME;
 import static org.sonatype.central.publisher.plugin.Constants.DROP_VALIDATED_DEFAULT_VALUE;
 import static org.sonatype.central.publisher.plugin.Constants.DROP_VALIDATED_NAME;
 import static org.sonatype.central.publisher.plugin.Constants.EXCLUDE_ARTIFACTS_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.HTTP_ASYNC_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.HTTP_ASYNC_NAME;
 import static org.sonatype.central.publisher.plugin.Constants.IGNORE_PUBLISHED_COMPONENTS_DEFAULT_VALUE;
 import static org.sonatype.central.publisher.plugin.Constants.IGNORE_PUBLISHED_COMPONENTS_NAME;
-import static org.sonatype.central.publisher.plugin.Constants.PUBLISHING_SERVER_ID_DEFAULT_VALUE;
-import static org.sonatype.central.publisher.plugin.Constants.PUBLISHING_SERVER_ID_NAME;
-import static org.sonatype.central.publisher.plugin.Constants.PUBLISH_COMPLETION_POLL_INTERVAL_DEFAULT_VALUE;
-import static org.sonatype.central.publisher.plugin.Constants.PUBLISH_COMPLETION_POLL_INTERVAL_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.INCREMENTAL_BUNDLE_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.INCREMENTAL_BUNDLE_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.MAX_BUNDLE_SIZE_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.MAX_BUNDLE_SIZE_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.MAX_PARALLEL_UPLOADS_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.MAX_PARALLEL_UPLOADS_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.RESUME_DEPLOYMENTS_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.RESUME_DEPLOYMENTS_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.STAGING_MODE_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.STAGING_MODE_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.STREAMING_UPLOAD_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.STREAMING_UPLOAD_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.UPLOAD_CHUNK_SIZE_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.UPLOAD_CHUNK_SIZE_NAME;
 import static org.sonatype.central.publisher.plugin.Constants.WAIT_FOR_PUBLISH_COMPLETION_DEFAULT_VALUE;
 import static org.sonatype.central.publisher.plugin.Constants.WAIT_FOR_PUBLISH_COMPLETION_NAME;
-import static org.sonatype.central.publisher.plugin.Constants.WAIT_MAX_TIME_DEFAULT_VALUE;
-import static org.sonatype.central.publisher.plugin.Constants.WAIT_MAX_TIME_NAME;
-import static org.sonatype.central.publisher.plugin.Constants.WAIT_POLLING_INTERVAL_DEFAULT_VALUE;
-import static org.sonatype.central.publisher.plugin.Constants.WAIT_POLLING_INTERVAL_NAME;
 import static org.sonatype.central.publisher.plugin.Constants.WAIT_UNTIL_DEFAULT_VALUE;
 import static org.sonatype.central.publisher.plugin.Constants.WAIT_UNTIL_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.WATCH_GOAL;
 import static org.sonatype.central.publisher.plugin.deffer.ArtifactDeferrerImpl.INDEX_FILE_NAME;
 
 @Mojo(name = "publish", defaultPhase = LifecyclePhase.DEPLOY, requiresOnline = true, threadSafe = true)
 public class PublishMojo
-    extends AbstractPublisherMojo
+    extends AbstractCentralMojo
 {
   /**
    * Name of the bundle file that the plugin will output as a result.
@@ -116,6 +163,25 @@ public class PublishMojo
   @Parameter(property = "stagingDirectory")
   private File forcedStagingDirectory;
 
+  /**
+   * Assign how artifacts are put into the staging directory, and the deferred directory for snapshots. Three options
+   * are available:
+   * <p/>
+   * <code>copy</code> - Artifacts are copied.
+   * <p/>
+   * <code>link</code> - Artifacts are hard linked, so no bytes are written. Artifacts are copied when they can not be
+   * linked, e.g. when the staging directory is on a different file system than the build directory.
+   * <p/>
+   * <code>virtual</code> - Artifacts are only recorded in a manifest of the staging directory, and the bundle is
+   * created straight from the build outputs. Only checksum files are written to the staging directory. Snapshots are
+   * linked, as they are deployed from the deferred directory.
+   * <p/>
+   *
+   * @since 1.3.1
+   */
+  @Parameter(property = STAGING_MODE_NAME, defaultValue = STAGING_MODE_DEFAULT_VALUE)
+  private String stagingMode;
+
   /**
    * Name of the directory where the plugin will defer snapshot files.<br>
    * <b>Note:</b> this directory will be cleaned on the first execution of this plugin.
@@ -134,14 +200,6 @@ public class PublishMojo
   @Parameter(property = "deploymentName", defaultValue = DEFAULT_DEPLOYMENT_NAME)
   private String deploymentName;
 
-  /**
-   * ID of the server that you configured in your <code>settings.xml</code>.
-   *
-   * @since 0.1.1
-   */
-  @Parameter(property = PUBLISHING_SERVER_ID_NAME, defaultValue = PUBLISHING_SERVER_ID_DEFAULT_VALUE)
-  private String publishingServerId;
-
   /**
    * Assign whether to auto publish a deployment. Meaning that no manual intervention is required, if a deployment is
    * considered valid, before publishing it. Defaults to {@link Constants#AUTO_PUBLISH_DEFAULT_VALUE}.
@@ -181,37 +239,31 @@ public class PublishMojo
   private String waitUntil;
 
   /**
-   * Assign the amount of seconds that the plugin will wait for a deployment state. Can not be less than
-   * {@link Constants#WAIT_MAX_TIME_DEFAULT_VALUE}.
+   * Assign whether to return right after the upload instead of waiting for {@link #waitUntil}. The deployment is then
+   * recorded in the build directory, and the <code>watch</code> goal of a later build waits for it. This frees the
+   * build, e.g. a CI job, while Central validates and publishes the deployment. Can not be used with
+   * {@link #dropValidated}. The record is lost by <code>mvn clean</code> or a fresh checkout, e.g. in another CI job:
+   * the <code>watch</code> goal is then given the logged deployment ids with its <code>deploymentIds</code>
+   * parameter.
    *
-   * @since 0.2.0
+   * @since 1.3.1
    */
-  @Parameter(
-      property = WAIT_MAX_TIME_NAME,
-      defaultValue = WAIT_MAX_TIME_DEFAULT_VALUE)
-  private int waitMaxTime;
+  @Parameter(property = DETACH_WAIT_NAME, defaultValue = DETACH_WAIT_DEFAULT_VALUE)
+  private boolean detachWait;
 
   /**
-   * Assign the amount of seconds between checking whether a deployment has published. Can not be less than
-   * {@link Constants#WAIT_POLLING_INTERVAL_DEFAULT_VALUE}.
+   * Assign whether to record the uploaded deployments and their states in a journal kept in the build directory, by the
+   * content they were uploaded from, and to use a deployment that a previous build of the same content uploaded
+   * instead of uploading it again: a deployment that build did not see reach a final state, e.g. because it was
+   * killed or timed out, is watched again, and a published one is reused, as is a validated one unless publishing is
+   * automatic. The content is the same if the staged files are, signatures aside, which requires a reproducible build.
+   * The content is compared by the checksums generated for the staged files, the files without any are read again.
+   * Defaults to {@link Constants#RESUME_DEPLOYMENTS_DEFAULT_VALUE}, every build uploads its content.
    *
-   * @since 0.2.0
+   * @since 1.3.1
    */
-  @Parameter(
-      property = WAIT_POLLING_INTERVAL_NAME,
-      defaultValue = WAIT_POLLING_INTERVAL_DEFAULT_VALUE)
-  private int waitPollingInterval;
-
-  /**
-   * @deprecated use {@link #waitPollingInterval} instead
-   *
-   * @since 0.1.1
-   */
-  @Deprecated
-  @Parameter(
-      property = PUBLISH_COMPLETION_POLL_INTERVAL_NAME,
-      defaultValue = PUBLISH_COMPLETION_POLL_INTERVAL_DEFAULT_VALUE)
-  private int publishCompletionPollInterval;
+  @Parameter(property = RESUME_DEPLOYMENTS_NAME, defaultValue = RESUME_DEPLOYMENTS_DEFAULT_VALUE)
+  private boolean resumeDeployments;
 
   /**
    * @deprecated use {@link #autoPublish} in combination with {@link #waitUntil} instead
@@ -223,23 +275,24 @@ public class PublishMojo
   private boolean waitForPublishCompletion;
 
   /**
-   * Assign the URL that this plugin uses to publish releases. Defaults to
-   * {@link Constants#CENTRAL_BASE_URL_DEFAULT_VALUE}.
+   * Assign whether the requests that only query Central, e.g. the published status of the components when
+   * {@link #ignorePublishedComponents} is set, are sent concurrently instead of one after the other. They are then
+   * multiplexed over a single connection when Central negotiates HTTP/2.
    *
-   * @since 0.1.1
+   * @since 1.3.1
    */
-  @Parameter(property = CENTRAL_BASE_URL_NAME, defaultValue = CENTRAL_BASE_URL_DEFAULT_VALUE)
-  private String centralBaseUrl;
+  @Parameter(property = HTTP_ASYNC_NAME, defaultValue = HTTP_ASYNC_DEFAULT_VALUE)
+  private boolean httpAsync;
 
   /**
    * URL that this plugin uses to publish snapshots to. Used by
    * {@link ArtifactDeferrerImpl#getDeploymentRepository(MavenSession, String, String)} as follows:
    * <p/>
-   * a) Use this URL if it is set and {@link #publishingServerId} is set.
+   * a) Use this URL if it is set and <code>publishingServerId</code> is set.
    * <p/>
    * b) Use repo URL defined by distributionManagement from project POM if this is defined.
    * <p/>
-   * c) Use {@link Constants#CENTRAL_SNAPSHOTS_URL_DEFAULT_VALUE} as default if {@link #publishingServerId} is set.
+   * c) Use {@link Constants#CENTRAL_SNAPSHOTS_URL_DEFAULT_VALUE} as default if <code>publishingServerId</code> is set.
    *
    * @since 0.7.0
    */
@@ -261,6 +314,124 @@ public class PublishMojo
   @Parameter(property = CHECKSUMS_NAME, defaultValue = CHECKSUMS_DEFAULT_VALUE)
   private String checksums;
 
+  /**
+   * Assign the maximum number of files of a module that will have their checksums generated in parallel. Defaults to
+   * {@link Constants#CHECKSUM_THREADS_DEFAULT_VALUE}, generating checksums one file after the other. The generated
+   * checksum files are the same whatever the number of threads.
+   *
+   * @since 1.3.1
+   */
+  @Parameter(property = CHECKSUM_THREADS_NAME, defaultValue = CHECKSUM_THREADS_DEFAULT_VALUE)
+  private int checksumThreads;
+
+  /**
+   * Assign the number of threads compressing the entries of the bundle. Defaults to
+   * {@link Constants#BUNDLE_THREADS_DEFAULT_VALUE}, compressing one entry after the other. The bundle has the same
+   * entries whatever the number of threads.
+   *
+   * @since 1.3.1
+   */
+  @Parameter(property = BUNDLE_THREADS_NAME, defaultValue = BUNDLE_THREADS_DEFAULT_VALUE)
+  private int bundleThreads;
+
+  /**
+   * Assign the deflate level, from <code>0</code> (no compression) to <code>9</code> (best compression), of the bundle
+   * entries that are not compressed already, like POMs, signatures and checksum files. Already compressed entries,
+   * like jars, wars, zips and <code>.gz</code> files, are always stored as is. Defaults to
+   * {@link Constants#BUNDLE_COMPRESSION_LEVEL_DEFAULT_VALUE}.
+   *
+   * @since 1.3.1
+   */
+  @Parameter(property = BUNDLE_COMPRESSION_LEVEL_NAME, defaultValue = BUNDLE_COMPRESSION_LEVEL_DEFAULT_VALUE)
+  private int bundleCompressionLevel;
+
+  /**
+   * Indicates if the bundle is uploaded while it is being created, instead of being written to
+   * <code>outputDirectory</code> first. Bundling and uploading overlap, and no bundle file is left behind.
+   *
+   * @since 1.3.1
+   */
+  @Parameter(property = STREAMING_UPLOAD_NAME, defaultValue = STREAMING_UPLOAD_DEFAULT_VALUE)
+  private boolean streamingUpload;
+
+  /**
+   * Indicates if the files of each module are added to the bundle as soon as the module is staged, instead of all at
+   * once after the last module. Only what was not added yet, and the zip central directory, is then written after the
+   * last module. The entries are compressed one after the other, <code>bundleThreads</code> is not used. Cannot be
+   * used together with <code>streamingUpload</code>.
+   *
+   * @since 1.3.1
+   */
+  @Parameter(property = INCREMENTAL_BUNDLE_NAME, defaultValue = INCREMENTAL_BUNDLE_DEFAULT_VALUE)
+  private boolean incrementalBundle;
+
+  /**
+   * Assign the maximum size in megabytes of the content of a bundle. When the staged content is larger, it is split in
+   * several bundles that are uploaded as separate deployments, <code>maxParallelUploads</code> at a time, and waited
+   * for together. The files of a component are never split across bundles. Defaults to
+   * {@link Constants#MAX_BUNDLE_SIZE_DEFAULT_VALUE}, a single bundle whatever its size. Cannot be used together with
+   * <code>incrementalBundle</code>.
+   *
+   * @since 1.3.1
+   */
+  @Parameter(property = MAX_BUNDLE_SIZE_NAME, defaultValue = MAX_BUNDLE_SIZE_DEFAULT_VALUE)
+  private long maxBundleSize;
+
+  /**
+   * Assign the maximum number of bundles uploaded at the same time when the content is split by
+   * <code>maxBundleSize</code>, at most <code>httpMaxConnections</code>. Defaults to
+   * {@link Constants#MAX_PARALLEL_UPLOADS_DEFAULT_VALUE}.
+   *
+   * @since 1.3.1
+   */
+  @Parameter(property = MAX_PARALLEL_UPLOADS_NAME, defaultValue = MAX_PARALLEL_UPLOADS_DEFAULT_VALUE)
+  private int maxParallelUploads;
+
+  /**
+   * Assign the size in megabytes of the chunks the bundle is uploaded in. When set, the bundle is sent chunk by chunk
+   * with a resumable upload: after a failure, also of a previous build of the same content as long as its target
+   * directory was not cleaned, the upload resumes from the last chunk that was received instead of starting over.
+   * <b>Central does not offer the resumable upload endpoint</b>: this is only for a custom server given by
+   * <code>centralBaseUrl</code> that implements it, the goal fails if it is set while publishing to Central. Defaults
+   * to {@link Constants#UPLOAD_CHUNK_SIZE_DEFAULT_VALUE}, the bundle is uploaded in a single request, which is the
+   * only upload Central accepts. Cannot be used together with <code>streamingUpload</code>.
+   *
+   * @since 1.3.1
+   */
+  @Parameter(property = UPLOAD_CHUNK_SIZE_NAME, defaultValue = UPLOAD_CHUNK_SIZE_DEFAULT_VALUE)
+  private long uploadChunkSize;
+
+  /**
+   * Assign how checksum files that already exist for an artifact are used, either next to the staged file or next to
+   * the file it is staged from (e.g. written by the build or a build cache). Three options are available:
+   * <p/>
+   * <code>none</code> - Existing checksum files are ignored, all checksums are computed.
+   * <p/>
+   * <code>trust</code> - Existing well formed checksum files are used as is, only missing checksums are computed. A
+   * module that has all its checksum files is not hashed at all.
+   * <p/>
+   * <code>verify</code> - Like <code>trust</code>, but one randomly picked file per module is hashed to check its
+   * existing checksum files. On a mismatch all checksums of the module are computed.
+   * <p/>
+   *
+   * @since 1.3.1
+   */
+  @Parameter(property = CHECKSUM_SIDECARS_NAME, defaultValue = CHECKSUM_SIDECARS_DEFAULT_VALUE)
+  private String checksumSidecars;
+
+  /**
+   * Assign whether computed checksums are kept in a cache that outlives the build, so files that did not change since
+   * they were last hashed are not read again. A cached checksum is only used while the canonical path, size, last
+   * modified time and file key of the file are unchanged. The cache is kept in
+   * {@link Constants#DEFAULT_CHECKSUM_CACHE_DIR_NAME} next to the other work directories and, unlike those, is not
+   * cleaned by the plugin (a <code>mvn clean</code> of the first module removes it). Defaults to
+   * {@link Constants#CHECKSUM_CACHE_DEFAULT_VALUE}.
+   *
+   * @since 1.3.1
+   */
+  @Parameter(property = CHECKSUM_CACHE_NAME, defaultValue = CHECKSUM_CACHE_DEFAULT_VALUE)
+  private boolean checksumCache;
+
   /**
    * Assign whether we ignore, or more specifically, not add components that have already been published in the past to
    * the bundle that will be published. When working with projects that are using a multi-module setup, and it's desired
@@ -294,9 +465,6 @@ public class PublishMojo
   @Component
   private ArtifactDeferrer artifactDeferrer;
 
-  @Component
-  private PublisherClient publisherClient;
-
   @Component
   private ArtifactUploader artifactUploader;
 
@@ -310,59 +478,103 @@ public class PublishMojo
   private DeploymentDeleter deploymentDeleter;
 
   @Component
-  private SettingsDecrypter theCryptKeeper;
+  private HashUtils hashUtils;
 
   private ChecksumRequest checksumRequest;
 
+  private ChecksumSidecars checksumSidecarsRequest;
+
+  private StagingMode stagingModeRequest;
+
   private WaitUntilRequest waitUntilRequest;
 
   private PublishingType publishingType;
 
   @Override
   protected void doValidateParameters() throws MojoExecutionException {
-    int publishCompletionPollIntervalDefault = Integer.parseInt(PUBLISH_COMPLETION_POLL_INTERVAL_DEFAULT_VALUE);
-    int waitPollingIntervalDefault = Integer.parseInt(WAIT_POLLING_INTERVAL_DEFAULT_VALUE);
+    validateCentralParameters();
 
-    // if the default is not used, update waitPollingIntervalDefault.
-    if (publishCompletionPollInterval != publishCompletionPollIntervalDefault) {
-      getLog().warn(format(
-          "%s is deprecated, using it will set %s (converted to seconds).",
-          PUBLISH_COMPLETION_POLL_INTERVAL_NAME,
-          WAIT_POLLING_INTERVAL_NAME));
-
-      // only update waitPollingInterval if it was still set to the default
-      if (waitPollingInterval == waitPollingIntervalDefault) {
-        // convert to seconds from milliseconds
-        waitPollingInterval = publishCompletionPollInterval / 1000;
-      }
+    if (!ChecksumRequest.isValidValue(checksums)) {
+      throw new MojoExecutionException(format("%s must be one of the following values %s.",
+          CHECKSUMS_NAME,
+          ChecksumRequest.toNames()));
+    }
+
+    checksumRequest = ChecksumRequest.valueOf(checksums.toUpperCase());
+
+    if (!ChecksumSidecars.isValidValue(checksumSidecars)) {
+      throw new MojoExecutionException(format("%s must be one of the following values %s.",
+          CHECKSUM_SIDECARS_NAME,
+          ChecksumSidecars.toNames()));
     }
 
-    if (waitPollingInterval < waitPollingIntervalDefault) {
+    checksumSidecarsRequest = ChecksumSidecars.valueOf(checksumSidecars.toUpperCase());
+
+    if (!StagingMode.isValidValue(stagingMode)) {
+      throw new MojoExecutionException(format("%s must be one of the following values %s.",
+          STAGING_MODE_NAME,
+          StagingMode.toNames()));
+    }
+
+    stagingModeRequest = StagingMode.valueOf(stagingMode.toUpperCase());
+
+    int checksumThreadsDefault = Integer.parseInt(CHECKSUM_THREADS_DEFAULT_VALUE);
+    if (checksumThreads < checksumThreadsDefault) {
       getLog().warn(format(
-          "%s was set to be less than %2$s seconds, will use the default of %2$s seconds.",
-          WAIT_POLLING_INTERVAL_NAME,
-          WAIT_POLLING_INTERVAL_DEFAULT_VALUE));
+          "%s was set to be less than %2$s, will use the default of %2$s.",
+          CHECKSUM_THREADS_NAME,
+          CHECKSUM_THREADS_DEFAULT_VALUE));
 
-      waitPollingInterval = waitPollingIntervalDefault;
+      checksumThreads = checksumThreadsDefault;
     }
 
-    int waitMaxTimeDefault = Integer.parseInt(WAIT_MAX_TIME_DEFAULT_VALUE);
-    if (waitMaxTime < waitMaxTimeDefault) {
+    int bundleThreadsDefault = Integer.parseInt(BUNDLE_THREADS_DEFAULT_VALUE);
+    if (bundleThreads < bundleThreadsDefault) {
       getLog().warn(format(
-          "%s was set to be less than %2$s seconds, will use the default of %2$s seconds.",
-          WAIT_MAX_TIME_NAME,
-          WAIT_MAX_TIME_DEFAULT_VALUE));
+          "%s was set to be less than %2$s, will use the default of %2$s.",
+          BUNDLE_THREADS_NAME,
+          BUNDLE_THREADS_DEFAULT_VALUE));
 
-      waitMaxTime = waitMaxTimeDefault;
+      bundleThreads = bundleThreadsDefault;
     }
 
-    if (!ChecksumRequest.isValidValue(checksums)) {
-      throw new MojoExecutionException(format("%s must be one of the following values %s.",
-          CHECKSUMS_NAME,
-          ChecksumRequest.toNames()));
+    if (incrementalBundle && streamingUpload) {
+      throw new MojoExecutionException(format("%s and %s cannot be used together.",
+          INCREMENTAL_BUNDLE_NAME,
+          STREAMING_UPLOAD_NAME));
     }
 
-    checksumRequest = ChecksumRequest.valueOf(checksums.toUpperCase());
+    if (incrementalBundle && maxBundleSize > 0) {
+      throw new MojoExecutionException(format("%s and %s cannot be used together.",
+          INCREMENTAL_BUNDLE_NAME,
+          MAX_BUNDLE_SIZE_NAME));
+    }
+
+    if (maxParallelUploads < 1) {
+      throw new MojoExecutionException(format("%s must be at least 1.", MAX_PARALLEL_UPLOADS_NAME));
+    }
+
+    if (uploadChunkSize > 0 && streamingUpload) {
+      throw new MojoExecutionException(format("%s and %s cannot be used together.",
+          UPLOAD_CHUNK_SIZE_NAME,
+          STREAMING_UPLOAD_NAME));
+    }
+
+    if (uploadChunkSize > 0 && isCentral(getCentralBaseUrl())) {
+      throw new MojoExecutionException(format(
+          "%s requires a %s of a server offering resumable uploads, Central does not. Remove %s to upload the bundle"
+              + " in a single request.",
+          UPLOAD_CHUNK_SIZE_NAME,
+          CENTRAL_BASE_URL_NAME,
+          UPLOAD_CHUNK_SIZE_NAME));
+    }
+
+    if (bundleCompressionLevel < Deflater.NO_COMPRESSION || bundleCompressionLevel > Deflater.BEST_COMPRESSION) {
+      throw new MojoExecutionException(format("%s must be between %s and %s.",
+          BUNDLE_COMPRESSION_LEVEL_NAME,
+          Deflater.NO_COMPRESSION,
+          Deflater.BEST_COMPRESSION));
+    }
 
     if (!WaitUntilRequest.isValidValue(waitUntil)) {
       throw new MojoExecutionException(format("%s must be one of the following values %s.",
@@ -424,6 +636,12 @@ public class PublishMojo
 
       waitUntilRequest = WaitUntilRequest.VALIDATED;
     }
+
+    if (detachWait && dropValidated) {
+      throw new MojoExecutionException(format("%s and %s cannot be used together.",
+          DETACH_WAIT_NAME,
+          DROP_VALIDATED_NAME));
+    }
   }
 
   @Override
@@ -439,7 +657,7 @@ public class PublishMojo
     }
     else {
       configurePublisherClient();
-      processRelease(artifactWithFiles, stagingDirectory);
+      processRelease(artifactWithFiles, stagingDirectory, outputDirectory);
     }
 
     if (isThisLastProjectWithThisMojoInExecution()) {
@@ -522,17 +740,60 @@ public class PublishMojo
               filteredArtifactWithFiles,
               deferredDirectory,
               centralSnapshotsUrl,
-              publishingServerId));
+              getPublishingServerId(),
+              stagingModeRequest));
     }
     catch (ArtifactInstallationException e) {
       throw new MojoExecutionException(e.getMessage(), e);
     }
   }
 
+  /**
+   * Start checking whether the components of the artifacts are published, once per component.
+   */
+  private Map<String, CompletableFuture<Boolean>> checkPublishedAsync(final List<ArtifactWithFile> artifactWithFiles) {
+    Map<String, CompletableFuture<Boolean>> publishedChecks = new HashMap<>();
+    for (ArtifactWithFile artifactWithFile : artifactWithFiles) {
+      if (!excludeArtifacts.contains(artifactWithFile.getArtifact().getArtifactId())) {
+        publishedChecks.computeIfAbsent(componentKey(artifactWithFile), key ->
+            componentPublishedChecker.isComponentPublishedAsync(artifactWithFile.getArtifact().getGroupId(),
+                artifactWithFile.getArtifact().getArtifactId(), artifactWithFile.getArtifact().getVersion()));
+      }
+    }
+    return publishedChecks;
+  }
+
+  private boolean isComponentPublished(
+      final ArtifactWithFile artifactWithFile,
+      final Map<String, CompletableFuture<Boolean>> publishedChecks)
+  {
+    CompletableFuture<Boolean> publishedCheck = publishedChecks.get(componentKey(artifactWithFile));
+    if (publishedCheck == null) {
+      return componentPublishedChecker.isComponentPublished(artifactWithFile.getArtifact().getGroupId(),
+          artifactWithFile.getArtifact().getArtifactId(), artifactWithFile.getArtifact().getVersion());
+    }
+    try {
+      return publishedCheck.join();
+    }
+    catch (CompletionException e) {
+      throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+    }
+  }
+
+  private static String componentKey(final ArtifactWithFile artifactWithFile) {
+    return artifactWithFile.getArtifact().getGroupId() + ":" + artifactWithFile.getArtifact().getArtifactId() + ":"
+        + artifactWithFile.getArtifact().getVersion();
+  }
+
   protected void processRelease(
       final List<ArtifactWithFile> artifactWithFiles,
-      final File stagingDirectory) throws MojoExecutionException
+      final File stagingDirectory,
+      final File outputDirectory) throws MojoExecutionException
   {
+    Map<String, CompletableFuture<Boolean>> publishedChecks = ignorePublishedComponents && httpAsync
+        ? checkPublishedAsync(artifactWithFiles)
+        : Collections.emptyMap();
+
     List<ArtifactWithFile> filteredArtifactWithFiles = artifactWithFiles.stream()
         .filter(artifactWithFile -> {
           if (excludeArtifacts.contains(artifactWithFile.getArtifact().getArtifactId())) {
@@ -540,8 +801,7 @@ public class PublishMojo
           }
 
           if (ignorePublishedComponents) {
-            return !componentPublishedChecker.isComponentPublished(artifactWithFile.getArtifact().getGroupId(),
-                artifactWithFile.getArtifact().getArtifactId(), artifactWithFile.getArtifact().getVersion());
+            return !isComponentPublished(artifactWithFile, publishedChecks);
           }
 
           if (isSkipPublishing()) {
@@ -554,14 +814,29 @@ public class PublishMojo
         })
         .collect(toList());
 
+    ChecksumCache cache = getChecksumCache();
+
     try {
-      artifactStager.stageArtifact(new StageArtifactRequest(filteredArtifactWithFiles, stagingDirectory));
-      artifactBundler.preBundle(getMavenSession().getCurrentProject(), stagingDirectory.toPath(),
-          checksumRequest);
+      // with existing checksum files in use, hash only what is missing after staging instead of everything now
+      List<HashAlgorithm> stagingHashAlgorithms = checksumSidecarsRequest == ChecksumSidecars.NONE
+          ? checksumRequest.getHashAlgorithms()
+          : Collections.emptyList();
+      List<StagedFile> stagedFiles = artifactStager.stageArtifact(
+          new StageArtifactRequest(filteredArtifactWithFiles, stagingDirectory, stagingHashAlgorithms,
+              stagingModeRequest, cache));
+      artifactBundler.preBundle(new PreBundleRequest(getMavenSession().getCurrentProject(),
+          stagingDirectory.toPath(), stagedFiles, checksumRequest, checksumThreads, checksumSidecarsRequest, cache));
+
+      if (incrementalBundle) {
+        artifactBundler.appendToBundle(createBundleArtifactRequest(stagingDirectory, outputDirectory), stagedFiles);
+      }
     }
     catch (final ArtifactInstallationException e) {
       throw new MojoExecutionException(e.getMessage(), e);
     }
+    finally {
+      saveChecksumCache(cache);
+    }
   }
 
   protected void postProcessRelease(
@@ -574,36 +849,306 @@ public class PublishMojo
       return;
     }
 
-    Path bundleFile = artifactBundler.bundle(
-        new BundleArtifactRequest(
-            getMavenSession().getCurrentProject(),
-            stagingDirectory,
-            outputDirectory,
-            outputFilename,
-            checksumRequest));
+    BundleArtifactRequest bundleRequest = createBundleArtifactRequest(stagingDirectory, outputDirectory);
+    String contentHash = null;
+    if (resumeDeployments) {
+      contentHash = hashStagedContent(stagingDirectory);
+      compactDeploymentJournal();
+    }
+
+    if (maxBundleSize > 0) {
+      List<BundleBuilder> bundleBuilders = artifactBundler.splitBundle(bundleRequest);
+      if (bundleBuilders.size() > 1) {
+        publishDeployments(contentHash, bundleBuilders, deploymentName);
+        return;
+      }
+    }
+
+    String reusedDeploymentId = findReusableDeployment(contentHash, deploymentName);
+    if (reusedDeploymentId != null) {
+      waitForDeployments(contentHash, Collections.singletonMap(reusedDeploymentId, deploymentName));
+      return;
+    }
+
+    UploadArtifactRequest uploadRequest;
+    if (streamingUpload) {
+      uploadRequest = new UploadArtifactRequest(deploymentName, artifactBundler.streamBundle(bundleRequest),
+          publishingType);
+    }
+    else {
+      Path bundleFile = new File(bundleRequest.getOutputDirectory(), bundleRequest.getOutputFilename()).toPath();
+      if (incrementalBundle || !canResumeUpload(bundleFile, contentHash)) {
+        bundleFile = artifactBundler.bundle(bundleRequest);
+      }
+      uploadRequest = new UploadArtifactRequest(deploymentName, bundleFile, publishingType, uploadChunkSizeBytes(),
+          getUploadProgressDirectory(), contentHash);
+    }
+    publishDeployment(contentHash, uploadRequest);
+  }
+
+  /**
+   * @return the hash of the staged content, to find the deployments of previous builds of the same content, or null if
+   *     it cannot be computed.
+   */
+  @Nullable
+  private String hashStagedContent(final File stagingDirectory) {
+    ChecksumCache cache = getChecksumCache();
+    try {
+      return hashUtils.hashTree(stagingDirectory, HashAlgorithm.SHA256, cache);
+    }
+    catch (IOException e) {
+      getLog().warn("Unable to hash the staged content, deployments of previous builds can not be resumed", e);
+      return null;
+    }
+    finally {
+      saveChecksumCache(cache);
+    }
+  }
+
+  private void compactDeploymentJournal() {
+    DeploymentJournal deploymentJournal = getDeploymentJournal();
+    try {
+      deploymentJournal.compact();
+    }
+    catch (IOException e) {
+      getLog().warn("Unable to compact the deployment journal " + deploymentJournal.getFile(), e);
+    }
+  }
+
+  /**
+   * @return the id of the deployment of the same content and name that a previous build uploaded, to use instead of
+   *     uploading the content, or null, see {@link ReusableDeploymentFinder}.
+   */
+  @Nullable
+  private String findReusableDeployment(@Nullable final String contentHash, final String deploymentName) {
+    if (contentHash == null) {
+      return null;
+    }
+    return new ReusableDeploymentFinder(getDeploymentJournal(), getPublisherClient(), publishingType, getLog())
+        .find(contentHash, deploymentName);
+  }
+
+  private void recordState(
+      @Nullable final String contentHash,
+      final String deploymentName,
+      final String deploymentId,
+      final String state)
+  {
+    if (contentHash == null) {
+      return;
+    }
+    DeploymentJournal deploymentJournal = getDeploymentJournal();
+    try {
+      deploymentJournal.record(contentHash, deploymentName, deploymentId, state);
+    }
+    catch (IOException e) {
+      getLog().warn("Unable to record Deployment " + deploymentId + " in " + deploymentJournal.getFile(), e);
+    }
+  }
+
+  /**
+   * @return whether the given base URL is the one of Central, which is used when none is given.
+   */
+  private static boolean isCentral(@Nullable final String centralBaseUrl) {
+    if (centralBaseUrl == null) {
+      return true;
+    }
+    try {
+      String host = new URI(centralBaseUrl.trim()).getHost();
+      return host != null && host.equalsIgnoreCase(URI.create(CENTRAL_BASE_URL_DEFAULT_VALUE).getHost());
+    }
+    catch (URISyntaxException e) {
+      return false;
+    }
+  }
+
+  private long uploadChunkSizeBytes() {
+    return uploadChunkSize * 1024 * 1024;
+  }
 
-    UploadArtifactRequest uploadRequest = new UploadArtifactRequest(deploymentName, bundleFile, publishingType);
+  /**
+   * @return the directory of the chunked upload progress, not cleaned by the build so that an upload can resume.
+   */
+  private Path bundle(final BundleBuilder bundleBuilder, @Nullable final String contentHash) {
+    return canResumeUpload(bundleBuilder.getBundlePath(), contentHash)
+        ? bundleBuilder.getBundlePath()
+        : artifactBundler.bundle(bundleBuilder);
+  }
+
+  /**
+   * @return true if the chunked upload of the bundle file, as a previous build of the same content left it, can be
+   *     resumed, so that the bundle must not be built again: the bytes of a bundle built again differ.
+   */
+  private boolean canResumeUpload(final Path bundleFile, @Nullable final String contentHash) {
+    if (uploadChunkSize <= 0 || contentHash == null
+        || !ResumableUploadEndpoint.canResume(getUploadProgressDirectory(), bundleFile, contentHash)) {
+      return false;
+    }
+    getLog().info("Resuming the upload of " + bundleFile + ", bundled by a previous build of the same content");
+    return true;
+  }
+
+  private Path getUploadProgressDirectory() {
+    return getMojoUtils()
+        .getWorkDirectoryRoot(DEFAULT_UPLOAD_PROGRESS_DIR_NAME, getMavenSession(), getPluginGroupId(),
+            getPluginArtifactId(), null)
+        .toPath();
+  }
+
+  /**
+   * Bundle and upload every bundle as a deployment of its own, {@link #maxParallelUploads} at a time, then wait for
+   * all the uploaded deployments at the same time. Fails as soon as an upload or a deployment fails: the remaining
+   * uploads are cancelled, and the uploaded deployments are not waited for.
+   */
+  private void publishDeployments(
+      @Nullable final String contentHash,
+      final List<BundleBuilder> bundleBuilders,
+      final String deploymentName)
+  {
+    int threads = Math.min(bundleBuilders.size(), Math.min(maxParallelUploads, getHttpMaxConnections()));
+    ExecutorService executorService = Executors.newFixedThreadPool(threads,
+        new ThreadFactoryBuilder().setNameFormat("central-deployment-%d").setDaemon(true).build());
+    CompletionService<String> completionService = new ExecutorCompletionService<>(executorService);
+
+    Map<Future<String>, String> uploads = new LinkedHashMap<>();
+    Map<String, String> deployments = new LinkedHashMap<>();
+    String failedUpload = null;
+    try {
+      for (int i = 0; i < bundleBuilders.size(); i++) {
+        BundleBuilder bundleBuilder = bundleBuilders.get(i);
+        String partName = format("%s (%d/%d)", deploymentName, i + 1, bundleBuilders.size());
+        String reusedDeploymentId = findReusableDeployment(contentHash, partName);
+        if (reusedDeploymentId != null) {
+          deployments.put(reusedDeploymentId, partName);
+          continue;
+        }
+        uploads.put(completionService.submit(() -> {
+          UploadArtifactRequest uploadRequest = streamingUpload
+              ? new UploadArtifactRequest(partName, bundleBuilder, publishingType)
+              : new UploadArtifactRequest(partName, bundle(bundleBuilder, contentHash), publishingType,
+                  uploadChunkSizeBytes(), getUploadProgressDirectory(), contentHash);
+          String deploymentId = artifactUploader.upload(uploadRequest);
+          recordState(contentHash, partName, deploymentId, DeploymentJournal.UPLOADED);
+          return deploymentId;
+        }), partName);
+      }
+
+      // in the order the uploads complete, to stop at the first failure
+      for (int i = 0; i < uploads.size() && failedUpload == null; i++) {
+        Future<String> upload = completionService.take();
+        try {
+          deployments.put(upload.get(), uploads.get(upload));
+        }
+        catch (ExecutionException e) {
+          failedUpload = uploads.get(upload);
+          getLog().error("Deployment " + failedUpload + " failed", e.getCause());
+        }
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DeploymentsPublishFailedException(new ArrayList<>(uploads.values()), uploads.size());
+    }
+    finally {
+      // cancels the uploads not done yet
+      executorService.shutdownNow();
+    }
+
+    if (failedUpload != null) {
+      if (!deployments.isEmpty()) {
+        getLog().warn(format("Not waiting for the uploaded deployments %s. %s", deployments.keySet(),
+            contentHash != null
+                ? "A build of the same content resumes them."
+                : format("Drop them at %s/publishing/deployments.", getCentralBaseUrl())));
+      }
+      throw new DeploymentsPublishFailedException(Collections.singletonList(failedUpload), bundleBuilders.size());
+    }
+    waitForDeployments(contentHash, deployments);
+
+    getLog().info(format("All %d deployments of %s succeeded.", bundleBuilders.size(), deploymentName));
+  }
+
+  private void publishDeployment(@Nullable final String contentHash, final UploadArtifactRequest uploadRequest) {
     String deploymentId = artifactUploader.upload(uploadRequest);
+    recordState(contentHash, uploadRequest.getDeploymentName(), deploymentId, DeploymentJournal.UPLOADED);
 
+    waitForDeployments(contentHash, Collections.singletonMap(deploymentId, uploadRequest.getDeploymentName()));
+  }
+
+  /**
+   * Wait for the state of the uploaded deployments, by id, all at the same time, and drop them once validated if
+   * requested. The states seen are recorded in the deployment journal.
+   */
+  private void waitForDeployments(@Nullable final String contentHash, final Map<String, String> deployments) {
     if (waitUntilRequest == WaitUntilRequest.UPLOADED) {
-      outputWhereToFinishPublishing(centralBaseUrl, waitUntilRequest, deploymentId);
+      deployments.keySet().forEach(deploymentId ->
+          outputWhereToFinishPublishing(getCentralBaseUrl(), waitUntilRequest, deploymentId));
       return;
     }
 
-    WaitForDeploymentStateRequest waitForDeploymentStateRequest = new WaitForDeploymentStateRequest(
-        centralBaseUrl,
-        deploymentId,
-        waitUntilRequest,
-        waitMaxTime,
-        waitPollingInterval);
+    if (detachWait) {
+      deployments.keySet().forEach(this::detachWait);
+      return;
+    }
 
-    deploymentPublishedWatcher.waitForDeploymentState(waitForDeploymentStateRequest);
+    List<WaitForDeploymentStateRequest> waitForDeploymentStateRequests = deployments.keySet().stream()
+        .map(deploymentId -> new WaitForDeploymentStateRequest(
+            getCentralBaseUrl(),
+            deploymentId,
+            waitUntilRequest,
+            getWaitMaxTime(),
+            getWaitPollingInterval(),
+            getWaitMaxPollingInterval(),
+            (id, state) -> recordState(contentHash, deployments.get(id), id, state.name())))
+        .collect(toList());
+
+    if (waitForDeploymentStateRequests.size() == 1) {
+      deploymentPublishedWatcher.waitForDeploymentState(waitForDeploymentStateRequests.get(0));
+    }
+    else {
+      deploymentPublishedWatcher.waitForDeploymentStates(
+          deploymentPublishedWatcher.watchDeploymentStates(waitForDeploymentStateRequests));
+    }
 
     if (dropValidated) {
-      DeleteDeploymentRequest deleteDeploymentRequest = new DeleteDeploymentRequest(deploymentId, deploymentName);
+      for (Entry<String, String> deployment : deployments.entrySet()) {
+        deploymentDeleter.deleteDeployment(new DeleteDeploymentRequest(deployment.getKey(), deployment.getValue()));
+        recordState(contentHash, deployment.getValue(), deployment.getKey(), DeploymentJournal.DROPPED);
+      }
+    }
+  }
 
-      deploymentDeleter.deleteDeployment(deleteDeploymentRequest);
+  /**
+   * Record the deployment for the {@code watch} goal instead of waiting for it.
+   */
+  private void detachWait(final String deploymentId) {
+    PendingDeployments pendingDeployments = getPendingDeployments();
+    try {
+      pendingDeployments.add(deploymentId, waitUntilRequest);
     }
+    catch (IOException e) {
+      throw new RuntimeException("Unable to record Deployment " + deploymentId + " in " + pendingDeployments.getFile(),
+          e);
+    }
+    getLog().info(format(
+        "Deployment %s has been uploaded. Run the %s goal to wait until it is %s, with -D%s=%s after a clean.",
+        deploymentId,
+        WATCH_GOAL,
+        waitUntilRequest.name().toLowerCase(),
+        DEPLOYMENT_IDS_NAME,
+        deploymentId));
+  }
+
+  private BundleArtifactRequest createBundleArtifactRequest(final File stagingDirectory, final File outputDirectory) {
+    return new BundleArtifactRequest(
+        getMavenSession().getCurrentProject(),
+        stagingDirectory,
+        outputDirectory,
+        outputFilename,
+        checksumRequest,
+        bundleThreads,
+        bundleCompressionLevel,
+        maxBundleSize * 1024 * 1024);
   }
 
   protected List<ArtifactWithFile> getArtifactWithFiles() throws MojoExecutionException {
@@ -663,43 +1208,44 @@ public class PublishMojo
     }
   }
 
-  private void configurePublisherClient() {
-    if (centralBaseUrl != null) {
-      getLog().info("Using Central baseUrl: " + centralBaseUrl);
-      publisherClient.setCentralBaseUrl(centralBaseUrl);
+  /**
+   * @return the {@link ChecksumCache} of this build, loaded by the first module that uses it and shared with the other
+   *     modules through the session, or null if {@link #checksumCache} is disabled.
+   */
+  @Nullable
+  private ChecksumCache getChecksumCache() {
+    if (!checksumCache) {
+      return null;
     }
 
-    getLog().info("Using credentials from server id " + publishingServerId + " in settings.xml");
-
-    AuthData authData = getUserCredentials();
-    getLog().debug("Using Usertoken auth, with namecode: " + authData.getUsername());
-    publisherClient.setAuthProvider(USERTOKEN, DEFAULT_ORGANIZATION_ID,
-        authData.getUsername(),
-        authData.getPassword());
+    Path cacheFile = getMojoUtils()
+        .getWorkDirectoryRoot(DEFAULT_CHECKSUM_CACHE_DIR_NAME, getMavenSession(), getPluginGroupId(),
+            getPluginArtifactId(), null)
+        .toPath()
+        .resolve(ChecksumCache.CACHE_FILE_NAME);
+
+    SessionData sessionData = getMavenSession().getRepositorySession().getData();
+    String key = ChecksumCache.class.getName() + ':' + cacheFile;
+    ChecksumCache cache = (ChecksumCache) sessionData.get(key);
+    if (cache == null) {
+      ChecksumCache loaded = ChecksumCache.load(cacheFile);
+      // modules built in parallel may load it at the same time, all of them use the first one stored
+      if (sessionData.set(key, null, loaded)) {
+        getLog().debug(format("Loaded %d cached checksums from %s", loaded.size(), cacheFile));
+      }
+      cache = (ChecksumCache) sessionData.get(key);
+    }
+    return cache;
   }
 
-  private AuthData getUserCredentials() {
-    try {
-      Server server = getMavenSession().getSettings().getServer(publishingServerId);
-      if (server == null) {
-        throw new IllegalStateException("No <server> with id '" + publishingServerId + "' found in settings.xml");
+  private void saveChecksumCache(@Nullable final ChecksumCache cache) {
+    if (cache != null) {
+      try {
+        cache.save();
       }
-      SettingsDecryptionResult settingsDecryptionResult =
-          theCryptKeeper.decrypt(new DefaultSettingsDecryptionRequest(server));
-      Server decrypted = settingsDecryptionResult.getServer();
-      if (decrypted == null
-          || StringUtils.isBlank(decrypted.getUsername())
-          || StringUtils.isBlank(decrypted.getPassword())) {
-        if (!settingsDecryptionResult.getProblems().isEmpty()) {
-          getLog().warn("Settings decryption problems: " + settingsDecryptionResult.getProblems());
-        }
-        throw new IllegalStateException("Missing username/password for server id '" + publishingServerId + "'");
+      catch (IOException e) {
+        getLog().warn("Unable to save checksum cache " + cache.getCacheFile(), e);
       }
-      return new AuthData(decrypted.getUsername(), decrypted.getPassword());
-    }
-    catch (Exception e) {
-      throw new RuntimeException("Unable to get publisher server properties for server id: " + publishingServerId,
-          e);
     }
   }
 
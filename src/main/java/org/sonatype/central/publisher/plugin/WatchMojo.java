@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+
+package org.sonatype.central.publisher.plugin;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.sonatype.central.publisher.client.httpclient.PublisherHttpClient;
+import org.sonatype.central.publisher.client.model.DeploymentApiResponse;
+import org.sonatype.central.publisher.plugin.exceptions.DeploymentPublishFailedException;
+import org.sonatype.central.publisher.plugin.exceptions.DeploymentPublishTimedOutException;
+import org.sonatype.central.publisher.plugin.exceptions.DeploymentsPublishFailedException;
+import org.sonatype.central.publisher.plugin.model.WaitForDeploymentStateRequest;
+import org.sonatype.central.publisher.plugin.model.WaitUntilRequest;
+import org.sonatype.central.publisher.plugin.watcher.DeploymentPublishedWatcher;
+import org.sonatype.central.publisher.plugin.watcher.PendingDeployments;
+
+import org.apache.hc.client5.http.HttpResponseException;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import static java.lang.String.format;
+import static org.sonatype.central.publisher.plugin.Constants.DEPLOYMENT_IDS_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.DETACH_WAIT_NAME;
+import static org.sonatype.central.publisher.plugin.Constants.PUBLISH_GOAL;
+import static org.sonatype.central.publisher.plugin.Constants.WAIT_UNTIL_DEFAULT_VALUE;
+import static org.sonatype.central.publisher.plugin.Constants.WAIT_UNTIL_NAME;
+
+/**
+ * Waits for the state of deployments that were uploaded without waiting, by the {@code publish} goal with
+ * {@code detachWait}, or given by their ids. All deployments are watched at the same time, the outcome of each of them
+ * is reported, and the goal fails if any of them failed, is unknown or did not reach its state in time.
+ */
+@Mojo(name = "watch", aggregator = true, requiresOnline = true, threadSafe = true)
+public class WatchMojo
+    extends AbstractCentralMojo
+{
+  /**
+   * Assign the ids of the deployments to wait for. Defaults to the deployments recorded by the <code>publish</code>
+   * goal with <code>detachWait</code>, which are then forgotten once they reached their state, failed, or are no
+   * longer known by the server. They are recorded in the
+   * {@link Constants#DEFAULT_PENDING_DEPLOYMENTS_DIR_NAME} directory of the build directory, so they are lost by
+   * <code>mvn clean</code> or a fresh checkout, e.g. when the upload and the watch run in separate CI jobs. Pass the
+   * deployment ids logged by the <code>publish</code> goal here to watch them anyway.
+   *
+   * @since 1.3.1
+   */
+  @Parameter(property = DEPLOYMENT_IDS_NAME)
+  private List<String> deploymentIds = new ArrayList<>();
+
+  /**
+   * Assign what to wait for of the deployments given by {@link #deploymentIds}, <code>validated</code> or
+   * <code>published</code>. The recorded deployments are waited for the state requested when they were uploaded.
+   *
+   * @since 1.3.1
+   */
+  @Parameter(property = WAIT_UNTIL_NAME, defaultValue = WAIT_UNTIL_DEFAULT_VALUE)
+  private String waitUntil;
+
+  @Component
+  private DeploymentPublishedWatcher deploymentPublishedWatcher;
+
+  private WaitUntilRequest waitUntilRequest;
+
+  @Override
+  protected void doValidateParameters() throws MojoExecutionException {
+    validateCentralParameters();
+
+    if (!WaitUntilRequest.isValidValue(waitUntil)
+        || WaitUntilRequest.valueOf(waitUntil.toUpperCase()) == WaitUntilRequest.UPLOADED) {
+      throw new MojoExecutionException(format("%s must be one of the following values %s.",
+          WAIT_UNTIL_NAME,
+          WaitUntilRequest.VALIDATED.name().toLowerCase() + ", " + WaitUntilRequest.PUBLISHED.name().toLowerCase()));
+    }
+
+    waitUntilRequest = WaitUntilRequest.valueOf(waitUntil.toUpperCase());
+  }
+
+  @Override
+  protected void doExecute() throws MojoExecutionException {
+    PendingDeployments pendingDeployments = getPendingDeployments();
+
+    Map<String, WaitUntilRequest> deployments = new LinkedHashMap<>();
+    if (deploymentIds.isEmpty()) {
+      try {
+        deployments.putAll(pendingDeployments.load());
+      }
+      catch (IOException e) {
+        throw new MojoExecutionException("Unable to read the pending deployments " + pendingDeployments.getFile(), e);
+      }
+    }
+    else {
+      deploymentIds.forEach(deploymentId -> deployments.put(deploymentId, waitUntilRequest));
+    }
+
+    if (deployments.isEmpty()) {
+      getLog().info(format("No deployments to watch, run the %s goal with %s to record some.", PUBLISH_GOAL,
+          DETACH_WAIT_NAME));
+      return;
+    }
+
+    configurePublisherClient();
+    try {
+      watch(deployments, pendingDeployments);
+    }
+    finally {
+      // without the extension nothing closes the client at the end of the session
+      PublisherHttpClient.close();
+    }
+  }
+
+  private void watch(
+      final Map<String, WaitUntilRequest> deployments,
+      final PendingDeployments pendingDeployments)
+  {
+    List<WaitForDeploymentStateRequest> waitForDeploymentStateRequests = new ArrayList<>();
+    deployments.forEach((deploymentId, deploymentWaitUntilRequest) -> waitForDeploymentStateRequests.add(
+        new WaitForDeploymentStateRequest(
+            getCentralBaseUrl(),
+            deploymentId,
+            deploymentWaitUntilRequest,
+            getWaitMaxTime(),
+            getWaitPollingInterval(),
+            getWaitMaxPollingInterval())));
+
+    Map<String, CompletableFuture<DeploymentApiResponse>> watchedDeployments =
+        deploymentPublishedWatcher.watchDeploymentStates(waitForDeploymentStateRequests);
+
+    deploymentPublishedWatcher.waitForAllDeploymentStates(watchedDeployments);
+
+    List<String> failedDeployments = new ArrayList<>();
+    watchedDeployments.forEach((deploymentId, deployment) -> {
+      if (!report(deploymentId, deployment)) {
+        failedDeployments.add(deploymentId);
+      }
+      if (isFinished(deployment)) {
+        forget(pendingDeployments, deploymentId);
+      }
+    });
+    if (!failedDeployments.isEmpty()) {
+      throw new DeploymentsPublishFailedException(failedDeployments, deployments.size());
+    }
+    getLog().info(format("All %d deployments succeeded.", deployments.size()));
+  }
+
+  /**
+   * Report the outcome of a watched deployment.
+   *
+   * @return whether the deployment reached its state.
+   */
+  private boolean report(final String deploymentId, final CompletableFuture<DeploymentApiResponse> deployment) {
+    if (!deployment.isDone() || deployment.isCancelled()) {
+      getLog().warn(format("Deployment %s is no longer watched, it is still pending.", deploymentId));
+      return false;
+    }
+    try {
+      getLog().info(format("Deployment %s is %s.", deploymentId,
+          deployment.join().getDeploymentState().name().toLowerCase()));
+      return true;
+    }
+    catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof DeploymentPublishFailedException) {
+        // the errors of the deployment are already reported
+        getLog().error(format("Deployment %s failed.", deploymentId));
+      }
+      else if (cause instanceof DeploymentPublishTimedOutException) {
+        getLog().warn(format("Deployment %s did not reach its state in time, it is still pending.", deploymentId));
+      }
+      else if (isUnknown(cause)) {
+        getLog().error(format("Deployment %s is unknown, it may have been dropped or expired.", deploymentId));
+      }
+      else {
+        getLog().error(format("Unable to get the state of Deployment %s, it is still pending: %s", deploymentId,
+            cause.getMessage()), cause);
+      }
+      return false;
+    }
+  }
+
+  /**
+   * @return whether the deployment reached its state, failed or is unknown, unlike the deployments that timed out,
+   * are no longer watched or could not be checked, which are still pending for the next watch.
+   */
+  private static boolean isFinished(final CompletableFuture<DeploymentApiResponse> deployment) {
+    if (!deployment.isDone() || deployment.isCancelled()) {
+      return false;
+    }
+    try {
+      deployment.join();
+      return true;
+    }
+    catch (CompletionException e) {
+      return e.getCause() instanceof DeploymentPublishFailedException || isUnknown(e.getCause());
+    }
+  }
+
+  /**
+   * @return whether the failure is the server not knowing the deployment.
+   */
+  private static boolean isUnknown(final Throwable failure) {
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+      if (cause instanceof HttpResponseException) {
+        int statusCode = ((HttpResponseException) cause).getStatusCode();
+        return statusCode == HttpStatus.SC_NOT_FOUND || statusCode == HttpStatus.SC_GONE;
+      }
+    }
+    return false;
+  }
+
+  private void forget(final PendingDeployments pendingDeployments, final String deploymentId) {
+    try {
+      pendingDeployments.remove(deploymentId);
+    }
+    catch (IOException e) {
+      getLog().warn("Unable to remove Deployment " + deploymentId + " from " + pendingDeployments.getFile(), e);
+    }
+  }
+}
@@ -5,15 +5,40 @@
 package org.sonatype.central.publisher.plugin.bundler;
 
 import java.nio.file.Path;
+import java.util.List;
 
+import org.sonatype.central.publisher.client.httpclient.utils.PublisherBundle.BundleBuilder;
 import org.sonatype.central.publisher.plugin.model.BundleArtifactRequest;
-import org.sonatype.central.publisher.plugin.model.ChecksumRequest;
-
-import org.apache.maven.project.MavenProject;
+import org.sonatype.central.publisher.plugin.model.PreBundleRequest;
+import org.sonatype.central.publisher.plugin.model.StagedFile;
 
 public interface ArtifactBundler
 {
   Path bundle(final BundleArtifactRequest bundleArtifactRequest);
 
-  void preBundle(MavenProject project, Path sourceDir, ChecksumRequest checksumRequest);
+  Path bundle(final BundleBuilder bundleBuilder);
+
+  /**
+   * Prepare the bundles, without creating them, of a bundle split by {@link BundleArtifactRequest#getMaxBundleSize()}.
+   */
+  List<BundleBuilder> splitBundle(final BundleArtifactRequest bundleArtifactRequest);
+
+  /**
+   * Prepare the bundle without creating it, to be created while it is uploaded.
+   */
+  BundleBuilder streamBundle(final BundleArtifactRequest bundleArtifactRequest);
+
+  void preBundle(PreBundleRequest preBundleRequest);
+
+  /**
+   * Append the staged files, and the files next to them, to the bundle right away. The next
+   * {@link #bundle(BundleArtifactRequest)} of the same bundle then only adds what was not appended yet.
+   */
+  void appendToBundle(final BundleArtifactRequest bundleArtifactRequest, final List<StagedFile> stagedFiles);
+
+  /**
+   * Close and forget the bundles appended to that were not created by {@link #bundle(BundleArtifactRequest)}, e.g.
+   * because the build failed in between, to be called at the end of the session.
+   */
+  void discardIncrementalBundles();
 }
@@ -5,19 +5,35 @@
 package org.sonatype.central.publisher.plugin.bundler;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.sonatype.central.publisher.client.PublisherClientFactory;
+import org.sonatype.central.publisher.client.httpclient.utils.IncrementalBundleWriter;
 import org.sonatype.central.publisher.client.httpclient.utils.PublisherBundle;
+import org.sonatype.central.publisher.client.httpclient.utils.PublisherBundle.BundleBuilder;
 import org.sonatype.central.publisher.plugin.model.BundleArtifactRequest;
-import org.sonatype.central.publisher.plugin.model.ChecksumRequest;
+import org.sonatype.central.publisher.plugin.model.PreBundleRequest;
+import org.sonatype.central.publisher.plugin.model.StagedFile;
 import org.sonatype.central.publisher.plugin.utils.ProjectUtils;
 
-import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.AbstractLogEnabled;
 
+import static org.sonatype.central.publisher.plugin.utils.ProjectUtilsImpl.MAVEN_METADATA_CENTRAL_STAGING_XML;
+
 @Component(role = ArtifactBundler.class)
 public class ArtifactBundlerImpl
     extends AbstractLogEnabled
@@ -26,18 +42,44 @@ public class ArtifactBundlerImpl
   @Requirement
   private ProjectUtils projectUtils;
 
+  // bundles that are appended to as modules are staged, by bundle file, discarded at the end of the session
+  private final Map<Path, IncrementalBundleWriter> incrementalBundles = new ConcurrentHashMap<>();
+
+  @Override
+  public void discardIncrementalBundles() {
+    for (Path bundleFile : incrementalBundles.keySet()) {
+      IncrementalBundleWriter incrementalBundle = incrementalBundles.remove(bundleFile);
+      if (incrementalBundle != null) {
+        getLogger().debug("Discarding unfinished bundle " + bundleFile);
+        try {
+          incrementalBundle.close();
+        }
+        catch (IOException e) {
+          getLogger().warn("Unable to close unfinished bundle " + bundleFile, e);
+        }
+      }
+    }
+  }
+
   @Override
   public Path bundle(final BundleArtifactRequest bundleArtifactRequest) {
     File bundleFile = new File(bundleArtifactRequest.getOutputDirectory(), bundleArtifactRequest.getOutputFilename());
+    IncrementalBundleWriter incrementalBundle = incrementalBundles.remove(bundleFile.toPath().toAbsolutePath());
+    if (incrementalBundle != null) {
+      getLogger().info("Going to finish " + bundleFile.getAbsolutePath() + " with remaining content at " +
+          bundleArtifactRequest.getStagingDirectory().getAbsolutePath());
+      try {
+        return incrementalBundle.finish().getPath();
+      }
+      catch (IOException e) {
+        throw new RuntimeException("Error on bundle creation", e);
+      }
+    }
+
     getLogger().info("Going to create " + bundleFile.getAbsolutePath() + " by bundling content at " +
         bundleArtifactRequest.getStagingDirectory().getAbsolutePath());
 
-    Path sourceDir = bundleArtifactRequest.getStagingDirectory().toPath();
-    Path destDir = bundleArtifactRequest.getOutputDirectory().toPath();
-
-    PublisherBundle publisherBundle = PublisherClientFactory
-        .createPublisherClient()
-        .compose(sourceDir, destDir, bundleArtifactRequest.getOutputFilename());
+    PublisherBundle publisherBundle = builder(bundleArtifactRequest).build();
 
     getLogger().info("Created bundle successfully " + new File(bundleArtifactRequest.getStagingDirectory(),
         bundleArtifactRequest.getOutputFilename()).getAbsolutePath());
@@ -46,8 +88,124 @@ public class ArtifactBundlerImpl
   }
 
   @Override
-  public void preBundle(final MavenProject project, final Path sourceDir, final ChecksumRequest checksumRequest) {
-    projectUtils.deleteGroupArtifactMavenMetadataCentralStagingXml(project, sourceDir);
-    projectUtils.createChecksumFiles(project, sourceDir, checksumRequest);
+  public Path bundle(final BundleBuilder bundleBuilder) {
+    getLogger().info("Going to create bundle " + bundleBuilder.getBundleName());
+
+    PublisherBundle publisherBundle = bundleBuilder.build();
+
+    getLogger().info("Created bundle successfully " + publisherBundle.getPath().toAbsolutePath());
+
+    return publisherBundle.getPath();
+  }
+
+  @Override
+  public List<BundleBuilder> splitBundle(final BundleArtifactRequest bundleArtifactRequest) {
+    List<BundleBuilder> bundleBuilders = builder(bundleArtifactRequest).split(bundleArtifactRequest.getMaxBundleSize());
+    getLogger().info("Split content at " + bundleArtifactRequest.getStagingDirectory().getAbsolutePath() + " in " +
+        bundleBuilders.size() + " bundle(s) of at most " + bundleArtifactRequest.getMaxBundleSize() + " bytes");
+
+    return bundleBuilders;
+  }
+
+  @Override
+  public BundleBuilder streamBundle(final BundleArtifactRequest bundleArtifactRequest) {
+    getLogger().info("Going to stream " + bundleArtifactRequest.getOutputFilename() + " by bundling content at " +
+        bundleArtifactRequest.getStagingDirectory().getAbsolutePath());
+
+    return builder(bundleArtifactRequest);
+  }
+
+  @Override
+  public void appendToBundle(final BundleArtifactRequest bundleArtifactRequest, final List<StagedFile> stagedFiles) {
+    Path bundleFile = bundleArtifactRequest.getOutputDirectory().toPath()
+        .resolve(bundleArtifactRequest.getOutputFilename())
+        .toAbsolutePath();
+    Path sourceDir = bundleArtifactRequest.getStagingDirectory().toPath();
+
+    try {
+      IncrementalBundleWriter incrementalBundle = incrementalBundles.computeIfAbsent(bundleFile, path -> {
+        try {
+          getLogger().info("Going to create " + path + " incrementally by bundling content at " + sourceDir);
+          return new IncrementalBundleWriter(sourceDir, path, bundleArtifactRequest.getCompressionLevel());
+        }
+        catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+
+      // the staged directories are final once checksums are generated, virtually staged files are read from where
+      // they were staged from
+      Set<File> directories = new LinkedHashSet<>();
+      for (StagedFile stagedFile : stagedFiles) {
+        directories.add(stagedFile.getStagedFile().getParentFile());
+        if (stagedFile.isVirtual()) {
+          incrementalBundle.append(stagedFile.getStagedFile().toPath(), stagedFile.getSourceFile().toPath());
+        }
+      }
+      for (File directory : directories) {
+        File[] files = directory.listFiles(File::isFile);
+        if (files != null) {
+          for (File file : files) {
+            incrementalBundle.append(file.toPath(), file.toPath());
+          }
+        }
+      }
+    }
+    catch (IOException | UncheckedIOException e) {
+      throw new RuntimeException("Error on appending to bundle " + bundleFile, e);
+    }
+  }
+
+  private BundleBuilder builder(final BundleArtifactRequest bundleArtifactRequest) {
+    Path sourceDir = bundleArtifactRequest.getStagingDirectory().toPath();
+    Path destDir = bundleArtifactRequest.getOutputDirectory().toPath();
+
+    return PublisherClientFactory
+        .createPublisherClient()
+        .getBuilder(sourceDir)
+        .destPath(destDir)
+        .bundleName(bundleArtifactRequest.getOutputFilename())
+        .threads(bundleArtifactRequest.getBundleThreads())
+        .compressionLevel(bundleArtifactRequest.getCompressionLevel())
+        .addAllSourceFiles();
+  }
+
+  @Override
+  public void preBundle(final PreBundleRequest preBundleRequest) {
+    projectUtils.deleteGroupArtifactMavenMetadataCentralStagingXml(preBundleRequest.getProject(),
+        preBundleRequest.getSourceDir());
+    projectUtils.createChecksumFiles(preBundleRequest);
+    addToStagingIndex(preBundleRequest);
+  }
+
+  /**
+   * Index the directories of the staged files, now that their checksum files are created, so that bundling needs no
+   * traversal of the staging directory. The files of a directory are indexed by name, virtually staged files included.
+   */
+  private void addToStagingIndex(final PreBundleRequest preBundleRequest) {
+    Map<File, Set<String>> directories = new LinkedHashMap<>();
+    for (StagedFile stagedFile : preBundleRequest.getStagedFiles()) {
+      Set<String> names = directories.computeIfAbsent(stagedFile.getStagedFile().getParentFile(), directory -> {
+        String[] list = directory.list();
+        return list != null ? new TreeSet<>(Arrays.asList(list)) : new TreeSet<>();
+      });
+      names.add(stagedFile.getStagedFile().getName());
+    }
+
+    List<Path> indexedFiles = new ArrayList<>();
+    for (Entry<File, Set<String>> directory : directories.entrySet()) {
+      for (String name : directory.getValue()) {
+        if (!name.equalsIgnoreCase(MAVEN_METADATA_CENTRAL_STAGING_XML)) {
+          indexedFiles.add(new File(directory.getKey(), name).toPath());
+        }
+      }
+    }
+
+    try {
+      PublisherBundle.addToStagingIndex(preBundleRequest.getSourceDir(), indexedFiles);
+    }
+    catch (IOException e) {
+      throw new RuntimeException("Error on writing staging index in " + preBundleRequest.getSourceDir(), e);
+    }
   }
 }
@@ -20,6 +20,8 @@ import javax.inject.Inject;
 
 import org.sonatype.central.publisher.plugin.model.ArtifactWithFile;
 import org.sonatype.central.publisher.plugin.model.DeferArtifactRequest;
+import org.sonatype.central.publisher.plugin.model.StagingMode;
+import org.sonatype.central.publisher.plugin.utils.StagingFileUtils;
 
 import com.google.common.io.Closeables;
 import org.apache.maven.artifact.Artifact;
@@ -128,14 +130,15 @@ public class ArtifactDeferrerImpl
             artifactWithFile.getArtifact(),
             stagingRepository,
             stagingDirectory,
-            deploymentRepository);
+            deploymentRepository,
+            request.getStagingMode());
       }
     }
   }
 
   /**
    * Performs an "install" into the staging repository. It will retain snapshot versions, and no metadata is created at
-   * all. In short: performs a simple file copy.
+   * all. In short: performs a simple file copy, or hard links the artifact and its POM with {@link StagingMode#LINK}.
    * <p/>
    * This one single method is not thread safe, as it performs IO and appends to the "index" file. Hence, this one
    * method is executed in a synchronized block of a static object's monitor, to prevent multiple parallel installation
@@ -147,7 +150,8 @@ public class ArtifactDeferrerImpl
       final Artifact artifact,
       final ArtifactRepository stagingRepository,
       final File stagingDirectory,
-      final ArtifactRepository remoteRepository) throws ArtifactInstallationException
+      final ArtifactRepository remoteRepository,
+      final StagingMode stagingMode) throws ArtifactInstallationException
   {
     synchronized (PARALLEL_LOCK) {
       String path = stagingRepository.pathOf(artifact);
@@ -155,7 +159,13 @@ public class ArtifactDeferrerImpl
         ofNullable(getLogger()).ifPresent(logger -> logger.debug(
             format("Installing artifact %s into staging repository\n%s", artifact, stagingRepository)));
 
-        artifactInstaller.install(source, artifact, stagingRepository);
+        // deferred files are deployed from the deferred directory, so virtual staging links them too
+        if (stagingMode != StagingMode.COPY) {
+          link(source, artifact, stagingRepository, stagingDirectory);
+        }
+        else {
+          artifactInstaller.install(source, artifact, stagingRepository);
+        }
 
         String pluginPrefix = null;
         for (ArtifactMetadata artifactMetadata : artifact.getMetadataList()) {
@@ -200,6 +210,36 @@ public class ArtifactDeferrerImpl
     }
   }
 
+  /**
+   * Hard links the artifact and its POM to where {@link ArtifactInstaller} would have copied them, which is all
+   * {@link #deployUp(MavenSession, File, ArtifactRepository)} reads. Files that cannot be linked are copied.
+   */
+  @SuppressWarnings("deprecation")
+  private void link(
+      final File source,
+      final Artifact artifact,
+      final ArtifactRepository stagingRepository,
+      final File stagingDirectory) throws IOException
+  {
+    for (ArtifactMetadata artifactMetadata : artifact.getMetadataList()) {
+      if (artifactMetadata instanceof ProjectArtifactMetadata) {
+        File pomFile = new File(stagingDirectory,
+            stagingRepository.pathOfLocalRepositoryMetadata(artifactMetadata, stagingRepository));
+        linkOrCopy(((ProjectArtifactMetadata) artifactMetadata).getFile(), pomFile);
+      }
+    }
+
+    linkOrCopy(source, new File(stagingDirectory, stagingRepository.pathOf(artifact)));
+  }
+
+  private void linkOrCopy(final File source, final File target) throws IOException {
+    Files.createDirectories(target.toPath().getParent());
+    if (!StagingFileUtils.linkOrCopy(source.toPath(), target.toPath())) {
+      ofNullable(getLogger()).ifPresent(logger -> logger.debug(
+          format("Could not link %s, copied it to %s", source, target)));
+    }
+  }
+
   @Override
   @SuppressWarnings("deprecation")
   public void deployUp(
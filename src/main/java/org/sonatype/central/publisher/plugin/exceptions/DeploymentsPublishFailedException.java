@@ -0,0 +1,16 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+package org.sonatype.central.publisher.plugin.exceptions;
+
+import java.util.List;
+
+public class DeploymentsPublishFailedException
+    extends RuntimeException
+{
+  public DeploymentsPublishFailedException(List<String> deploymentNames, int deploymentCount) {
+    super(deploymentNames.size() + " of " + deploymentCount + " deployments failed while publishing: "
+        + String.join(", ", deploymentNames));
+  }
+}
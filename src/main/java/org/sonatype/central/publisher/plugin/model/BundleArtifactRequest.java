@@ -5,6 +5,7 @@
 package org.sonatype.central.publisher.plugin.model;
 
 import java.io.File;
+import java.util.zip.Deflater;
 
 import org.apache.maven.project.MavenProject;
 
@@ -20,18 +21,41 @@ public class BundleArtifactRequest
 
   private final ChecksumRequest checksumRequest;
 
+  private final int bundleThreads;
+
+  private final int compressionLevel;
+
+  private final long maxBundleSize;
+
   public BundleArtifactRequest(
       final MavenProject project,
       final File stagingDirectory,
       final File outputDirectory,
       final String outputFilename,
       final ChecksumRequest checksumRequest)
+  {
+    this(project, stagingDirectory, outputDirectory, outputFilename, checksumRequest, 1, Deflater.DEFAULT_COMPRESSION,
+        0);
+  }
+
+  public BundleArtifactRequest(
+      final MavenProject project,
+      final File stagingDirectory,
+      final File outputDirectory,
+      final String outputFilename,
+      final ChecksumRequest checksumRequest,
+      final int bundleThreads,
+      final int compressionLevel,
+      final long maxBundleSize)
   {
     this.project = project;
     this.stagingDirectory = stagingDirectory;
     this.outputDirectory = outputDirectory;
     this.outputFilename = outputFilename;
     this.checksumRequest = checksumRequest;
+    this.bundleThreads = bundleThreads;
+    this.compressionLevel = compressionLevel;
+    this.maxBundleSize = maxBundleSize;
   }
 
   public MavenProject getProject() {
@@ -53,4 +77,19 @@ public class BundleArtifactRequest
   public ChecksumRequest getChecksumRequest() {
     return checksumRequest;
   }
+
+  public int getBundleThreads() {
+    return bundleThreads;
+  }
+
+  public int getCompressionLevel() {
+    return compressionLevel;
+  }
+
+  /**
+   * @return the maximum size in bytes of the content of a bundle, or 0 for a single bundle.
+   */
+  public long getMaxBundleSize() {
+    return maxBundleSize;
+  }
 }
@@ -7,6 +7,9 @@ package org.sonatype.central.publisher.plugin.model;
 import java.util.Arrays;
 import java.util.List;
 
+import org.sonatype.central.publisher.plugin.utils.HashAlgorithm;
+
+import static java.util.Collections.unmodifiableList;
 import static java.util.stream.Collectors.toList;
 
 /**
@@ -14,9 +17,25 @@ import static java.util.stream.Collectors.toList;
  */
 public enum ChecksumRequest
 {
-  ALL, // Will request MD5, SHA1, SHA256 and SHA512 to be generated
-  REQUIRED, // Only MD5 and SHA1 will be requested to be generated
-  NONE; // No Checksums will be requested to be generated.
+  // Will request MD5, SHA1, SHA256 and SHA512 to be generated
+  ALL(HashAlgorithm.MD5, HashAlgorithm.SHA1, HashAlgorithm.SHA256, HashAlgorithm.SHA512),
+  // Only MD5 and SHA1 will be requested to be generated
+  REQUIRED(HashAlgorithm.MD5, HashAlgorithm.SHA1),
+  // No Checksums will be requested to be generated.
+  NONE;
+
+  private final List<HashAlgorithm> hashAlgorithms;
+
+  ChecksumRequest(final HashAlgorithm... hashAlgorithms) {
+    this.hashAlgorithms = unmodifiableList(Arrays.asList(hashAlgorithms));
+  }
+
+  /**
+   * @return the {@link HashAlgorithm}s for which checksum files are requested, empty for {@link #NONE}.
+   */
+  public List<HashAlgorithm> getHashAlgorithms() {
+    return hashAlgorithms;
+  }
 
   public static boolean isValidValue(final String value) {
     try {
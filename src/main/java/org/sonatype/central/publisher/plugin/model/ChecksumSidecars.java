@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+package org.sonatype.central.publisher.plugin.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Simple enum holding values on how checksum files that already exist for an artifact (e.g. written by the build next
+ * to the artifact, or by an install) are used.
+ */
+public enum ChecksumSidecars
+{
+  // Existing checksum files are ignored, all checksums are computed.
+  NONE,
+  // Existing well formed checksum files are used as is, only missing checksums are computed.
+  TRUST,
+  // Like TRUST, but one randomly picked file per module is hashed to verify its existing checksum files. On a mismatch
+  // the existing checksum files of the whole module are ignored.
+  VERIFY;
+
+  public static boolean isValidValue(final String value) {
+    try {
+      valueOf(value.toUpperCase());
+      return true;
+    }
+    catch (IllegalArgumentException ignore) {
+      return false;
+    }
+  }
+
+  public static List<String> toNames() {
+    return Arrays.stream(ChecksumSidecars.values()).map(Enum::name).map(String::toLowerCase).collect(toList());
+  }
+}
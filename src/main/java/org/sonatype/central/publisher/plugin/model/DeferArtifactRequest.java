@@ -21,6 +21,8 @@ public class DeferArtifactRequest
 
   private final String serverId;
 
+  private final StagingMode stagingMode;
+
   /**
    * Constructor
    *
@@ -36,12 +38,34 @@ public class DeferArtifactRequest
       final File deferredDirectory,
       final String centralSnapshotsUrl,
       final String serverId)
+  {
+    this(mavenSession, artifactWithFiles, deferredDirectory, centralSnapshotsUrl, serverId, StagingMode.COPY);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param mavenSession - {@link MavenSession}
+   * @param artifactWithFiles - {@link List} of {@link ArtifactWithFile}
+   * @param deferredDirectory - {@link File} directory to defer the artifacts
+   * @param centralSnapshotsUrl - {@link String} URL of the central snapshots
+   * @param serverId - {@link String} server id
+   * @param stagingMode - {@link StagingMode} how files are put into the {@code deferredDirectory}
+   */
+  public DeferArtifactRequest(
+      final MavenSession mavenSession,
+      final List<ArtifactWithFile> artifactWithFiles,
+      final File deferredDirectory,
+      final String centralSnapshotsUrl,
+      final String serverId,
+      final StagingMode stagingMode)
   {
     this.mavenSession = mavenSession;
     this.artifactWithFiles = artifactWithFiles;
     this.deferredDirectory = deferredDirectory;
     this.centralSnapshotsUrl = centralSnapshotsUrl;
     this.serverId = serverId;
+    this.stagingMode = stagingMode;
   }
 
   public MavenSession getMavenSession() {
@@ -63,4 +87,8 @@ public class DeferArtifactRequest
   public String getServerId() {
     return serverId;
   }
+
+  public StagingMode getStagingMode() {
+    return stagingMode;
+  }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+package org.sonatype.central.publisher.plugin.model;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.sonatype.central.publisher.plugin.utils.ChecksumCache;
+
+import org.apache.maven.project.MavenProject;
+import org.jspecify.annotations.Nullable;
+
+public class PreBundleRequest
+{
+  private final MavenProject project;
+
+  private final Path sourceDir;
+
+  private final List<StagedFile> stagedFiles;
+
+  private final ChecksumRequest checksumRequest;
+
+  private final int checksumThreads;
+
+  private final ChecksumSidecars checksumSidecars;
+
+  @Nullable
+  private final ChecksumCache checksumCache;
+
+  public PreBundleRequest(
+      final MavenProject project,
+      final Path sourceDir,
+      final List<StagedFile> stagedFiles,
+      final ChecksumRequest checksumRequest,
+      final int checksumThreads,
+      final ChecksumSidecars checksumSidecars)
+  {
+    this(project, sourceDir, stagedFiles, checksumRequest, checksumThreads, checksumSidecars, null);
+  }
+
+  public PreBundleRequest(
+      final MavenProject project,
+      final Path sourceDir,
+      final List<StagedFile> stagedFiles,
+      final ChecksumRequest checksumRequest,
+      final int checksumThreads,
+      final ChecksumSidecars checksumSidecars,
+      @Nullable final ChecksumCache checksumCache)
+  {
+    this.project = project;
+    this.sourceDir = sourceDir;
+    this.stagedFiles = stagedFiles;
+    this.checksumRequest = checksumRequest;
+    this.checksumThreads = checksumThreads;
+    this.checksumSidecars = checksumSidecars;
+    this.checksumCache = checksumCache;
+  }
+
+  public MavenProject getProject() {
+    return project;
+  }
+
+  public Path getSourceDir() {
+    return sourceDir;
+  }
+
+  /**
+   * @return the {@link StagedFile}s that were staged into {@link #getSourceDir()}, with the hashes computed while
+   *     staging them.
+   */
+  public List<StagedFile> getStagedFiles() {
+    return stagedFiles;
+  }
+
+  public ChecksumRequest getChecksumRequest() {
+    return checksumRequest;
+  }
+
+  public int getChecksumThreads() {
+    return checksumThreads;
+  }
+
+  public ChecksumSidecars getChecksumSidecars() {
+    return checksumSidecars;
+  }
+
+  /**
+   * @return the {@link ChecksumCache} to look the checksums up in, or null to compute them.
+   */
+  @Nullable
+  public ChecksumCache getChecksumCache() {
+    return checksumCache;
+  }
+}
@@ -5,17 +5,43 @@
 package org.sonatype.central.publisher.plugin.model;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.List;
 
+import org.sonatype.central.publisher.plugin.utils.ChecksumCache;
+import org.sonatype.central.publisher.plugin.utils.HashAlgorithm;
+
+import org.jspecify.annotations.Nullable;
+
 public class StageArtifactRequest
 {
   private final List<ArtifactWithFile> artifactWithFiles;
 
   private final File stagingDirectory;
 
+  private final List<HashAlgorithm> hashAlgorithms;
+
+  private final StagingMode stagingMode;
+
+  @Nullable
+  private final ChecksumCache checksumCache;
+
   public StageArtifactRequest(final List<ArtifactWithFile> artifactWithFiles, final File stagingDirectory) {
+    this(artifactWithFiles, stagingDirectory, Collections.emptyList(), StagingMode.COPY, null);
+  }
+
+  public StageArtifactRequest(
+      final List<ArtifactWithFile> artifactWithFiles,
+      final File stagingDirectory,
+      final List<HashAlgorithm> hashAlgorithms,
+      final StagingMode stagingMode,
+      @Nullable final ChecksumCache checksumCache)
+  {
     this.artifactWithFiles = artifactWithFiles;
     this.stagingDirectory = stagingDirectory;
+    this.hashAlgorithms = hashAlgorithms;
+    this.stagingMode = stagingMode;
+    this.checksumCache = checksumCache;
   }
 
   public List<ArtifactWithFile> getArtifactWithFiles() {
@@ -25,4 +51,23 @@ public class StageArtifactRequest
   public File getStagingDirectory() {
     return stagingDirectory;
   }
+
+  /**
+   * @return the {@link HashAlgorithm}s to compute while the files are copied into the staging directory.
+   */
+  public List<HashAlgorithm> getHashAlgorithms() {
+    return hashAlgorithms;
+  }
+
+  public StagingMode getStagingMode() {
+    return stagingMode;
+  }
+
+  /**
+   * @return the {@link ChecksumCache} to look the {@link #getHashAlgorithms()} hashes up in, or null to compute them.
+   */
+  @Nullable
+  public ChecksumCache getChecksumCache() {
+    return checksumCache;
+  }
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+package org.sonatype.central.publisher.plugin.model;
+
+import java.io.File;
+import java.util.Map;
+
+import org.sonatype.central.publisher.plugin.utils.HashAlgorithm;
+
+/**
+ * A file copied into the staging directory, with the hashes that were computed while copying it.
+ */
+public class StagedFile
+{
+  private final File sourceFile;
+
+  private final File stagedFile;
+
+  private final Map<HashAlgorithm, String> hashes;
+
+  private final boolean virtual;
+
+  public StagedFile(final File sourceFile, final File stagedFile, final Map<HashAlgorithm, String> hashes) {
+    this(sourceFile, stagedFile, hashes, false);
+  }
+
+  public StagedFile(
+      final File sourceFile,
+      final File stagedFile,
+      final Map<HashAlgorithm, String> hashes,
+      final boolean virtual)
+  {
+    this.sourceFile = sourceFile;
+    this.stagedFile = stagedFile;
+    this.hashes = hashes;
+    this.virtual = virtual;
+  }
+
+  public File getSourceFile() {
+    return sourceFile;
+  }
+
+  public File getStagedFile() {
+    return stagedFile;
+  }
+
+  /**
+   * @return the hashes of the file by {@link HashAlgorithm}, empty if none were requested while staging.
+   */
+  public Map<HashAlgorithm, String> getHashes() {
+    return hashes;
+  }
+
+  /**
+   * @return true if the file was only recorded in the staging manifest, so {@link #getStagedFile()} does not exist and
+   *     the content is read from {@link #getSourceFile()}.
+   */
+  public boolean isVirtual() {
+    return virtual;
+  }
+}
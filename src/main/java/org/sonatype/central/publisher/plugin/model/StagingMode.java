@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+package org.sonatype.central.publisher.plugin.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Simple enum holding values on how files are put into the staging and deferred directories.
+ */
+public enum StagingMode
+{
+  // Files are copied.
+  COPY,
+  // Files are hard linked, and copied when they cannot be (e.g. when on a different file system).
+  LINK,
+  // Files are not put into the staging directory, only recorded in its manifest and bundled from where they are.
+  // Deferred snapshots are linked instead, as they are deployed from the deferred directory.
+  VIRTUAL;
+
+  public static boolean isValidValue(final String value) {
+    try {
+      valueOf(value.toUpperCase());
+      return true;
+    }
+    catch (IllegalArgumentException ignore) {
+      return false;
+    }
+  }
+
+  public static List<String> toNames() {
+    return Arrays.stream(StagingMode.values()).map(Enum::name).map(String::toLowerCase).collect(toList());
+  }
+}
@@ -6,35 +6,110 @@ package org.sonatype.central.publisher.plugin.model;
 
 import java.nio.file.Path;
 
+import org.sonatype.central.publisher.client.httpclient.utils.PublisherBundle.BundleBuilder;
 import org.sonatype.central.publisher.client.model.PublishingType;
 
+import org.jspecify.annotations.Nullable;
+
 public class UploadArtifactRequest
 {
   private final String deploymentName;
 
+  @Nullable
   private final Path bundleFile;
 
+  @Nullable
+  private final BundleBuilder bundleBuilder;
+
   private final PublishingType publishingType;
 
+  private final long chunkSize;
+
+  @Nullable
+  private final Path progressDirectory;
+
+  @Nullable
+  private final String contentKey;
+
   public UploadArtifactRequest(
       final String deploymentName,
       final Path bundleFile,
       final PublishingType publishingType)
+  {
+    this(deploymentName, bundleFile, publishingType, 0, null, null);
+  }
+
+  /**
+   * @param chunkSize - the size in bytes of the chunks the bundle is uploaded in, 0 to upload it in one request
+   * @param progressDirectory - where the progress of a chunked upload is kept, required if {@code chunkSize} is set
+   * @param contentKey - the hash of the content of the bundle, to resume a chunked upload of a bundle built again
+   */
+  public UploadArtifactRequest(
+      final String deploymentName,
+      final Path bundleFile,
+      final PublishingType publishingType,
+      final long chunkSize,
+      @Nullable final Path progressDirectory,
+      @Nullable final String contentKey)
   {
     this.deploymentName = deploymentName;
     this.bundleFile = bundleFile;
+    this.bundleBuilder = null;
     this.publishingType = publishingType;
+    this.chunkSize = chunkSize;
+    this.progressDirectory = progressDirectory;
+    this.contentKey = contentKey;
+  }
+
+  public UploadArtifactRequest(
+      final String deploymentName,
+      final BundleBuilder bundleBuilder,
+      final PublishingType publishingType)
+  {
+    this.deploymentName = deploymentName;
+    this.bundleFile = null;
+    this.bundleBuilder = bundleBuilder;
+    this.publishingType = publishingType;
+    this.chunkSize = 0;
+    this.progressDirectory = null;
+    this.contentKey = null;
   }
 
   public String getDeploymentName() {
     return deploymentName;
   }
 
+  @Nullable
   public Path getBundleFile() {
     return bundleFile;
   }
 
+  /**
+   * @return the bundle to create while it is uploaded, or null if {@link #getBundleFile()} is uploaded.
+   */
+  @Nullable
+  public BundleBuilder getBundleBuilder() {
+    return bundleBuilder;
+  }
+
   public PublishingType getPublishingType() {
     return publishingType;
   }
+
+  /**
+   * @return the size in bytes of the chunks {@link #getBundleFile()} is uploaded in, 0 to upload it in one request.
+   */
+  public long getChunkSize() {
+    return chunkSize;
+  }
+
+  @Nullable
+  public Path getProgressDirectory() {
+    return progressDirectory;
+  }
+
+  @Nullable
+  public String getContentKey() {
+    return contentKey;
+  }
 }
@@ -4,6 +4,10 @@
  */
 package org.sonatype.central.publisher.plugin.model;
 
+import org.sonatype.central.publisher.plugin.watcher.DeploymentStateListener;
+
+import org.jspecify.annotations.Nullable;
+
 /**
  * Simple class to wrap common request values for requesting to wait of a Deployment state.
  */
@@ -19,18 +23,38 @@ public class WaitForDeploymentStateRequest
 
   private final int waitPollingIntervalInSeconds;
 
+  private final int waitMaxPollingIntervalInSeconds;
+
+  private final DeploymentStateListener stateListener;
+
+  public WaitForDeploymentStateRequest(
+      final String centralBaseUrl,
+      final String deploymentId,
+      final WaitUntilRequest waitUntilRequest,
+      final int waitMaxTimeInSeconds,
+      final int waitPollingIntervalInSeconds,
+      final int waitMaxPollingIntervalInSeconds)
+  {
+    this(centralBaseUrl, deploymentId, waitUntilRequest, waitMaxTimeInSeconds, waitPollingIntervalInSeconds,
+        waitMaxPollingIntervalInSeconds, null);
+  }
+
   public WaitForDeploymentStateRequest(
       final String centralBaseUrl,
       final String deploymentId,
       final WaitUntilRequest waitUntilRequest,
       final int waitMaxTimeInSeconds,
-      final int waitPollingIntervalInSeconds)
+      final int waitPollingIntervalInSeconds,
+      final int waitMaxPollingIntervalInSeconds,
+      @Nullable final DeploymentStateListener stateListener)
   {
     this.centralBaseUrl = centralBaseUrl;
     this.deploymentId = deploymentId;
     this.waitUntilRequest = waitUntilRequest;
     this.waitMaxTimeInSeconds = waitMaxTimeInSeconds;
     this.waitPollingIntervalInSeconds = waitPollingIntervalInSeconds;
+    this.waitMaxPollingIntervalInSeconds = waitMaxPollingIntervalInSeconds;
+    this.stateListener = stateListener != null ? stateListener : DeploymentStateListener.NONE;
   }
 
   public String getCentralBaseUrl() {
@@ -56,4 +80,12 @@ public class WaitForDeploymentStateRequest
   public int getWaitPollingIntervalInSeconds() {
     return waitPollingIntervalInSeconds;
   }
+
+  public int getWaitMaxPollingIntervalInSeconds() {
+    return waitMaxPollingIntervalInSeconds;
+  }
+
+  public DeploymentStateListener getStateListener() {
+    return stateListener;
+  }
 }
@@ -5,7 +5,18 @@
 
 package org.sonatype.central.publisher.plugin.published;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface ComponentPublishedChecker
 {
   boolean isComponentPublished(final String groupId, final String artifactId, final String version);
+
+  /**
+   * Same as {@link #isComponentPublished(String, String, String)} without waiting for Central, so that many components
+   * are checked at the same time.
+   */
+  CompletableFuture<Boolean> isComponentPublishedAsync(
+      final String groupId,
+      final String artifactId,
+      final String version);
 }
@@ -5,6 +5,8 @@
 
 package org.sonatype.central.publisher.plugin.published;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.sonatype.central.publisher.client.PublisherClient;
 import org.sonatype.central.publisher.client.PublisherClientFactory;
 
@@ -37,10 +39,34 @@ public class ComponentPublishedCheckerImpl
         "Check component published status for component: groupId:" + groupId + " artifactId:" + artifactId +
             " version:" + version);
     boolean published = publisherClient.isPublished(groupId, artifactId, version);
+    logPublished(groupId, artifactId, version, published);
+    return published;
+  }
+
+  @Override
+  public CompletableFuture<Boolean> isComponentPublishedAsync(
+      final String groupId,
+      final String artifactId,
+      final String version)
+  {
+    getLogger().info(
+        "Check component published status for component: groupId:" + groupId + " artifactId:" + artifactId +
+            " version:" + version);
+    return publisherClient.isPublishedAsync(groupId, artifactId, version).thenApply(published -> {
+      logPublished(groupId, artifactId, version, published);
+      return published;
+    });
+  }
+
+  private void logPublished(
+      final String groupId,
+      final String artifactId,
+      final String version,
+      final boolean published)
+  {
     if (published) {
       getLogger().info("Excluding component: groupId:" + groupId + " artifactId:" + artifactId + " version:" + version +
           " as a published");
     }
-    return published;
   }
 }
@@ -4,13 +4,22 @@
  */
 package org.sonatype.central.publisher.plugin.stager;
 
+import java.util.List;
+
 import org.sonatype.central.publisher.plugin.model.StageArtifactRequest;
+import org.sonatype.central.publisher.plugin.model.StagedFile;
 
 import org.apache.maven.artifact.installer.ArtifactInstallationException;
 import org.apache.maven.plugin.MojoExecutionException;
 
 public interface ArtifactStager
 {
-  void stageArtifact(
+  /**
+   * Copy the artifacts into the staging directory, computing the requested hashes of every file while copying it.
+   *
+   * @param stageArtifactRequest - {@link StageArtifactRequest}
+   * @return the {@link StagedFile}s, including the POMs of the artifacts.
+   */
+  List<StagedFile> stageArtifact(
       final StageArtifactRequest stageArtifactRequest) throws MojoExecutionException, ArtifactInstallationException;
 }
@@ -6,33 +6,63 @@ package org.sonatype.central.publisher.plugin.stager;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
 
+import org.sonatype.central.publisher.client.httpclient.utils.PublisherBundle;
 import org.sonatype.central.publisher.plugin.model.ArtifactWithFile;
 import org.sonatype.central.publisher.plugin.model.StageArtifactRequest;
+import org.sonatype.central.publisher.plugin.model.StagedFile;
+import org.sonatype.central.publisher.plugin.model.StagingMode;
+import org.sonatype.central.publisher.plugin.utils.ChecksumCache;
+import org.sonatype.central.publisher.plugin.utils.HashAlgorithm;
+import org.sonatype.central.publisher.plugin.utils.HashUtils;
+import org.sonatype.central.publisher.plugin.utils.StagingFileUtils;
 
+import com.google.common.util.concurrent.Striped;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.installer.ArtifactInstallationException;
-import org.apache.maven.artifact.installer.ArtifactInstaller;
+import org.apache.maven.artifact.metadata.ArtifactMetadata;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.artifact.repository.ArtifactRepositoryFactory;
 import org.apache.maven.artifact.repository.layout.ArtifactRepositoryLayout;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.artifact.ProjectArtifactMetadata;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.AbstractLogEnabled;
+import org.jspecify.annotations.Nullable;
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
 import static org.sonatype.central.publisher.plugin.Constants.LOCAL_STAGING_REPOSITORY_NAME;
 
+/**
+ * Implementation of {@link ArtifactStager}.
+ * <p>
+ * Files are copied, or hard linked with {@link StagingMode#LINK}, into the staging repository by this class, at the
+ * place the repository layout defines, rather than being installed. This way the requested hashes are computed from
+ * the same read as the copy.
+ * <p>
+ * With {@link StagingMode#VIRTUAL} files are only recorded in the {@link PublisherBundle#STAGING_MANIFEST_FILE_NAME}
+ * of the staging directory, and bundled from where they are. They must not change until the bundle is created.
+ */
 @Component(role = ArtifactStager.class)
 public class ArtifactStagerImpl
     extends AbstractLogEnabled
     implements ArtifactStager
 {
-  private static final Object parallelLock = new Object();
+  // copies into different GAV directories run in parallel, only copies into the same directory are serialized
+  private static final Striped<Lock> parallelLocks = Striped.lock(64);
 
-  @Requirement
-  private ArtifactInstaller artifactInstaller;
+  // the manifest is shared by all modules
+  private static final Object manifestLock = new Object();
 
   @Requirement
   private ArtifactRepositoryFactory artifactRepositoryFactory;
@@ -40,34 +70,99 @@ public class ArtifactStagerImpl
   @Requirement
   private ArtifactRepositoryLayout artifactRepositoryLayout;
 
+  @Requirement
+  private HashUtils hashUtils;
+
   @Override
-  public void stageArtifact(
+  public List<StagedFile> stageArtifact(
       final StageArtifactRequest stageArtifactRequest) throws MojoExecutionException, ArtifactInstallationException
   {
+    List<StagedFile> stagedFiles = new ArrayList<>();
+
     if (!stageArtifactRequest.getArtifactWithFiles().isEmpty()) {
       getLogger().info("Staging " + stageArtifactRequest.getArtifactWithFiles().size() + " files");
       final File stagingDirectory = stageArtifactRequest.getStagingDirectory();
+      final List<HashAlgorithm> hashAlgorithms = stageArtifactRequest.getHashAlgorithms();
+      final StagingMode stagingMode = stageArtifactRequest.getStagingMode();
+      final ChecksumCache checksumCache = stageArtifactRequest.getChecksumCache();
 
-      // let maven 'install' the content into a repository, guarantee proper placement of all artifacts
+      // let the repository layout define the placement of all artifacts
       final ArtifactRepository stagingRepository = getStagingArtifactRepository(stagingDirectory);
 
       for (ArtifactWithFile artifactWithFile : stageArtifactRequest.getArtifactWithFiles()) {
-        install(artifactWithFile.getFile(), artifactWithFile.getArtifact(), stagingRepository);
+        final Artifact artifact = artifactWithFile.getArtifact();
+
+        for (ArtifactMetadata metadata : artifact.getMetadataList()) {
+          if (metadata instanceof ProjectArtifactMetadata) {
+            String pomPath = stagingRepository.pathOfLocalRepositoryMetadata(metadata, stagingRepository);
+            stagedFiles.add(install(((ProjectArtifactMetadata) metadata).getFile(), stagingDirectory, pomPath,
+                hashAlgorithms, stagingMode, checksumCache));
+          }
+        }
+
+        stagedFiles.add(install(artifactWithFile.getFile(), stagingDirectory, stagingRepository.pathOf(artifact),
+            hashAlgorithms, stagingMode, checksumCache));
       }
     }
     else {
       getLogger().info("No files to stage for artifact");
     }
+
+    return stagedFiles;
   }
 
-  protected void install(
+  protected StagedFile install(
       final File source,
-      final Artifact artifact,
-      final ArtifactRepository stagingRepository) throws ArtifactInstallationException
+      final File stagingDirectory,
+      final String path,
+      final List<HashAlgorithm> hashAlgorithms,
+      final StagingMode stagingMode,
+      @Nullable final ChecksumCache checksumCache) throws ArtifactInstallationException
   {
-    synchronized (parallelLock) {
+    File target = new File(stagingDirectory, path);
+    Lock lock = parallelLocks.get(target.getAbsoluteFile().getParent());
+    lock.lock();
+    try {
       getLogger().info("Staging " + source.getAbsolutePath());
-      artifactInstaller.install(source, artifact, stagingRepository);
+      // the directory is created for virtual staging too, checksum files are written there
+      Files.createDirectories(target.toPath().getParent());
+      if (stagingMode == StagingMode.VIRTUAL) {
+        addToManifest(stagingDirectory, path, source);
+        return new StagedFile(source, target, hash(source, hashAlgorithms, checksumCache), true);
+      }
+      if (stagingMode == StagingMode.LINK && StagingFileUtils.link(source.toPath(), target.toPath())) {
+        return new StagedFile(source, target, hash(source, hashAlgorithms, checksumCache));
+      }
+      return new StagedFile(source, target, hashUtils.copy(source, target, hashAlgorithms, checksumCache));
+    }
+    catch (IOException e) {
+      throw new ArtifactInstallationException(
+          "Staging failed: could not copy " + source.getAbsolutePath() + " to " + target.getAbsolutePath(), e);
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Hash a file that was not read while staging it.
+   */
+  private Map<HashAlgorithm, String> hash(
+      final File source,
+      final List<HashAlgorithm> hashAlgorithms,
+      @Nullable final ChecksumCache checksumCache)
+  {
+    return hashAlgorithms.isEmpty() ? Collections.emptyMap() : hashUtils.hash(source, hashAlgorithms, checksumCache);
+  }
+
+  private void addToManifest(final File stagingDirectory, final String path, final File source) throws IOException {
+    synchronized (manifestLock) {
+      try (Writer writer = Files.newBufferedWriter(
+          new File(stagingDirectory, PublisherBundle.STAGING_MANIFEST_FILE_NAME).toPath(), ISO_8859_1, CREATE,
+          APPEND)) {
+        writer.write(path + "=" + source.getAbsoluteFile().toURI().toASCIIString());
+        writer.write(System.lineSeparator());
+      }
     }
   }
 
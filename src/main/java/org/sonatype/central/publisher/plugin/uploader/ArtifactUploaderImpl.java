@@ -4,8 +4,13 @@
  */
 package org.sonatype.central.publisher.plugin.uploader;
 
+import java.util.Locale;
+
 import org.sonatype.central.publisher.client.PublisherClient;
 import org.sonatype.central.publisher.client.PublisherClientFactory;
+import org.sonatype.central.publisher.client.httpclient.UploadListener;
+import org.sonatype.central.publisher.client.httpclient.UploadStats;
+import org.sonatype.central.publisher.client.httpclient.utils.PublisherBundle.BundleBuilder;
 import org.sonatype.central.publisher.client.model.PublishingType;
 import org.sonatype.central.publisher.plugin.exceptions.DeploymentPublishFailedException;
 import org.sonatype.central.publisher.plugin.model.UploadArtifactRequest;
@@ -13,6 +18,8 @@ import org.sonatype.central.publisher.plugin.model.UploadArtifactRequest;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.AbstractLogEnabled;
+import org.codehaus.plexus.logging.Logger;
+import org.jspecify.annotations.Nullable;
 
 import static java.lang.String.format;
 
@@ -34,15 +41,38 @@ public class ArtifactUploaderImpl
 
   @Override
   public String upload(final UploadArtifactRequest uploadArtifactRequest) {
+    BundleBuilder bundleBuilder = uploadArtifactRequest.getBundleBuilder();
     if (getLogger() != null) {
-      getLogger().info("Going to upload " + uploadArtifactRequest.getBundleFile());
+      getLogger().info("Going to upload " + (bundleBuilder != null
+          ? bundleBuilder.getBundleName() + " while bundling it"
+          : uploadArtifactRequest.getBundleFile()));
     }
 
     try {
-      String deploymentId = publisherClient.upload(
-          uploadArtifactRequest.getDeploymentName(),
-          uploadArtifactRequest.getBundleFile(),
-          uploadArtifactRequest.getPublishingType());
+      String deploymentId;
+      if (bundleBuilder != null) {
+        deploymentId = publisherClient.upload(
+            uploadArtifactRequest.getDeploymentName(),
+            bundleBuilder,
+            uploadArtifactRequest.getPublishingType(),
+            uploadListener(uploadArtifactRequest));
+      }
+      else if (uploadArtifactRequest.getChunkSize() > 0) {
+        deploymentId = publisherClient.upload(
+            uploadArtifactRequest.getDeploymentName(),
+            uploadArtifactRequest.getBundleFile(),
+            uploadArtifactRequest.getPublishingType(),
+            uploadArtifactRequest.getChunkSize(),
+            uploadArtifactRequest.getProgressDirectory(),
+            uploadArtifactRequest.getContentKey());
+      }
+      else {
+        deploymentId = publisherClient.upload(
+            uploadArtifactRequest.getDeploymentName(),
+            uploadArtifactRequest.getBundleFile(),
+            uploadArtifactRequest.getPublishingType(),
+            uploadListener(uploadArtifactRequest));
+      }
 
       if (getLogger() != null) {
         getLogger().info(
@@ -62,6 +92,55 @@ public class ArtifactUploaderImpl
     }
   }
 
+  /**
+   * @return a listener that logs the progress of the upload, and its throughput and timings once done.
+   */
+  @Nullable
+  private UploadListener uploadListener(final UploadArtifactRequest uploadArtifactRequest) {
+    Logger logger = getLogger();
+    if (logger == null) {
+      return null;
+    }
+
+    String deploymentName = uploadArtifactRequest.getDeploymentName();
+    return new UploadListener()
+    {
+      @Override
+      public void progress(final UploadStats stats) {
+        String sent = toMegabytes(stats.getBytesSent());
+        if (stats.getContentLength() > 0) {
+          sent += format(" of %s (%d%%)", toMegabytes(stats.getContentLength()),
+              stats.getBytesSent() * 100 / stats.getContentLength());
+        }
+        String eta = stats.getEtaMillis() >= 0 ? format(", ETA %s", toSeconds(stats.getEtaMillis())) : "";
+        logger.info(format("Uploading %s: %s sent, %s/s%s",
+            deploymentName, sent, toMegabytes((long) stats.getBytesPerSecond()), eta));
+      }
+
+      @Override
+      public void completed(final UploadStats stats) {
+        logger.info(format(
+            "Upload of %s: %s sent in %s (%s/s, %s writing to the network, %s reading the bundle),"
+                + " time to first byte %s",
+            deploymentName,
+            toMegabytes(stats.getBytesSent()),
+            toSeconds(stats.getTransferMillis()),
+            toMegabytes((long) stats.getBytesPerSecond()),
+            toSeconds(stats.getNetworkMillis()),
+            toSeconds(stats.getSourceMillis()),
+            toSeconds(stats.getTimeToFirstByteMillis())));
+      }
+    };
+  }
+
+  private static String toMegabytes(final long bytes) {
+    return format(Locale.ROOT, "%.1f MB", bytes / (1024d * 1024d));
+  }
+
+  private static String toSeconds(final long millis) {
+    return format(Locale.ROOT, "%.1f s", millis / 1000d);
+  }
+
   private String toPublishingTypeMessage(final UploadArtifactRequest uploadArtifactRequest) {
     PublishingType publishingType = uploadArtifactRequest.getPublishingType();
 
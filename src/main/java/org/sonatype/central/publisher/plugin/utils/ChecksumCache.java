@@ -0,0 +1,408 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+package org.sonatype.central.publisher.plugin.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.jspecify.annotations.Nullable;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * On-disk cache of file hashes, keyed by the identity of the hashed file: its canonical path, size, last modified time
+ * and file key (the inode on most file systems). A cached hash is only returned while all of those still match, so a
+ * changed file is always hashed again.
+ * <p>
+ * The cache file is line based, every line carries a CRC32 of its content. Lines that fail the check (e.g. a cache
+ * file truncated by a killed build) are dropped on load, and the file is always replaced atomically on save. Entries
+ * that have not been used for {@link #MAX_AGE_MILLIS} are evicted, as are the least recently used entries above
+ * {@link #MAX_ENTRIES}. The last use of an entry is only recorded again once it is {@link #LAST_USED_PRECISION_MILLIS}
+ * old, so that a build that only hits the cache does not rewrite it.
+ * <p>
+ * This class is thread safe.
+ */
+public class ChecksumCache
+{
+  public static final String CACHE_FILE_NAME = "checksums.cache";
+
+  private static final String HEADER = "# central-publishing-maven-plugin checksum cache v1";
+
+  private static final int MAX_ENTRIES = 50_000;
+
+  private static final long MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(30);
+
+  private static final long LAST_USED_PRECISION_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+  private static final String SEPARATOR = "\t";
+
+  private final Path cacheFile;
+
+  private final Map<String, CacheEntry> entries = new HashMap<>();
+
+  private boolean dirty;
+
+  private ChecksumCache(final Path cacheFile) {
+    this.cacheFile = cacheFile;
+  }
+
+  /**
+   * Load the cache from the given file. A missing or unreadable file results in an empty cache.
+   *
+   * @param cacheFile - {@link Path} of the cache file, created on {@link #save()} if needed
+   * @return ChecksumCache
+   */
+  public static ChecksumCache load(final Path cacheFile) {
+    ChecksumCache cache = new ChecksumCache(cacheFile);
+
+    try (BufferedReader reader = Files.newBufferedReader(cacheFile, UTF_8)) {
+      if (HEADER.equals(reader.readLine())) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          CacheEntry entry = CacheEntry.parse(line);
+          if (entry != null) {
+            cache.entries.put(entry.path, entry);
+          }
+        }
+      }
+    }
+    catch (NoSuchFileException ignore) {
+      // first use
+    }
+    catch (IOException | RuntimeException ignore) {
+      // an unreadable cache is an empty cache, everything gets hashed again
+      cache.entries.clear();
+    }
+
+    return cache;
+  }
+
+  public Path getCacheFile() {
+    return cacheFile;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Get the cached hashes of a file.
+   *
+   * @param file - {@link File}
+   * @param algorithms - the {@link HashAlgorithm}s that are needed
+   * @return the hashes for all requested {@code algorithms}, or null if the file changed or one is not cached.
+   */
+  @Nullable
+  public Map<HashAlgorithm, String> get(final File file, final Collection<HashAlgorithm> algorithms) {
+    FileIdentity identity = FileIdentity.of(file);
+    if (identity == null) {
+      return null;
+    }
+
+    synchronized (this) {
+      CacheEntry entry = entries.get(identity.path);
+      if (entry == null) {
+        return null;
+      }
+
+      if (!entry.identity.equals(identity)) {
+        entries.remove(identity.path);
+        dirty = true;
+        return null;
+      }
+
+      Map<HashAlgorithm, String> hashes = new LinkedHashMap<>();
+      for (HashAlgorithm algorithm : algorithms) {
+        String hash = entry.hashes.get(algorithm.name());
+        if (hash == null) {
+          return null;
+        }
+        hashes.put(algorithm, hash);
+      }
+
+      long now = System.currentTimeMillis();
+      if (now - entry.lastUsed >= LAST_USED_PRECISION_MILLIS) {
+        entry.lastUsed = now;
+        dirty = true;
+      }
+      return hashes;
+    }
+  }
+
+  /**
+   * Capture the identity of a file before hashing it, to be passed to {@link #put(FileIdentity, Map)} afterwards.
+   *
+   * @param file - {@link File}
+   * @return the {@link FileIdentity}, or null if it cannot be determined.
+   */
+  @Nullable
+  public FileIdentity identify(final File file) {
+    return FileIdentity.of(file);
+  }
+
+  /**
+   * Cache the hashes of a file. Nothing is cached if the file changed since its {@code identity} was captured, i.e.
+   * while it was being hashed.
+   *
+   * @param identity - the {@link FileIdentity} captured before hashing
+   * @param hashes - the computed hashes
+   */
+  public void put(@Nullable final FileIdentity identity, final Map<HashAlgorithm, String> hashes) {
+    if (identity == null || hashes.isEmpty() || !identity.equals(FileIdentity.of(new File(identity.path)))) {
+      return;
+    }
+
+    synchronized (this) {
+      CacheEntry entry = entries.get(identity.path);
+      if (entry == null || !entry.identity.equals(identity)) {
+        entry = new CacheEntry(identity);
+        entries.put(identity.path, entry);
+      }
+      for (Entry<HashAlgorithm, String> hash : hashes.entrySet()) {
+        entry.hashes.put(hash.getKey().name(), hash.getValue());
+      }
+      entry.lastUsed = System.currentTimeMillis();
+      dirty = true;
+    }
+  }
+
+  /**
+   * Evict expired and excess entries and write the cache file, if anything changed since it was loaded or last saved.
+   *
+   * @throws IOException if the cache file cannot be written.
+   */
+  public synchronized void save() throws IOException {
+    if (!dirty) {
+      return;
+    }
+
+    List<CacheEntry> retained = new ArrayList<>();
+    long expiry = System.currentTimeMillis() - MAX_AGE_MILLIS;
+    for (CacheEntry entry : entries.values()) {
+      if (entry.lastUsed >= expiry) {
+        retained.add(entry);
+      }
+    }
+    retained.sort(Comparator.comparingLong((CacheEntry entry) -> entry.lastUsed).reversed());
+    if (retained.size() > MAX_ENTRIES) {
+      retained = new ArrayList<>(retained.subList(0, MAX_ENTRIES));
+    }
+
+    entries.clear();
+    for (CacheEntry entry : retained) {
+      entries.put(entry.path, entry);
+    }
+
+    Files.createDirectories(cacheFile.getParent());
+    Path tempFile = Files.createTempFile(cacheFile.getParent(), CACHE_FILE_NAME, ".tmp");
+    try {
+      try (BufferedWriter writer = Files.newBufferedWriter(tempFile, UTF_8)) {
+        writer.write(HEADER);
+        writer.newLine();
+        for (CacheEntry entry : retained) {
+          writer.write(entry.format());
+          writer.newLine();
+        }
+      }
+
+      try {
+        Files.move(tempFile, cacheFile, ATOMIC_MOVE, REPLACE_EXISTING);
+      }
+      catch (AtomicMoveNotSupportedException e) {
+        Files.move(tempFile, cacheFile, REPLACE_EXISTING);
+      }
+    }
+    finally {
+      Files.deleteIfExists(tempFile);
+    }
+
+    dirty = false;
+  }
+
+  /**
+   * Identity of a file at a point in time, see {@link ChecksumCache}.
+   */
+  public static final class FileIdentity
+  {
+    private final String path;
+
+    private final long size;
+
+    private final long lastModified;
+
+    private final String fileKey;
+
+    private FileIdentity(final String path, final long size, final long lastModified, final String fileKey) {
+      this.path = path;
+      this.size = size;
+      this.lastModified = lastModified;
+      this.fileKey = fileKey;
+    }
+
+    @Nullable
+    static FileIdentity of(final File file) {
+      try {
+        File canonicalFile = file.getCanonicalFile();
+        BasicFileAttributes attributes = Files.readAttributes(canonicalFile.toPath(), BasicFileAttributes.class);
+        if (!attributes.isRegularFile()) {
+          return null;
+        }
+        return new FileIdentity(
+            canonicalFile.getPath(),
+            attributes.size(),
+            attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS),
+            String.valueOf(attributes.fileKey()));
+      }
+      catch (IOException e) {
+        return null;
+      }
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      FileIdentity that = (FileIdentity) o;
+      return size == that.size
+          && lastModified == that.lastModified
+          && path.equals(that.path)
+          && fileKey.equals(that.fileKey);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, size, lastModified, fileKey);
+    }
+  }
+
+  private static final class CacheEntry
+  {
+    private final String path;
+
+    private final FileIdentity identity;
+
+    private final Map<String, String> hashes = new LinkedHashMap<>();
+
+    private long lastUsed;
+
+    private CacheEntry(final FileIdentity identity) {
+      this.path = identity.path;
+      this.identity = identity;
+    }
+
+    /**
+     * crc32, path, size, lastModified, fileKey, lastUsed, algorithm=hash[,algorithm=hash]
+     */
+    private String format() {
+      StringBuilder hashesValue = new StringBuilder();
+      for (Entry<String, String> hash : hashes.entrySet()) {
+        if (hashesValue.length() > 0) {
+          hashesValue.append(',');
+        }
+        hashesValue.append(hash.getKey()).append('=').append(hash.getValue());
+      }
+
+      String content = String.join(SEPARATOR,
+          encode(identity.path),
+          Long.toString(identity.size),
+          Long.toString(identity.lastModified),
+          encode(identity.fileKey),
+          Long.toString(lastUsed),
+          hashesValue);
+
+      return crc32(content) + SEPARATOR + content;
+    }
+
+    @Nullable
+    private static CacheEntry parse(final String line) {
+      int crcEnd = line.indexOf(SEPARATOR);
+      if (crcEnd < 0) {
+        return null;
+      }
+
+      String content = line.substring(crcEnd + 1);
+      if (!line.substring(0, crcEnd).equals(crc32(content))) {
+        return null;
+      }
+
+      String[] fields = content.split(SEPARATOR, -1);
+      if (fields.length != 6) {
+        return null;
+      }
+
+      try {
+        CacheEntry entry = new CacheEntry(new FileIdentity(
+            decode(fields[0]),
+            Long.parseLong(fields[1]),
+            Long.parseLong(fields[2]),
+            decode(fields[3])));
+        entry.lastUsed = Long.parseLong(fields[4]);
+
+        for (String hash : fields[5].split(",")) {
+          int separator = hash.indexOf('=');
+          if (separator <= 0) {
+            return null;
+          }
+          entry.hashes.put(hash.substring(0, separator), hash.substring(separator + 1));
+        }
+        return entry;
+      }
+      catch (IllegalArgumentException e) {
+        return null;
+      }
+    }
+
+    private static String crc32(final String content) {
+      CRC32 crc32 = new CRC32();
+      crc32.update(content.getBytes(UTF_8));
+      return Long.toHexString(crc32.getValue());
+    }
+
+    private static String encode(final String value) {
+      try {
+        return URLEncoder.encode(value, UTF_8.name());
+      }
+      catch (UnsupportedEncodingException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    private static String decode(final String value) {
+      try {
+        return URLDecoder.decode(value, UTF_8.name());
+      }
+      catch (UnsupportedEncodingException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+}
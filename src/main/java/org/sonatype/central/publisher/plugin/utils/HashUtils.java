@@ -5,13 +5,18 @@
 package org.sonatype.central.publisher.plugin.utils;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 import org.jspecify.annotations.Nullable;
 
 public interface HashUtils
 {
   /**
-   * Get the hash for a given file.
+   * Get the hash for a given file. The file is streamed through a fixed size buffer, so memory use does not depend on
+   * the size of the file.
    *
    * @param file - {@link File}
    * @param algorithm - {@link HashAlgorithm}
@@ -20,6 +25,52 @@ public interface HashUtils
   @Nullable
   String hash(final File file, final HashAlgorithm algorithm);
 
+  /**
+   * Get the hashes for a given file for all the given algorithms. The file is read only once, feeding every requested
+   * algorithm from the same read.
+   *
+   * @param file - {@link File}
+   * @param algorithms - the {@link HashAlgorithm}s to compute
+   * @return Map of {@link HashAlgorithm} to hash, in the order of the given {@code algorithms}, or an empty map if the
+   *     file didn't exist or issues occurred reading it.
+   */
+  Map<HashAlgorithm, String> hash(final File file, final Collection<HashAlgorithm> algorithms);
+
+  /**
+   * Same as {@link #hash(File, Collection)}, looking the hashes up in the given {@link ChecksumCache} first and storing
+   * the computed ones there.
+   *
+   * @param checksumCache - {@link ChecksumCache}, or null to always compute hashes
+   */
+  Map<HashAlgorithm, String> hash(
+      final File file,
+      final Collection<HashAlgorithm> algorithms,
+      @Nullable final ChecksumCache checksumCache);
+
+  /**
+   * Get a hash of the content of a staging directory tree: the relative paths and the hashes of all its files, but the
+   * checksum and signature files, which only derive from the content and, for signatures, differ on every build. Files
+   * staged virtually are included, the staging index and manifest are not. The hash of a file is taken from its
+   * checksum file, if there is one, so that the content already hashed to create it is not read again.
+   *
+   * @param directory - the root of the tree
+   * @param algorithm - {@link HashAlgorithm} of the tree, and of the files without checksum file
+   * @return String - the hash of the tree, the same for trees with the same content.
+   * @throws IOException if the tree cannot be read.
+   */
+  String hashTree(final File directory, final HashAlgorithm algorithm) throws IOException;
+
+  /**
+   * Same as {@link #hashTree(File, HashAlgorithm)}, using the given {@link ChecksumCache} for the files without
+   * checksum file.
+   *
+   * @param checksumCache - {@link ChecksumCache}, or null to always compute hashes
+   */
+  String hashTree(
+      final File directory,
+      final HashAlgorithm algorithm,
+      @Nullable final ChecksumCache checksumCache) throws IOException;
+
   /**
    * Creates a checksum file for a given file. The hash file will be created alongside the given {@code file} in the
    * same parent directory. Example the the file /test/1.0.jar, after calling this method with, for example
@@ -32,6 +83,76 @@ public interface HashUtils
   @Nullable
   File createChecksumFile(final File file, final HashAlgorithm algorithm);
 
+  /**
+   * Creates checksum files for a given file for all the given algorithms, reading the file only once. See
+   * {@link #createChecksumFile(File, HashAlgorithm)} for where the checksum files are created.
+   *
+   * @param file - {@link File}
+   * @param algorithms - the {@link HashAlgorithm}s to create checksum files for
+   * @return List of the created checksum {@link File}s, or an empty list if unable to create them.
+   */
+  List<File> createChecksumFiles(final File file, final Collection<HashAlgorithm> algorithms);
+
+  /**
+   * Same as {@link #createChecksumFiles(File, Collection)}, using the given {@link ChecksumCache} for the hashes.
+   *
+   * @param checksumCache - {@link ChecksumCache}, or null to always compute hashes
+   */
+  List<File> createChecksumFiles(
+      final File file,
+      final Collection<HashAlgorithm> algorithms,
+      @Nullable final ChecksumCache checksumCache);
+
+  /**
+   * Copy a file, computing its hashes for all the given algorithms from the same read. The {@code target} is replaced
+   * if it exists.
+   *
+   * @param source - {@link File} to copy and hash
+   * @param target - {@link File} to copy to, its parent directory must exist
+   * @param algorithms - the {@link HashAlgorithm}s to compute, may be empty to only copy
+   * @return Map of {@link HashAlgorithm} to hash of {@code source}, in the order of the given {@code algorithms}.
+   * @throws IOException if the file cannot be read or the copy cannot be written.
+   */
+  Map<HashAlgorithm, String> copy(
+      final File source,
+      final File target,
+      final Collection<HashAlgorithm> algorithms) throws IOException;
+
+  /**
+   * Same as {@link #copy(File, File, Collection)}, using the given {@link ChecksumCache} for the hashes.
+   *
+   * @param checksumCache - {@link ChecksumCache}, or null to always compute hashes
+   */
+  Map<HashAlgorithm, String> copy(
+      final File source,
+      final File target,
+      final Collection<HashAlgorithm> algorithms,
+      @Nullable final ChecksumCache checksumCache) throws IOException;
+
+  /**
+   * Read the hash held by an existing checksum file of a given file, see
+   * {@link #createChecksumFile(File, HashAlgorithm)} for where checksum files are expected. Both a bare hash and the
+   * {@code <hash> <file name>} format written by the {@code *sum} tools are accepted.
+   *
+   * @param file - {@link File} the checksum file belongs to
+   * @param algorithm - {@link HashAlgorithm}
+   * @return String or null if there is no checksum file or it doesn't hold a well formed hash for {@code algorithm}.
+   */
+  @Nullable
+  String readChecksumFile(final File file, final HashAlgorithm algorithm);
+
+  /**
+   * Write an already known hash to the checksum file of a given file, see
+   * {@link #createChecksumFile(File, HashAlgorithm)} for where the checksum file is created.
+   *
+   * @param file - {@link File} the checksum file belongs to
+   * @param algorithm - {@link HashAlgorithm}
+   * @param hash - the hash of {@code file}
+   * @return File - the checksum {@link File}, or null if unable to write it.
+   */
+  @Nullable
+  File writeChecksumFile(final File file, final HashAlgorithm algorithm, final String hash);
+
   /**
    * Test whether a given {@link File} is a file that is considered a checksum file based on its extension ending
    * with {@link HashAlgorithm#MD5}, {@link HashAlgorithm#SHA1},{@link HashAlgorithm#SHA256} or
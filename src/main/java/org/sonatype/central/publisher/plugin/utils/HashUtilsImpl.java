@@ -6,16 +6,44 @@ package org.sonatype.central.publisher.plugin.utils;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.URI;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.sonatype.central.publisher.plugin.utils.ChecksumCache.FileIdentity;
+
+import com.google.common.hash.Hasher;
 
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.logging.AbstractLogEnabled;
+import org.jspecify.annotations.Nullable;
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.nio.file.StandardOpenOption.CREATE;
 import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
 import static java.nio.file.StandardOpenOption.WRITE;
+import static org.sonatype.central.publisher.client.httpclient.utils.PublisherBundle.STAGING_INDEX_FILE_NAME;
+import static org.sonatype.central.publisher.client.httpclient.utils.PublisherBundle.STAGING_MANIFEST_FILE_NAME;
 
 /**
  * Implementation of {@link HashUtils}
@@ -25,10 +53,21 @@ public class HashUtilsImpl
     extends AbstractLogEnabled
     implements HashUtils
 {
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private static final List<HashAlgorithm> STRONGEST_ALGORITHMS_FIRST =
+      Arrays.asList(HashAlgorithm.SHA512, HashAlgorithm.SHA256, HashAlgorithm.SHA1, HashAlgorithm.MD5);
+
+  // the files that describe the staged content rather than being part of it
+  private static final Set<String> STAGING_FILE_NAMES =
+      new HashSet<>(Arrays.asList(STAGING_INDEX_FILE_NAME, STAGING_MANIFEST_FILE_NAME));
+
+  private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
   @Override
   public String hash(final File file, final HashAlgorithm algorithm) {
     try {
-      return algorithm.function().hashBytes(Files.readAllBytes(file.toPath())).toString();
+      return digest(file, null, Collections.singletonList(algorithm), null).get(algorithm);
     }
     catch (IOException e) {
       getLogger().error("Failed to generate hash from " + file.getAbsolutePath() + " using algorithm " + algorithm, e);
@@ -37,6 +76,101 @@ public class HashUtilsImpl
     return null;
   }
 
+  @Override
+  public Map<HashAlgorithm, String> hash(final File file, final Collection<HashAlgorithm> algorithms) {
+    return hash(file, algorithms, null);
+  }
+
+  @Override
+  public Map<HashAlgorithm, String> hash(
+      final File file,
+      final Collection<HashAlgorithm> algorithms,
+      @Nullable final ChecksumCache checksumCache)
+  {
+    try {
+      return digest(file, null, algorithms, checksumCache);
+    }
+    catch (IOException e) {
+      getLogger().error("Failed to generate hashes from " + file.getAbsolutePath() + " using algorithms "
+          + toNames(algorithms), e);
+    }
+
+    return Collections.emptyMap();
+  }
+
+  @Override
+  public String hashTree(final File directory, final HashAlgorithm algorithm) throws IOException {
+    return hashTree(directory, algorithm, null);
+  }
+
+  @Override
+  public String hashTree(
+      final File directory,
+      final HashAlgorithm algorithm,
+      @Nullable final ChecksumCache checksumCache) throws IOException
+  {
+    Path root = directory.toPath();
+    // the file holding the content per relative path, sorted so that the hash does not depend on the staging order
+    Map<String, File> contentFiles = new TreeMap<>();
+    try (Stream<Path> paths = Files.walk(root)) {
+      paths
+          .filter(Files::isRegularFile)
+          .filter(path -> !STAGING_FILE_NAMES.contains(path.getFileName().toString()))
+          .filter(path -> !isChecksumFile(path.toFile()) && !isSignatureFile(path.toFile()))
+          .forEach(path -> contentFiles.put(root.relativize(path).toString().replace(File.separatorChar, '/'),
+              path.toFile()));
+    }
+
+    // files staged virtually are read from where they were staged from
+    Path manifest = root.resolve(STAGING_MANIFEST_FILE_NAME);
+    if (Files.isRegularFile(manifest)) {
+      Properties entries = new Properties();
+      try (Reader reader = Files.newBufferedReader(manifest, ISO_8859_1)) {
+        entries.load(reader);
+      }
+      for (String entry : entries.stringPropertyNames()) {
+        File sourceFile = Paths.get(URI.create(entries.getProperty(entry))).toFile();
+        if (!isChecksumFile(sourceFile) && !isSignatureFile(sourceFile)) {
+          contentFiles.put(entry, sourceFile);
+        }
+      }
+    }
+
+    Hasher treeHasher = algorithm.function().newHasher();
+    for (Entry<String, File> contentFile : contentFiles.entrySet()) {
+      File file = root.resolve(contentFile.getKey()).toFile();
+      treeHasher
+          .putString(contentFile.getKey(), UTF_8)
+          .putByte((byte) 0)
+          .putString(fileHash(file, contentFile.getValue(), algorithm, checksumCache), UTF_8)
+          .putByte((byte) '\n');
+    }
+    return treeHasher.hash().toString();
+  }
+
+  /**
+   * @return the hash of a staged file prefixed by its algorithm: the one of its strongest checksum file that is not
+   *     older than its content, so that the content is not read again, or else the hash of its content.
+   */
+  private String fileHash(
+      final File file,
+      final File contentFile,
+      final HashAlgorithm algorithm,
+      @Nullable final ChecksumCache checksumCache) throws IOException
+  {
+    for (HashAlgorithm checksumAlgorithm : STRONGEST_ALGORITHMS_FIRST) {
+      File checksumFile = new File(file.getParentFile(), file.getName() + "." + checksumAlgorithm.name());
+      if (checksumFile.lastModified() >= contentFile.lastModified()) {
+        String hash = readChecksumFile(file, checksumAlgorithm);
+        if (hash != null) {
+          return checksumAlgorithm.name() + ':' + hash;
+        }
+      }
+    }
+    return algorithm.name() + ':'
+        + digest(contentFile, null, Collections.singletonList(algorithm), checksumCache).get(algorithm);
+  }
+
   @Override
   public File createChecksumFile(final File file, final HashAlgorithm algorithm) {
     File hashFile = new File(file.getParentFile(), file.getName() + "." + algorithm.name());
@@ -55,6 +189,93 @@ public class HashUtilsImpl
     return null;
   }
 
+  @Override
+  public List<File> createChecksumFiles(final File file, final Collection<HashAlgorithm> algorithms) {
+    return createChecksumFiles(file, algorithms, null);
+  }
+
+  @Override
+  public List<File> createChecksumFiles(
+      final File file,
+      final Collection<HashAlgorithm> algorithms,
+      @Nullable final ChecksumCache checksumCache)
+  {
+    if (algorithms.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    List<File> hashFiles = new ArrayList<>();
+    for (Entry<HashAlgorithm, String> entry : hash(file, algorithms, checksumCache).entrySet()) {
+      File hashFile = writeChecksumFile(file, entry.getKey(), entry.getValue());
+      if (hashFile != null) {
+        hashFiles.add(hashFile);
+      }
+    }
+
+    return hashFiles;
+  }
+
+  @Override
+  public Map<HashAlgorithm, String> copy(
+      final File source,
+      final File target,
+      final Collection<HashAlgorithm> algorithms) throws IOException
+  {
+    return copy(source, target, algorithms, null);
+  }
+
+  @Override
+  public Map<HashAlgorithm, String> copy(
+      final File source,
+      final File target,
+      final Collection<HashAlgorithm> algorithms,
+      @Nullable final ChecksumCache checksumCache) throws IOException
+  {
+    if (algorithms.isEmpty()) {
+      StagingFileUtils.copy(source.toPath(), target.toPath());
+      return Collections.emptyMap();
+    }
+
+    return digest(source, target, algorithms, checksumCache);
+  }
+
+  @Override
+  public String readChecksumFile(final File file, final HashAlgorithm algorithm) {
+    File hashFile = new File(file.getParentFile(), file.getName() + "." + algorithm.name());
+    if (!hashFile.isFile()) {
+      return null;
+    }
+
+    try {
+      String[] tokens = new String(Files.readAllBytes(hashFile.toPath()), UTF_8).trim().split("\\s+", 2);
+      String hash = tokens[0].toLowerCase(Locale.ROOT);
+      if (hash.length() == algorithm.function().bits() / 4 && hash.chars().allMatch(HashUtilsImpl::isHexDigit)) {
+        return hash;
+      }
+      getLogger().debug("Ignoring malformed checksum file " + hashFile.getAbsolutePath());
+    }
+    catch (IOException e) {
+      getLogger().debug("Failed to read checksum file " + hashFile.getAbsolutePath(), e);
+    }
+
+    return null;
+  }
+
+  @Override
+  public File writeChecksumFile(final File file, final HashAlgorithm algorithm, final String hash) {
+    File hashFile = new File(file.getParentFile(), file.getName() + "." + algorithm.name());
+
+    try {
+      return Files.write(hashFile.toPath(), hash.getBytes(UTF_8), CREATE, WRITE, TRUNCATE_EXISTING).toFile();
+    }
+    catch (IOException e) {
+      getLogger()
+          .error("Failed to generate checksum file at " + file.getAbsolutePath() + " using algorithm " + algorithm, e);
+    }
+
+    return null;
+  }
+
   @Override
   public boolean isChecksumFile(final File file) {
     if (file.exists() && file.isFile()) {
@@ -84,6 +305,86 @@ public class HashUtilsImpl
     return false;
   }
 
+  private static boolean isHexDigit(final int c) {
+    return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f');
+  }
+
+  /**
+   * @param copy - if not null, the content of {@code file} is copied to it
+   * @param cache - if not null, the hashes are looked up there first and the computed ones stored there
+   */
+  private Map<HashAlgorithm, String> digest(
+      final File file,
+      @Nullable final File copy,
+      final Collection<HashAlgorithm> algorithms,
+      @Nullable final ChecksumCache cache) throws IOException
+  {
+    if (cache == null) {
+      return computeDigest(file, copy, algorithms);
+    }
+
+    Map<HashAlgorithm, String> hashes = cache.get(file, algorithms);
+    if (hashes != null) {
+      getLogger().debug("Using cached hashes for " + file.getAbsolutePath());
+      if (copy != null) {
+        StagingFileUtils.copy(file.toPath(), copy.toPath());
+      }
+      return hashes;
+    }
+
+    // identity is captured before reading, so a file changing while it is hashed is not cached
+    FileIdentity identity = cache.identify(file);
+    hashes = computeDigest(file, copy, algorithms);
+    cache.put(identity, hashes);
+    return hashes;
+  }
+
+  /**
+   * Streams the file through a fixed size buffer that is reused for the whole file (and per thread across files), so
+   * the memory used is constant no matter how big the file is. When copying, every chunk read is written to the copy
+   * as well, so the file is read only once.
+   */
+  private static Map<HashAlgorithm, String> computeDigest(
+      final File file,
+      @Nullable final File copy,
+      final Collection<HashAlgorithm> algorithms) throws IOException
+  {
+    Map<HashAlgorithm, Hasher> hashers = new LinkedHashMap<>();
+    for (HashAlgorithm algorithm : algorithms) {
+      hashers.put(algorithm, algorithm.function().newHasher());
+    }
+
+    byte[] buffer = BUFFER.get();
+    try (InputStream in = Files.newInputStream(file.toPath());
+        OutputStream out = copy != null
+            ? Files.newOutputStream(copy.toPath(), CREATE, WRITE, TRUNCATE_EXISTING)
+            : null) {
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        if (out != null) {
+          out.write(buffer, 0, read);
+        }
+        for (Hasher hasher : hashers.values()) {
+          hasher.putBytes(buffer, 0, read);
+        }
+      }
+    }
+
+    Map<HashAlgorithm, String> hashes = new LinkedHashMap<>();
+    for (Entry<HashAlgorithm, Hasher> entry : hashers.entrySet()) {
+      hashes.put(entry.getKey(), entry.getValue().hash().toString());
+    }
+    return hashes;
+  }
+
+  private static String toNames(final Collection<HashAlgorithm> algorithms) {
+    List<String> names = new ArrayList<>();
+    for (HashAlgorithm algorithm : algorithms) {
+      names.add(algorithm.name());
+    }
+    return names.toString();
+  }
+
   private Optional<String> getExtension(String filename) {
     return Optional.ofNullable(filename)
         .filter(f -> f.contains("."))
@@ -9,6 +9,7 @@ import java.util.List;
 
 import org.sonatype.central.publisher.plugin.model.ArtifactWithFile;
 import org.sonatype.central.publisher.plugin.model.ChecksumRequest;
+import org.sonatype.central.publisher.plugin.model.PreBundleRequest;
 
 import org.apache.maven.artifact.factory.ArtifactFactory;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -31,15 +32,16 @@ public interface ProjectUtils
   void deleteGroupArtifactMavenMetadataCentralStagingXml(final MavenProject project, final Path sourceDir);
 
   /**
-   * Create checksum files for the direct files in the {@code sourceDir}. For example, if a {@code sourceDir} contains
-   * the file TEST-1.0.pom, checksum files will be created for all the requested checksums in the given
-   * {@code checksumRequest}, like TEST-1.0.pom.md5
+   * Create checksum files for the direct files in the project's directory of the {@code sourceDir}. For example, if it
+   * contains the file TEST-1.0.pom, checksum files will be created for all the requested checksums in the given
+   * {@link ChecksumRequest}, like TEST-1.0.pom.md5
    * <p>
-   * This method doesn't recursively go through child folders.
+   * This method doesn't recursively go through child folders. Files are hashed on up to
+   * {@link PreBundleRequest#getChecksumThreads()} threads, failures are collected and reported once all files have
+   * been processed. Depending on {@link PreBundleRequest#getChecksumSidecars()} existing checksum files are reused
+   * instead of being computed.
    *
-   * @param project - {@link MavenProject}
-   * @param sourceDir - {@link Path}
-   * @param checksumRequest - {@link ChecksumRequest}
+   * @param preBundleRequest - {@link PreBundleRequest}
    */
-  void createChecksumFiles(final MavenProject project, final Path sourceDir, final ChecksumRequest checksumRequest);
+  void createChecksumFiles(final PreBundleRequest preBundleRequest);
 }
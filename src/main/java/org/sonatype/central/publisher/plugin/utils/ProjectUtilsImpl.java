@@ -8,13 +8,25 @@ import java.io.File;
 import java.nio.file.FileSystems;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.sonatype.central.publisher.plugin.model.ArtifactWithFile;
-import org.sonatype.central.publisher.plugin.model.ChecksumRequest;
+import org.sonatype.central.publisher.plugin.model.ChecksumSidecars;
+import org.sonatype.central.publisher.plugin.model.PreBundleRequest;
+import org.sonatype.central.publisher.plugin.model.StagedFile;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.factory.ArtifactFactory;
 import org.apache.maven.execution.MavenSession;
@@ -24,6 +36,7 @@ import org.apache.maven.project.artifact.ProjectArtifactMetadata;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.AbstractLogEnabled;
+import org.jspecify.annotations.Nullable;
 
 import static java.util.stream.Collectors.toList;
 import static org.sonatype.central.publisher.plugin.Constants.POM_FILE_EXTENSION;
@@ -64,38 +77,288 @@ public class ProjectUtilsImpl
   }
 
   @Override
-  public void createChecksumFiles(
-      final MavenProject project,
-      final Path sourceDir,
-      final ChecksumRequest checksumRequest)
-  {
-    Path path = getProjectGroupArtifactVersionPath(project);
+  public void createChecksumFiles(final PreBundleRequest preBundleRequest) {
+    Path path = getProjectGroupArtifactVersionPath(preBundleRequest.getProject());
     getLogger().info("Generate checksums for dir: " + path.toString());
-    File gavDirectory = sourceDir.resolve(path).toFile();
+    File gavDirectory = preBundleRequest.getSourceDir().resolve(path).toFile();
 
     if (!gavDirectory.exists() || !gavDirectory.isDirectory()) {
       return;
     }
 
+    List<HashAlgorithm> algorithms = preBundleRequest.getChecksumRequest().getHashAlgorithms();
+    if (algorithms.isEmpty()) {
+      return;
+    }
+
     File[] files = gavDirectory.listFiles((dir, name) -> !name.equalsIgnoreCase(MAVEN_METADATA_CENTRAL_STAGING_XML));
 
-    if (files != null) {
-      for (File file : files) {
-        if (!hashUtils.isChecksumFile(file) && !hashUtils.isSignatureFile(file)) {
-          switch (checksumRequest) {
-            case ALL:
-              hashUtils.createChecksumFile(file, HashAlgorithm.SHA256);
-              hashUtils.createChecksumFile(file, HashAlgorithm.SHA512);
-            case REQUIRED:
-              hashUtils.createChecksumFile(file, HashAlgorithm.MD5);
-              hashUtils.createChecksumFile(file, HashAlgorithm.SHA1);
-              break;
-            case NONE:
-            default:
-              break;
+    if (files == null) {
+      return;
+    }
+
+    // the file to read per file to hash, which is not the file itself for files that were staged virtually
+    Map<File, File> contentFiles = new LinkedHashMap<>();
+    for (File file : files) {
+      if (!hashUtils.isChecksumFile(file) && !hashUtils.isSignatureFile(file)) {
+        contentFiles.put(file, file);
+      }
+    }
+
+    // by staged path, artifacts of other GAVs may have the same file name
+    Map<Path, StagedFile> stagedFiles = new HashMap<>();
+    Path gavPath = gavDirectory.toPath().toAbsolutePath().normalize();
+    for (StagedFile stagedFile : preBundleRequest.getStagedFiles()) {
+      stagedFiles.put(stagedPath(stagedFile.getStagedFile()), stagedFile);
+
+      File sourceFile = stagedFile.getSourceFile();
+      if (stagedFile.isVirtual()
+          && gavPath.equals(stagedFile.getStagedFile().toPath().toAbsolutePath().normalize().getParent())
+          && !hashUtils.isChecksumFile(sourceFile) && !hashUtils.isSignatureFile(sourceFile)) {
+        contentFiles.put(stagedFile.getStagedFile(), sourceFile);
+      }
+    }
+
+    // hashes computed while staging the files need no further read
+    Map<File, Map<HashAlgorithm, String>> knownHashes = new LinkedHashMap<>();
+    for (File file : contentFiles.keySet()) {
+      StagedFile stagedFile = stagedFiles.get(stagedPath(file));
+      Map<HashAlgorithm, String> hashes = new LinkedHashMap<>();
+      if (stagedFile != null) {
+        for (HashAlgorithm algorithm : algorithms) {
+          String hash = stagedFile.getHashes().get(algorithm);
+          if (hash != null) {
+            hashes.put(algorithm, hash);
+          }
+        }
+      }
+      knownHashes.put(file, hashes);
+    }
+
+    if (preBundleRequest.getChecksumSidecars() != ChecksumSidecars.NONE) {
+      addExistingHashes(knownHashes, algorithms, stagedFiles, contentFiles,
+          preBundleRequest.getChecksumSidecars() == ChecksumSidecars.VERIFY, preBundleRequest.getChecksumCache());
+    }
+
+    Map<File, List<HashAlgorithm>> algorithmsToCompute = writeKnownHashes(knownHashes, algorithms);
+    algorithmsToCompute.values().removeIf(List::isEmpty);
+
+    ChecksumCache checksumCache = preBundleRequest.getChecksumCache();
+    List<File> failedFiles;
+    if (preBundleRequest.getChecksumThreads() <= 1 || algorithmsToCompute.size() <= 1) {
+      failedFiles = createChecksumFilesSequentially(algorithmsToCompute, contentFiles, checksumCache);
+    }
+    else {
+      failedFiles = createChecksumFilesInParallel(algorithmsToCompute, contentFiles,
+          preBundleRequest.getChecksumThreads(), checksumCache);
+    }
+
+    if (!failedFiles.isEmpty()) {
+      throw new RuntimeException("Failed to generate checksums for: " + failedFiles);
+    }
+  }
+
+  /**
+   * Add the hashes of the well formed checksum files that already exist for the given staged files, either next to the
+   * staged file itself or next to the file it was staged from, for the algorithms that have no known hash yet.
+   */
+  private void addExistingHashes(
+      final Map<File, Map<HashAlgorithm, String>> knownHashes,
+      final List<HashAlgorithm> algorithms,
+      final Map<Path, StagedFile> stagedFiles,
+      final Map<File, File> contentFiles,
+      final boolean verify,
+      @Nullable final ChecksumCache checksumCache)
+  {
+    Map<File, Map<HashAlgorithm, String>> existingHashes = new LinkedHashMap<>();
+    for (Entry<File, Map<HashAlgorithm, String>> entry : knownHashes.entrySet()) {
+      File file = entry.getKey();
+      StagedFile stagedFile = stagedFiles.get(stagedPath(file));
+      Map<HashAlgorithm, String> hashes = new LinkedHashMap<>();
+      for (HashAlgorithm algorithm : algorithms) {
+        if (entry.getValue().containsKey(algorithm)) {
+          continue;
+        }
+        String hash = readFreshChecksumFile(file, contentFiles.get(file), algorithm);
+        if (hash == null && stagedFile != null) {
+          hash = readFreshChecksumFile(stagedFile.getSourceFile(), stagedFile.getSourceFile(), algorithm);
+        }
+        if (hash != null) {
+          hashes.put(algorithm, hash);
+        }
+      }
+      existingHashes.put(file, hashes);
+    }
+
+    if (verify && !verifyExistingHashes(existingHashes, contentFiles, checksumCache)) {
+      return;
+    }
+
+    int reused = 0;
+    for (Entry<File, Map<HashAlgorithm, String>> entry : existingHashes.entrySet()) {
+      knownHashes.get(entry.getKey()).putAll(entry.getValue());
+      reused += entry.getValue().size();
+    }
+    getLogger().info("Reused " + reused + " existing checksums");
+  }
+
+  private static Path stagedPath(final File file) {
+    return file.toPath().toAbsolutePath().normalize();
+  }
+
+  /**
+   * Read the checksum file of a given file, unless it is older than the content it should be the checksum of, e.g. left
+   * over next to a build output by an earlier build.
+   *
+   * @param file - {@link File} the checksum file belongs to
+   * @param contentFile - {@link File} holding the content of {@code file}, the file itself unless staged virtually
+   * @return the hash, or null if there is no fresh and well formed checksum file.
+   */
+  @Nullable
+  private String readFreshChecksumFile(final File file, final File contentFile, final HashAlgorithm algorithm) {
+    File checksumFile = new File(file.getParentFile(), file.getName() + "." + algorithm.name());
+    if (checksumFile.lastModified() < contentFile.lastModified()) {
+      getLogger().debug("Ignoring checksum file older than its file " + checksumFile.getAbsolutePath());
+      return null;
+    }
+    return hashUtils.readChecksumFile(file, algorithm);
+  }
+
+  /**
+   * Spot-check existing checksums by hashing one randomly picked file that has any.
+   *
+   * @return true if the existing checksums of the picked file match, or there are none.
+   */
+  private boolean verifyExistingHashes(
+      final Map<File, Map<HashAlgorithm, String>> existingHashes,
+      final Map<File, File> contentFiles,
+      @Nullable final ChecksumCache checksumCache)
+  {
+    List<File> candidates = existingHashes
+        .entrySet()
+        .stream()
+        .filter(entry -> !entry.getValue().isEmpty())
+        .map(Entry::getKey)
+        .collect(toList());
+    if (candidates.isEmpty()) {
+      return true;
+    }
+
+    File file = candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+    Map<HashAlgorithm, String> expected = existingHashes.get(file);
+    Map<HashAlgorithm, String> actual = hashUtils.hash(contentFiles.get(file), expected.keySet(), checksumCache);
+    if (!expected.equals(actual)) {
+      getLogger().warn("Existing checksums of " + file.getAbsolutePath()
+          + " do not match its content, ignoring all existing checksums of this module");
+      return false;
+    }
+
+    getLogger().debug("Verified existing checksums of " + file.getAbsolutePath());
+    return true;
+  }
+
+  /**
+   * Write the checksum files of all known hashes.
+   *
+   * @return the {@link HashAlgorithm}s that still need to be computed, per file.
+   */
+  private Map<File, List<HashAlgorithm>> writeKnownHashes(
+      final Map<File, Map<HashAlgorithm, String>> knownHashes,
+      final List<HashAlgorithm> algorithms)
+  {
+    Map<File, List<HashAlgorithm>> algorithmsToCompute = new LinkedHashMap<>();
+    for (Entry<File, Map<HashAlgorithm, String>> entry : knownHashes.entrySet()) {
+      List<HashAlgorithm> missing = new ArrayList<>();
+      for (HashAlgorithm algorithm : algorithms) {
+        String hash = entry.getValue().get(algorithm);
+        if (hash == null || hashUtils.writeChecksumFile(entry.getKey(), algorithm, hash) == null) {
+          missing.add(algorithm);
+        }
+      }
+      algorithmsToCompute.put(entry.getKey(), missing);
+    }
+    return algorithmsToCompute;
+  }
+
+  /**
+   * Create the checksum files of {@code file} from the content of {@code contentFile}, reading it only once.
+   */
+  private List<File> createChecksumFiles(
+      final File file,
+      final File contentFile,
+      final List<HashAlgorithm> algorithms,
+      @Nullable final ChecksumCache checksumCache)
+  {
+    if (file.equals(contentFile)) {
+      return hashUtils.createChecksumFiles(file, algorithms, checksumCache);
+    }
+
+    List<File> hashFiles = new ArrayList<>();
+    for (Entry<HashAlgorithm, String> entry : hashUtils.hash(contentFile, algorithms, checksumCache).entrySet()) {
+      File hashFile = hashUtils.writeChecksumFile(file, entry.getKey(), entry.getValue());
+      if (hashFile != null) {
+        hashFiles.add(hashFile);
+      }
+    }
+    return hashFiles;
+  }
+
+  private List<File> createChecksumFilesSequentially(
+      final Map<File, List<HashAlgorithm>> algorithmsToCompute,
+      final Map<File, File> contentFiles,
+      @Nullable final ChecksumCache checksumCache)
+  {
+    List<File> failedFiles = new ArrayList<>();
+    for (Entry<File, List<HashAlgorithm>> entry : algorithmsToCompute.entrySet()) {
+      // single read per file, all requested checksums are computed from it
+      List<File> hashFiles =
+          createChecksumFiles(entry.getKey(), contentFiles.get(entry.getKey()), entry.getValue(), checksumCache);
+      if (hashFiles.size() != entry.getValue().size()) {
+        failedFiles.add(entry.getKey());
+      }
+    }
+    return failedFiles;
+  }
+
+  private List<File> createChecksumFilesInParallel(
+      final Map<File, List<HashAlgorithm>> algorithmsToCompute,
+      final Map<File, File> contentFiles,
+      final int checksumThreads,
+      @Nullable final ChecksumCache checksumCache)
+  {
+    int threads = Math.min(checksumThreads, algorithmsToCompute.size());
+    getLogger().debug("Generating checksums for " + algorithmsToCompute.size() + " files on " + threads + " threads");
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads,
+        new ThreadFactoryBuilder().setNameFormat("central-checksum-%d").setDaemon(true).build());
+    try {
+      Map<File, Future<List<File>>> results = new LinkedHashMap<>();
+      for (Entry<File, List<HashAlgorithm>> entry : algorithmsToCompute.entrySet()) {
+        results.put(entry.getKey(),
+            executor.submit(() -> createChecksumFiles(entry.getKey(), contentFiles.get(entry.getKey()),
+                entry.getValue(), checksumCache)));
+      }
+
+      List<File> failedFiles = new ArrayList<>();
+      for (Entry<File, Future<List<File>>> result : results.entrySet()) {
+        try {
+          if (result.getValue().get().size() != algorithmsToCompute.get(result.getKey()).size()) {
+            failedFiles.add(result.getKey());
           }
         }
+        catch (ExecutionException e) {
+          getLogger().error("Failed to generate checksums for " + result.getKey().getAbsolutePath(), e.getCause());
+          failedFiles.add(result.getKey());
+        }
       }
+      return failedFiles;
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while generating checksums", e);
+    }
+    finally {
+      executor.shutdownNow();
     }
   }
 
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+package org.sonatype.central.publisher.plugin.utils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Puts files into the staging and deferred directories.
+ */
+public class StagingFileUtils
+{
+  /**
+   * Hard link a file, replacing the link target if it exists. Linking fails when the file system does not support hard
+   * links, or when the file and the link would be on different file systems.
+   *
+   * @param source - {@link Path} of the existing file
+   * @param target - {@link Path} of the link to create, its parent directory must exist
+   * @return true if the link was created, false if the file has to be copied instead.
+   */
+  public static boolean link(final Path source, final Path target) {
+    try {
+      Files.deleteIfExists(target);
+      Files.createLink(target, source.toRealPath());
+      return true;
+    }
+    catch (IOException | UnsupportedOperationException | SecurityException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Copy a file with {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}, which lets the
+   * operating system move the bytes without passing them through a buffer of the JVM where it can. The target is
+   * replaced if it exists.
+   *
+   * @param source - {@link Path} of the file to copy
+   * @param target - {@link Path} to copy to, its parent directory must exist
+   * @throws IOException if the file cannot be read or the copy cannot be written.
+   */
+  public static void copy(final Path source, final Path target) throws IOException {
+    try (FileChannel in = FileChannel.open(source, READ);
+        FileChannel out = FileChannel.open(target, CREATE, WRITE, TRUNCATE_EXISTING)) {
+      long size = in.size();
+      long position = 0;
+      while (position < size) {
+        position += in.transferTo(position, size - position, out);
+      }
+    }
+  }
+
+  /**
+   * Hard link a file, or copy it when it cannot be linked.
+   *
+   * @param source - {@link Path} of the existing file
+   * @param target - {@link Path} of the link or copy, its parent directory must exist
+   * @return true if the file was linked, false if it was copied.
+   * @throws IOException if the file cannot be copied.
+   * @see #link(Path, Path)
+   * @see #copy(Path, Path)
+   */
+  public static boolean linkOrCopy(final Path source, final Path target) throws IOException {
+    if (link(source, target)) {
+      return true;
+    }
+    copy(source, target);
+    return false;
+  }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+
+package org.sonatype.central.publisher.plugin.watcher;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jspecify.annotations.Nullable;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * The deployments uploaded by the builds, by the hash of the content they were uploaded from, and every state they were
+ * seen in, so that a build that died before its deployment reached its state can be run again and continue watching
+ * the deployment instead of uploading the same content again.
+ * <p>
+ * Every change is appended to a text file as a line of its own, and written to the disk before returning, so that the
+ * journal survives the build being killed: a line that was not fully written is ignored when reading. Entries older
+ * than {@link #MAX_AGE_MILLIS} are dropped when the journal is {@link #compact() compacted}.
+ */
+public class DeploymentJournal
+{
+  public static final String FILE_NAME = "deployments.journal";
+
+  /**
+   * The state of a deployment once uploaded, before any status of it was received.
+   */
+  public static final String UPLOADED = "UPLOADED";
+
+  /**
+   * The state of a deployment dropped by the build once validated.
+   */
+  public static final String DROPPED = "DROPPED";
+
+  private static final long MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(30);
+
+  private static final String SEPARATOR = "\t";
+
+  // the deployments of a build may be recorded from several threads
+  private static final Object LOCK = new Object();
+
+  private final Path file;
+
+  public DeploymentJournal(final Path directory) {
+    this.file = directory.resolve(FILE_NAME);
+  }
+
+  public Path getFile() {
+    return file;
+  }
+
+  /**
+   * Record a state of a deployment.
+   *
+   * @param contentHash - the hash of the content the deployment was uploaded from
+   * @param deploymentName - the name of the deployment, that tells apart the deployments of the same content
+   * @param deploymentId - the id of the deployment
+   * @param state - {@link #UPLOADED}, {@link #DROPPED} or the name of a deployment state
+   */
+  public void record(
+      final String contentHash,
+      final String deploymentName,
+      final String deploymentId,
+      final String state) throws IOException
+  {
+    String line = toLine(new Entry(Instant.now(), contentHash, deploymentName, deploymentId, state));
+    synchronized (LOCK) {
+      Files.createDirectories(file.getParent());
+      // a line not fully written by a killed build is terminated, so that it does not swallow this one
+      String lines = endsWithNewLine() ? line : "\n" + line;
+      try (FileChannel channel = FileChannel.open(file, CREATE, WRITE, APPEND)) {
+        ByteBuffer buffer = ByteBuffer.wrap(lines.getBytes(UTF_8));
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+        channel.force(false);
+      }
+    }
+  }
+
+  private boolean endsWithNewLine() throws IOException {
+    try (FileChannel channel = FileChannel.open(file, READ)) {
+      long size = channel.size();
+      if (size == 0) {
+        return true;
+      }
+      ByteBuffer last = ByteBuffer.allocate(1);
+      channel.read(last, size - 1);
+      return last.get(0) == '\n';
+    }
+    catch (NoSuchFileException ignore) {
+      return true;
+    }
+  }
+
+  /**
+   * @return the last recorded entry of the deployment of the given content and name, or null if there is none.
+   */
+  @Nullable
+  public Entry find(final String contentHash, final String deploymentName) throws IOException {
+    Entry found = null;
+    for (Entry entry : read()) {
+      if (entry.getContentHash().equals(contentHash) && entry.getDeploymentName().equals(sanitize(deploymentName))) {
+        found = entry;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Drop the entries older than {@link #MAX_AGE_MILLIS}, if any, replacing the journal atomically.
+   */
+  public void compact() throws IOException {
+    synchronized (LOCK) {
+      List<Entry> entries = read();
+      Instant oldest = Instant.now().minusMillis(MAX_AGE_MILLIS);
+      List<Entry> recentEntries = new ArrayList<>();
+      for (Entry entry : entries) {
+        if (entry.getTimestamp().isAfter(oldest)) {
+          recentEntries.add(entry);
+        }
+      }
+      if (recentEntries.size() == entries.size()) {
+        return;
+      }
+
+      Path tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+      try {
+        try (Writer writer = Files.newBufferedWriter(tempFile, UTF_8)) {
+          for (Entry entry : recentEntries) {
+            writer.write(toLine(entry));
+          }
+        }
+        try {
+          Files.move(tempFile, file, ATOMIC_MOVE, REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException e) {
+          Files.move(tempFile, file, REPLACE_EXISTING);
+        }
+      }
+      finally {
+        Files.deleteIfExists(tempFile);
+      }
+    }
+  }
+
+  private List<Entry> read() throws IOException {
+    List<Entry> entries = new ArrayList<>();
+    String content;
+    try {
+      content = new String(Files.readAllBytes(file), UTF_8);
+    }
+    catch (NoSuchFileException ignore) {
+      return entries;
+    }
+
+    // a last line without line separator was not fully written
+    int end = content.lastIndexOf('\n');
+    try (BufferedReader reader = new BufferedReader(new StringReader(content.substring(0, end + 1)))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        Entry entry = fromLine(line);
+        if (entry != null) {
+          entries.add(entry);
+        }
+      }
+    }
+    return entries;
+  }
+
+  private static String toLine(final Entry entry) {
+    return entry.getTimestamp().toEpochMilli()
+        + SEPARATOR + sanitize(entry.getContentHash())
+        + SEPARATOR + sanitize(entry.getDeploymentName())
+        + SEPARATOR + sanitize(entry.getDeploymentId())
+        + SEPARATOR + sanitize(entry.getState())
+        + "\n";
+  }
+
+  @Nullable
+  private static Entry fromLine(final String line) {
+    String[] fields = line.split(SEPARATOR, -1);
+    if (fields.length != 5) {
+      return null;
+    }
+    try {
+      return new Entry(Instant.ofEpochMilli(Long.parseLong(fields[0])), fields[1], fields[2], fields[3], fields[4]);
+    }
+    catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static String sanitize(final String value) {
+    return value.replaceAll("[\t\r\n]", " ");
+  }
+
+  /**
+   * A recorded state of a deployment.
+   */
+  public static final class Entry
+  {
+    private final Instant timestamp;
+
+    private final String contentHash;
+
+    private final String deploymentName;
+
+    private final String deploymentId;
+
+    private final String state;
+
+    private Entry(
+        final Instant timestamp,
+        final String contentHash,
+        final String deploymentName,
+        final String deploymentId,
+        final String state)
+    {
+      this.timestamp = timestamp;
+      this.contentHash = contentHash;
+      this.deploymentName = deploymentName;
+      this.deploymentId = deploymentId;
+      this.state = state;
+    }
+
+    public Instant getTimestamp() {
+      return timestamp;
+    }
+
+    public String getContentHash() {
+      return contentHash;
+    }
+
+    public String getDeploymentName() {
+      return deploymentName;
+    }
+
+    public String getDeploymentId() {
+      return deploymentId;
+    }
+
+    public String getState() {
+      return state;
+    }
+  }
+}
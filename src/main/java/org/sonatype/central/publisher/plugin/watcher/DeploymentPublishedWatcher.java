@@ -5,9 +5,35 @@
 
 package org.sonatype.central.publisher.plugin.watcher;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.sonatype.central.publisher.client.model.DeploymentApiResponse;
 import org.sonatype.central.publisher.plugin.model.WaitForDeploymentStateRequest;
 
 public interface DeploymentPublishedWatcher
 {
   void waitForDeploymentState(WaitForDeploymentStateRequest waitForDeploymentStateRequest);
+
+  /**
+   * Start watching several deployments at the same time, on a single scheduler shared by all of them.
+   *
+   * @return a future per deployment id, completed with the last status once the deployment reached its state, or
+   * completed exceptionally once it failed or timed out.
+   */
+  Map<String, CompletableFuture<DeploymentApiResponse>> watchDeploymentStates(
+      List<WaitForDeploymentStateRequest> waitForDeploymentStateRequests);
+
+  /**
+   * Wait until all the watched deployments reached their state. Fails as soon as any of them fails or times out, the
+   * other deployments are no longer watched then.
+   */
+  void waitForDeploymentStates(Map<String, CompletableFuture<DeploymentApiResponse>> deployments);
+
+  /**
+   * Wait until every watched deployment reached its state, failed or timed out, whatever the other deployments did.
+   * The outcome of each deployment is left in its future.
+   */
+  void waitForAllDeploymentStates(Map<String, CompletableFuture<DeploymentApiResponse>> deployments);
 }
@@ -7,8 +7,15 @@ package org.sonatype.central.publisher.plugin.watcher;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.sonatype.central.publisher.client.PublisherClient;
 import org.sonatype.central.publisher.client.model.DeploymentApiResponse;
@@ -19,12 +26,15 @@ import org.sonatype.central.publisher.plugin.model.WaitForDeploymentStateRequest
 import org.sonatype.central.publisher.plugin.model.WaitUntilRequest;
 import org.sonatype.central.publisher.plugin.utils.PurlUtils;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.AbstractLogEnabled;
+import org.jspecify.annotations.Nullable;
 
 import static java.lang.String.format;
-import static java.time.temporal.ChronoUnit.SECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 @Component(role = DeploymentPublishedWatcher.class)
 public class DeploymentPublishedWatcherImpl
@@ -37,6 +47,10 @@ public class DeploymentPublishedWatcherImpl
   @Requirement
   private PurlUtils purlUtils;
 
+  // shared by all the deployments watched at the same time, created on first use
+  @Nullable
+  private ScheduledExecutorService scheduler;
+
   @SuppressWarnings("unused") // used via reflection by Plexus
   public DeploymentPublishedWatcherImpl() {
   }
@@ -48,54 +62,41 @@ public class DeploymentPublishedWatcherImpl
 
   @Override
   public void waitForDeploymentState(WaitForDeploymentStateRequest waitForDeploymentStateRequest) {
-    Instant start = Instant.now();
+    Instant deadline = Instant.now().plusSeconds(waitForDeploymentStateRequest.getWaitMaxTimeInSeconds());
+    PollSchedule pollSchedule = new PollSchedule(
+        SECONDS.toMillis(waitForDeploymentStateRequest.getWaitPollingIntervalInSeconds()),
+        SECONDS.toMillis(waitForDeploymentStateRequest.getWaitMaxPollingIntervalInSeconds()));
 
     String deploymentId = waitForDeploymentStateRequest.getDeploymentId();
-    WaitUntilRequest waitUntilRequest = waitForDeploymentStateRequest.getWaitUntilRequest();
     DeploymentApiResponse status = null;
 
     getLogger().info(format(
         "Waiting until Deployment %s is %s", deploymentId, waitForDeploymentStateRequest.waitTypeName()));
 
     try {
-      while (Duration.between(start, Instant.now()).get(SECONDS) < waitForDeploymentStateRequest
-          .getWaitMaxTimeInSeconds()) {
-
-        // convert to milliseconds
-        Integer interval = waitForDeploymentStateRequest.getWaitPollingIntervalInSeconds() * 1000;
-
-        Thread.sleep(interval.longValue());
-
+      while (true) {
         getLogger().debug("Requesting status for Deployment " + deploymentId);
 
+        DeploymentState previousState = status != null ? status.getDeploymentState() : null;
         status = publisherClient.status(deploymentId);
         DeploymentState deploymentState = status.getDeploymentState();
+        if (deploymentState != previousState) {
+          waitForDeploymentStateRequest.getStateListener().stateChanged(deploymentId, deploymentState);
+        }
 
         getLogger().debug(format("Deployment %s in state: %s", deploymentId, deploymentState.name().toLowerCase()));
 
-        switch (deploymentState) {
-          case PENDING:
-          case VALIDATING:
-            if (waitUntilRequest == WaitUntilRequest.UPLOADED) {
-              outputWhereToFinishPublishing(waitForDeploymentStateRequest, deploymentId);
-              return;
-            }
-            break;
-          case VALIDATED:
-          case PUBLISHING:
-            if (waitUntilRequest == WaitUntilRequest.UPLOADED || waitUntilRequest == WaitUntilRequest.VALIDATED) {
-              outputWarnings(status);
-              outputWhereToFinishPublishing(waitForDeploymentStateRequest, deploymentId);
-              return;
-            }
-            break;
-          case PUBLISHED:
-            outputPublished(status);
-            return;
-          case FAILED:
-            outputError(status);
-            return;
+        if (isStateReached(waitForDeploymentStateRequest, status)) {
+          return;
+        }
+
+        long remainingMillis = Duration.between(Instant.now(), deadline).toMillis();
+        if (remainingMillis <= 0) {
+          break;
         }
+        long delayMillis = Math.min(pollSchedule.nextDelayMillis(deploymentState), remainingMillis);
+        getLogger().debug(format("Checking Deployment %s again in %d ms", deploymentId, delayMillis));
+        Thread.sleep(delayMillis);
       }
     }
     catch (InterruptedException e) {
@@ -106,6 +107,125 @@ public class DeploymentPublishedWatcherImpl
     outputTimeout(deploymentId, status);
   }
 
+  @Override
+  public Map<String, CompletableFuture<DeploymentApiResponse>> watchDeploymentStates(
+      final List<WaitForDeploymentStateRequest> waitForDeploymentStateRequests)
+  {
+    Map<String, CompletableFuture<DeploymentApiResponse>> deployments = new LinkedHashMap<>();
+    for (WaitForDeploymentStateRequest waitForDeploymentStateRequest : waitForDeploymentStateRequests) {
+      getLogger().info(format("Waiting until Deployment %s is %s", waitForDeploymentStateRequest.getDeploymentId(),
+          waitForDeploymentStateRequest.waitTypeName()));
+
+      DeploymentWatch deploymentWatch = new DeploymentWatch(waitForDeploymentStateRequest);
+      deployments.put(waitForDeploymentStateRequest.getDeploymentId(), deploymentWatch.result);
+      scheduler().execute(deploymentWatch::poll);
+    }
+    return deployments;
+  }
+
+  @Override
+  public void waitForDeploymentStates(final Map<String, CompletableFuture<DeploymentApiResponse>> deployments) {
+    CompletableFuture<?>[] futures = deployments.values().toArray(new CompletableFuture<?>[0]);
+    CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+    for (CompletableFuture<?> future : futures) {
+      future.whenComplete((status, failure) -> {
+        if (failure != null) {
+          firstFailure.completeExceptionally(failure);
+        }
+      });
+    }
+
+    try {
+      CompletableFuture.anyOf(CompletableFuture.allOf(futures), firstFailure).get();
+    }
+    catch (ExecutionException e) {
+      Throwable cause = unwrap(e);
+      throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for the deployments", e);
+    }
+    finally {
+      // stops watching the deployments that are not done yet
+      for (CompletableFuture<?> future : futures) {
+        future.cancel(false);
+      }
+    }
+  }
+
+  @Override
+  public void waitForAllDeploymentStates(final Map<String, CompletableFuture<DeploymentApiResponse>> deployments) {
+    CompletableFuture<?>[] futures = deployments.values().toArray(new CompletableFuture<?>[0]);
+    try {
+      // completes once all futures are done, exceptionally if any failed
+      CompletableFuture.allOf(futures).handle((ignore, failure) -> null).get();
+    }
+    catch (ExecutionException e) {
+      throw new IllegalStateException(e);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      for (CompletableFuture<?> future : futures) {
+        future.cancel(false);
+      }
+      throw new IllegalStateException("Interrupted while waiting for the deployments", e);
+    }
+  }
+
+  private synchronized ScheduledExecutorService scheduler() {
+    if (scheduler == null) {
+      scheduler = Executors.newSingleThreadScheduledExecutor(
+          new ThreadFactoryBuilder().setNameFormat("central-watcher-%d").setDaemon(true).build());
+    }
+    return scheduler;
+  }
+
+  private static Throwable unwrap(final Throwable failure) {
+    Throwable cause = failure;
+    while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+      cause = cause.getCause();
+    }
+    return cause;
+  }
+
+  /**
+   * @return whether the deployment reached the state to wait for, once reported.
+   * @throws DeploymentPublishFailedException if the deployment failed
+   */
+  private boolean isStateReached(
+      final WaitForDeploymentStateRequest waitForDeploymentStateRequest,
+      final DeploymentApiResponse status)
+  {
+    String deploymentId = waitForDeploymentStateRequest.getDeploymentId();
+    WaitUntilRequest waitUntilRequest = waitForDeploymentStateRequest.getWaitUntilRequest();
+
+    switch (status.getDeploymentState()) {
+      case PENDING:
+      case VALIDATING:
+        if (waitUntilRequest == WaitUntilRequest.UPLOADED) {
+          outputWhereToFinishPublishing(waitForDeploymentStateRequest, deploymentId);
+          return true;
+        }
+        break;
+      case VALIDATED:
+      case PUBLISHING:
+        if (waitUntilRequest == WaitUntilRequest.UPLOADED || waitUntilRequest == WaitUntilRequest.VALIDATED) {
+          outputWarnings(status);
+          outputWhereToFinishPublishing(waitForDeploymentStateRequest, deploymentId);
+          return true;
+        }
+        break;
+      case PUBLISHED:
+        outputPublished(status);
+        return true;
+      case FAILED:
+        outputError(status);
+        return true;
+    }
+    return false;
+  }
+
   private void outputWarnings(final DeploymentApiResponse status) {
     status.getWarnings().forEach(msg -> getLogger().warn(msg));
   }
@@ -170,4 +290,80 @@ public class DeploymentPublishedWatcherImpl
         waitForDeploymentStateRequest.waitTypeName(),
         waitForDeploymentStateRequest.getCentralBaseUrl()));
   }
+
+  /**
+   * Watches one of the deployments watched at the same time: every check is sent asynchronously, and the next one is
+   * scheduled once the status is received, so that no thread waits for a deployment.
+   */
+  private class DeploymentWatch
+  {
+    private final WaitForDeploymentStateRequest waitForDeploymentStateRequest;
+
+    private final Instant deadline;
+
+    private final PollSchedule pollSchedule;
+
+    private final CompletableFuture<DeploymentApiResponse> result = new CompletableFuture<>();
+
+    @Nullable
+    private DeploymentState lastState;
+
+    private DeploymentWatch(final WaitForDeploymentStateRequest waitForDeploymentStateRequest) {
+      this.waitForDeploymentStateRequest = waitForDeploymentStateRequest;
+      this.deadline = Instant.now().plusSeconds(waitForDeploymentStateRequest.getWaitMaxTimeInSeconds());
+      this.pollSchedule = new PollSchedule(
+          SECONDS.toMillis(waitForDeploymentStateRequest.getWaitPollingIntervalInSeconds()),
+          SECONDS.toMillis(waitForDeploymentStateRequest.getWaitMaxPollingIntervalInSeconds()));
+    }
+
+    private void poll() {
+      if (result.isDone()) {
+        return;
+      }
+      String deploymentId = waitForDeploymentStateRequest.getDeploymentId();
+      getLogger().debug("Requesting status for Deployment " + deploymentId);
+      try {
+        publisherClient.statusAsync(deploymentId).whenCompleteAsync(this::statusReceived, scheduler());
+      }
+      catch (RuntimeException e) {
+        result.completeExceptionally(e);
+      }
+    }
+
+    private void statusReceived(@Nullable final DeploymentApiResponse status, @Nullable final Throwable failure) {
+      if (result.isDone()) {
+        return;
+      }
+      if (failure != null || status == null) {
+        result.completeExceptionally(failure != null ? unwrap(failure) : new IllegalStateException("No status"));
+        return;
+      }
+
+      String deploymentId = waitForDeploymentStateRequest.getDeploymentId();
+      DeploymentState deploymentState = status.getDeploymentState();
+      getLogger().debug(format("Deployment %s in state: %s", deploymentId, deploymentState.name().toLowerCase()));
+
+      try {
+        if (deploymentState != lastState) {
+          lastState = deploymentState;
+          waitForDeploymentStateRequest.getStateListener().stateChanged(deploymentId, deploymentState);
+        }
+        if (isStateReached(waitForDeploymentStateRequest, status)) {
+          result.complete(status);
+          return;
+        }
+
+        long remainingMillis = Duration.between(Instant.now(), deadline).toMillis();
+        if (remainingMillis <= 0) {
+          outputTimeout(deploymentId, status);
+        }
+        long delayMillis = Math.min(pollSchedule.nextDelayMillis(deploymentState), remainingMillis);
+        getLogger().debug(format("Checking Deployment %s again in %d ms", deploymentId, delayMillis));
+        scheduler().schedule(this::poll, delayMillis, MILLISECONDS);
+      }
+      catch (RuntimeException e) {
+        result.completeExceptionally(e);
+      }
+    }
+  }
 }
@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+
+package org.sonatype.central.publisher.plugin.watcher;
+
+import org.sonatype.central.publisher.client.model.DeploymentState;
+
+/**
+ * Notified of the states a watched deployment goes through, e.g. to record them.
+ */
+public interface DeploymentStateListener
+{
+  DeploymentStateListener NONE = (deploymentId, state) -> {
+  };
+
+  /**
+   * Called when a status of the deployment is received in another state than the previous one, including the first.
+   */
+  void stateChanged(String deploymentId, DeploymentState state);
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+
+package org.sonatype.central.publisher.plugin.watcher;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.sonatype.central.publisher.plugin.model.WaitUntilRequest;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * The deployments uploaded without waiting for their state, and the state to wait for, so that the {@code watch} goal
+ * can wait for them later, in another build. Kept in a properties file of deployment ids, that is replaced atomically
+ * on every change.
+ */
+public class PendingDeployments
+{
+  public static final String FILE_NAME = "pending-deployments.properties";
+
+  // the deployments of a build may be recorded from several threads
+  private static final Object LOCK = new Object();
+
+  private final Path file;
+
+  public PendingDeployments(final Path directory) {
+    this.file = directory.resolve(FILE_NAME);
+  }
+
+  public Path getFile() {
+    return file;
+  }
+
+  /**
+   * @return the pending deployment ids, with the state to wait for.
+   */
+  public Map<String, WaitUntilRequest> load() throws IOException {
+    synchronized (LOCK) {
+      Map<String, WaitUntilRequest> deployments = new TreeMap<>();
+      for (Map.Entry<Object, Object> entry : read().entrySet()) {
+        String waitUntil = entry.getValue().toString();
+        if (WaitUntilRequest.isValidValue(waitUntil)) {
+          deployments.put(entry.getKey().toString(), WaitUntilRequest.valueOf(waitUntil.toUpperCase()));
+        }
+      }
+      return deployments;
+    }
+  }
+
+  public void add(final String deploymentId, final WaitUntilRequest waitUntilRequest) throws IOException {
+    synchronized (LOCK) {
+      Properties properties = read();
+      properties.setProperty(deploymentId, waitUntilRequest.name());
+      write(properties);
+    }
+  }
+
+  public void remove(final String deploymentId) throws IOException {
+    synchronized (LOCK) {
+      Properties properties = read();
+      if (properties.remove(deploymentId) != null) {
+        write(properties);
+      }
+    }
+  }
+
+  private Properties read() throws IOException {
+    Properties properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(file, UTF_8)) {
+      properties.load(reader);
+    }
+    catch (NoSuchFileException ignore) {
+      // nothing pending
+    }
+    return properties;
+  }
+
+  private void write(final Properties properties) throws IOException {
+    Files.createDirectories(file.getParent());
+    Path tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+    try {
+      try (Writer writer = Files.newBufferedWriter(tempFile, UTF_8)) {
+        properties.store(writer, null);
+      }
+      try {
+        Files.move(tempFile, file, ATOMIC_MOVE, REPLACE_EXISTING);
+      }
+      catch (AtomicMoveNotSupportedException e) {
+        Files.move(tempFile, file, REPLACE_EXISTING);
+      }
+    }
+    finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+
+package org.sonatype.central.publisher.plugin.watcher;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.sonatype.central.publisher.client.model.DeploymentState;
+
+/**
+ * Decides how long to wait before checking the state of a deployment again. A deployment that is still pending or
+ * validating is checked every {@code minIntervalMillis}, to report a failed validation quickly. Publishing takes much
+ * longer, so the interval is then doubled after every check up to {@code maxIntervalMillis}, with a jitter that keeps
+ * many builds from checking at the same time.
+ */
+class PollSchedule
+{
+  private final long minIntervalMillis;
+
+  private final long maxIntervalMillis;
+
+  private int backoffs;
+
+  PollSchedule(final long minIntervalMillis, final long maxIntervalMillis) {
+    this.minIntervalMillis = minIntervalMillis;
+    this.maxIntervalMillis = Math.max(minIntervalMillis, maxIntervalMillis);
+  }
+
+  /**
+   * @return the delay before the next check of a deployment found in the given state.
+   */
+  long nextDelayMillis(final DeploymentState state) {
+    if (state != DeploymentState.VALIDATED && state != DeploymentState.PUBLISHING) {
+      backoffs = 0;
+      return minIntervalMillis;
+    }
+
+    long ceiling = Math.min(maxIntervalMillis, minIntervalMillis << Math.min(backoffs, 20));
+    if (ceiling < maxIntervalMillis) {
+      backoffs++;
+    }
+    // equal jitter: half of the interval is random, but never below the minimum interval
+    long jitter = ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    return Math.max(minIntervalMillis, ceiling - jitter);
+  }
+}
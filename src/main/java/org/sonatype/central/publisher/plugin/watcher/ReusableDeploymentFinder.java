@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2022-present Sonatype, Inc. All rights reserved.
+ * "Sonatype" is a trademark of Sonatype, Inc.
+ */
+
+package org.sonatype.central.publisher.plugin.watcher;
+
+import java.io.IOException;
+
+import org.sonatype.central.publisher.client.PublisherClient;
+import org.sonatype.central.publisher.client.model.DeploymentState;
+import org.sonatype.central.publisher.client.model.PublishingType;
+
+import org.apache.maven.plugin.logging.Log;
+import org.jspecify.annotations.Nullable;
+
+import static java.lang.String.format;
+
+/**
+ * Finds the deployment that a previous build uploaded from the same content, in the {@link DeploymentJournal}, to use
+ * it instead of uploading the content again.
+ */
+public class ReusableDeploymentFinder
+{
+  private final DeploymentJournal deploymentJournal;
+
+  private final PublisherClient publisherClient;
+
+  private final PublishingType publishingType;
+
+  private final Log log;
+
+  /**
+   * @param publishingType - how the deployment to upload is published
+   */
+  public ReusableDeploymentFinder(
+      final DeploymentJournal deploymentJournal,
+      final PublisherClient publisherClient,
+      final PublishingType publishingType,
+      final Log log)
+  {
+    this.deploymentJournal = deploymentJournal;
+    this.publisherClient = publisherClient;
+    this.publishingType = publishingType;
+    this.log = log;
+  }
+
+  /**
+   * @return the id of the deployment of the same content and name that a previous build uploaded, either to resume
+   *     watching it if that build did not see it reach a final state, or to reuse it if it is validated or published,
+   *     as long as Central still has it and it did not fail; or null to upload the content.
+   */
+  @Nullable
+  public String find(final String contentHash, final String deploymentName) {
+    DeploymentJournal.Entry entry;
+    try {
+      entry = deploymentJournal.find(contentHash, deploymentName);
+    }
+    catch (IOException e) {
+      log.warn("Unable to read the deployment journal " + deploymentJournal.getFile(), e);
+      return null;
+    }
+    if (entry == null) {
+      return null;
+    }
+    boolean inFlight = isInFlight(entry.getState());
+    if (!inFlight && !isValid(entry.getState())) {
+      return null;
+    }
+
+    String deploymentId = entry.getDeploymentId();
+    DeploymentState deploymentState;
+    try {
+      deploymentState = publisherClient.status(deploymentId).getDeploymentState();
+    }
+    catch (RuntimeException e) {
+      log.warn(format("Deployment %s of a previous build of the same content is no longer available: %s",
+          deploymentId, e.getMessage()));
+      return null;
+    }
+    if (deploymentState == DeploymentState.FAILED) {
+      return null;
+    }
+    if (deploymentState == DeploymentState.VALIDATED && publishingType == PublishingType.AUTOMATIC) {
+      // may have been uploaded to be published by the user, it would then never be published automatically, whatever
+      // this build waits for
+      log.info(format("Not reusing validated Deployment %s of the same content to publish automatically.",
+          deploymentId));
+      return null;
+    }
+
+    log.info(format("%s Deployment %s uploaded from the same content on %s, last seen %s, instead of uploading.",
+        inFlight ? "Resuming" : "Reusing", deploymentId, entry.getTimestamp(), entry.getState().toLowerCase()));
+    return deploymentId;
+  }
+
+  private static boolean isInFlight(final String state) {
+    return DeploymentJournal.UPLOADED.equals(state)
+        || DeploymentState.PENDING.name().equals(state)
+        || DeploymentState.VALIDATING.name().equals(state)
+        || DeploymentState.PUBLISHING.name().equals(state);
+  }
+
+  /**
+   * @return whether a deployment last seen in the given state can be reused for the same content.
+   */
+  private static boolean isValid(final String state) {
+    return DeploymentState.VALIDATED.name().equals(state) || DeploymentState.PUBLISHED.name().equals(state);
+  }
+}
@@ -0,0 +1,169 @@
+package org.sonatype.central.publisher.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.sonatype.central.publisher.client.httpclient.UploadListener;
+import org.sonatype.central.publisher.client.httpclient.UploadStats;
+import org.sonatype.central.publisher.client.httpclient.utils.PublisherBundle.BundleBuilder;
+import org.sonatype.central.publisher.client.model.PublishingType;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.sonatype.central.publisher.client.PublisherConstants.UPLOAD_ENDPOINT_URL;
+import static org.sonatype.central.publisher.client.httpclient.auth.AuthProviderType.USERTOKEN;
+
+/**
+ * Tests that a bundle uploaded while it is being created reaches the server as a valid bundle.
+ */
+public class PublisherClientStreamingUploadTest
+{
+  @Rule
+  public TemporaryFolder tempDir = new TemporaryFolder();
+
+  private HttpServer server;
+
+  private final AtomicReference<String> transferEncoding = new AtomicReference<>();
+
+  private final AtomicReference<String> contentType = new AtomicReference<>();
+
+  private final AtomicReference<byte[]> requestBody = new AtomicReference<>();
+
+  @Before
+  public void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext(UPLOAD_ENDPOINT_URL, exchange -> {
+      transferEncoding.set(exchange.getRequestHeaders().getFirst("Transfer-Encoding"));
+      contentType.set(exchange.getRequestHeaders().getFirst("Content-Type"));
+      requestBody.set(IOUtils.toByteArray(exchange.getRequestBody()));
+
+      byte[] response = "deployment-id".getBytes(UTF_8);
+      exchange.sendResponseHeaders(201, response.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(response);
+      }
+    });
+    server.start();
+  }
+
+  @After
+  public void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  public void shouldUploadSequentiallyStreamedBundle() throws IOException {
+    shouldUploadStreamedBundle(1);
+  }
+
+  @Test
+  public void shouldUploadParallelStreamedBundle() throws IOException {
+    shouldUploadStreamedBundle(4);
+  }
+
+  @Test
+  public void shouldReportUploadStats() throws IOException {
+    AtomicReference<UploadStats> completed = new AtomicReference<>();
+    UploadListener uploadListener = new UploadListener()
+    {
+      @Override
+      public void progress(final UploadStats stats) {
+      }
+
+      @Override
+      public void completed(final UploadStats stats) {
+        completed.set(stats);
+      }
+    };
+
+    String deploymentId = newPublisherClient().upload("test-app", newBundleBuilder(1), PublishingType.USER_MANAGED,
+        uploadListener);
+
+    assertThat(deploymentId, is("deployment-id"));
+    assertThat(completed.get().getBytesSent(), is((long) requestBody.get().length));
+    assertThat(completed.get().getContentLength(), is(-1L));
+    assertThat(completed.get().getTimeToFirstByteMillis(), greaterThanOrEqualTo(0L));
+    assertThat(completed.get().getNetworkMillis() <= completed.get().getTransferMillis(), is(true));
+  }
+
+  private void shouldUploadStreamedBundle(final int threads) throws IOException {
+    BundleBuilder bundleBuilder = newBundleBuilder(threads);
+
+    String deploymentId = newPublisherClient().upload("test-app", bundleBuilder, PublishingType.USER_MANAGED);
+
+    assertThat(deploymentId, is("deployment-id"));
+    assertThat(transferEncoding.get(), is("chunked"));
+    assertThat(Files.exists(tempDir.getRoot().toPath().resolve("output/central-bundle.zip")), is(false));
+
+    Map<String, String> entries = readBundle(requestBody.get(), contentType.get());
+    assertThat(entries.size(), is(3));
+    assertThat(entries.get("io/github/test/test-app/1.0.0/test-app-1.0.0.pom"), is("<project/>"));
+    assertThat(entries.get("io/github/test/test-app/1.0.0/test-app-1.0.0.jar"), is("jar content"));
+    assertThat(entries.get("io/github/test/test-app/1.0.0/test-app-1.0.0.jar.md5"),
+        is("0123456789abcdef0123456789abcdef"));
+  }
+
+  private PublisherClient newPublisherClient() {
+    PublisherClient publisherClient = PublisherClientFactory.createPublisherClient();
+    publisherClient.setCentralBaseUrl("http://localhost:" + server.getAddress().getPort());
+    publisherClient.setAuthProvider(USERTOKEN, "org", "user", "token");
+    return publisherClient;
+  }
+
+  private BundleBuilder newBundleBuilder(final int threads) throws IOException {
+    Path staging = tempDir.newFolder("staging").toPath();
+    Path output = tempDir.newFolder("output").toPath();
+    Path gav = Files.createDirectories(staging.resolve("io/github/test/test-app/1.0.0"));
+    Files.write(gav.resolve("test-app-1.0.0.pom"), "<project/>".getBytes(UTF_8));
+    Files.write(gav.resolve("test-app-1.0.0.jar"), "jar content".getBytes(UTF_8));
+    Files.write(gav.resolve("test-app-1.0.0.jar.md5"), "0123456789abcdef0123456789abcdef".getBytes(UTF_8));
+
+    return new BundleBuilder(staging)
+        .destPath(output)
+        .bundleName("central-bundle.zip")
+        .threads(threads)
+        .addAllSourceFiles();
+  }
+
+  /**
+   * Extract the bundle from the single part of the multipart body, and read its entries.
+   */
+  private static Map<String, String> readBundle(final byte[] body, final String contentType) throws IOException {
+    String boundary = contentType.substring(contentType.indexOf("boundary=") + "boundary=".length());
+    String multipart = new String(body, ISO_8859_1);
+    assertThat(multipart.contains("filename=\"central-bundle.zip\""), is(true));
+
+    int start = multipart.indexOf("\r\n\r\n") + 4;
+    int end = multipart.lastIndexOf("\r\n--" + boundary + "--");
+
+    Map<String, String> entries = new HashMap<>();
+    try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(body, start, end - start))) {
+      ZipEntry entry;
+      while ((entry = zip.getNextEntry()) != null) {
+        entries.put(entry.getName(), IOUtils.toString(zip, UTF_8));
+      }
+    }
+    return entries;
+  }
+}
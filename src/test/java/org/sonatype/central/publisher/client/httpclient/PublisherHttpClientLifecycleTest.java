@@ -0,0 +1,87 @@
+package org.sonatype.central.publisher.client.httpclient;
+
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThrows;
+
+/**
+ * Tests that the pooled client of {@link PublisherHttpClient} is replaced only by another configuration, and that the
+ * replaced clients are released by {@link PublisherHttpClient#close()}.
+ */
+public class PublisherHttpClientLifecycleTest
+{
+  @Before
+  public void setUp() {
+    // other tests may have left a client of another configuration
+    PublisherHttpClient.close();
+  }
+
+  @After
+  public void tearDown() {
+    PublisherHttpClient.configure(new PublisherHttpClientConfig());
+    PublisherHttpClient.close();
+  }
+
+  @Test
+  public void shouldReuseClientOfTheSameConfiguration() {
+    PublisherHttpClient.configure(config(10));
+    CloseableHttpClient client = PublisherHttpClient.client();
+
+    PublisherHttpClient.configure(config(10));
+
+    assertThat(PublisherHttpClient.client(), is(sameInstance(client)));
+    assertThat(PublisherHttpClient.getRetiredClients(), is(empty()));
+  }
+
+  @Test
+  public void shouldRetireClientOfAnotherConfiguration() {
+    PublisherHttpClient.configure(config(10));
+    CloseableHttpClient client = PublisherHttpClient.client();
+
+    PublisherHttpClient.configure(config(5));
+
+    assertThat(PublisherHttpClient.client(), is(not(sameInstance(client))));
+    assertThat(PublisherHttpClient.getRetiredClients(), contains(sameInstance(client)));
+  }
+
+  @Test
+  public void shouldCloseRetiredClients() {
+    PublisherHttpClient.configure(config(10));
+    CloseableHttpClient retiredClient = PublisherHttpClient.client();
+    PublisherHttpClient.configure(config(5));
+    CloseableHttpClient client = PublisherHttpClient.client();
+
+    PublisherHttpClient.close();
+
+    assertThat(PublisherHttpClient.getRetiredClients(), is(empty()));
+    assertClosed(retiredClient);
+    assertClosed(client);
+    assertThat(PublisherHttpClient.client(), is(not(sameInstance(client))));
+  }
+
+  private static PublisherHttpClientConfig config(final int maxConnections) {
+    return new PublisherHttpClientConfig(maxConnections,
+        PublisherHttpClientConfig.DEFAULT_CONNECT_TIMEOUT_SECONDS,
+        PublisherHttpClientConfig.DEFAULT_SOCKET_TIMEOUT_SECONDS,
+        PublisherHttpClientConfig.DEFAULT_KEEP_ALIVE_SECONDS,
+        PublisherHttpClientConfig.DEFAULT_MAX_RETRIES);
+  }
+
+  /**
+   * A closed client refuses to lease a connection, before anything is sent.
+   */
+  private static void assertClosed(final CloseableHttpClient client) {
+    assertThrows(IllegalStateException.class,
+        () -> client.execute(new HttpGet("http://localhost:1/"), response -> null));
+  }
+}
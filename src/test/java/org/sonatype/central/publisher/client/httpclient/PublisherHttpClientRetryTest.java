@@ -0,0 +1,180 @@
+package org.sonatype.central.publisher.client.httpclient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.sonatype.central.publisher.client.httpclient.auth.AuthProvider;
+import org.sonatype.central.publisher.client.httpclient.auth.UserTokenAuthProvider;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+import static org.sonatype.central.publisher.client.PublisherConstants.PUBLISHED_ENDPOINT_URL;
+import static org.sonatype.central.publisher.client.PublisherConstants.UPLOAD_ENDPOINT_URL;
+
+/**
+ * Tests the {@link RetryPolicy} of the {@link PublisherHttpClient} against a local server that fails on purpose.
+ */
+public class PublisherHttpClientRetryTest
+{
+  private static final int MAX_RETRIES = 3;
+
+  @Rule
+  public TemporaryFolder tempDir = new TemporaryFolder();
+
+  private final AuthProvider authProvider = new UserTokenAuthProvider("org", "user", "principal", "credential");
+
+  private HttpServer server;
+
+  private String baseUrl;
+
+  // the status codes of the next responses, 200 or 201 once empty
+  private final Queue<Integer> faults = new ConcurrentLinkedQueue<>();
+
+  private final AtomicInteger requests = new AtomicInteger();
+
+  private final List<Long> requestTimes = Collections.synchronizedList(new ArrayList<>());
+
+  @Before
+  public void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext(PUBLISHED_ENDPOINT_URL, exchange -> respond(exchange, 200, "{\"published\":true}"));
+    server.createContext(UPLOAD_ENDPOINT_URL, exchange -> respond(exchange, 201, "deployment-id"));
+    server.start();
+    baseUrl = "http://localhost:" + server.getAddress().getPort();
+
+    PublisherHttpClient.setRetryPolicy(new RetryPolicy(MAX_RETRIES, 10, 50));
+  }
+
+  @After
+  public void stopServer() {
+    PublisherHttpClient.setRetryPolicy(new RetryPolicy(RetryPolicy.DEFAULT_MAX_RETRIES));
+    PublisherHttpClient.close();
+    server.stop(0);
+  }
+
+  @Test
+  public void shouldRetryTransientFailures() {
+    faults.add(502);
+    faults.add(500);
+    faults.add(504);
+
+    assertThat(new ComponentPublishedEndpoint().call(baseUrl, authProvider, Collections.emptyMap()), is(true));
+    assertThat(requests.get(), is(4));
+  }
+
+  @Test
+  public void shouldGiveUpAfterMaxRetries() {
+    for (int i = 0; i <= MAX_RETRIES; i++) {
+      faults.add(502);
+    }
+
+    RuntimeException e = assertThrows(RuntimeException.class,
+        () -> new ComponentPublishedEndpoint().call(baseUrl, authProvider, Collections.emptyMap()));
+    assertThat(e.getMessage(), containsString("502"));
+    assertThat(requests.get(), is(MAX_RETRIES + 1));
+  }
+
+  @Test
+  public void shouldWaitForRetryAfter() {
+    faults.add(429);
+
+    assertThat(new ComponentPublishedEndpoint().call(baseUrl, authProvider, Collections.emptyMap()), is(true));
+    assertThat(requests.get(), is(2));
+    assertThat(requestTimes.get(1) - requestTimes.get(0), greaterThanOrEqualTo(900L));
+  }
+
+  @Test
+  public void shouldRetryTransientFailuresOfConcurrentRequests() {
+    faults.add(502);
+    faults.add(429);
+
+    List<CompletableFuture<Boolean>> published = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      published.add(new ComponentPublishedEndpoint().callAsync(baseUrl, authProvider, Collections.emptyMap()));
+    }
+    for (CompletableFuture<Boolean> componentPublished : published) {
+      assertThat(componentPublished.join(), is(true));
+    }
+    assertThat(requests.get(), is(12));
+  }
+
+  @Test
+  public void shouldGiveUpConcurrentRequestAfterMaxRetries() {
+    for (int i = 0; i <= MAX_RETRIES; i++) {
+      faults.add(502);
+    }
+
+    CompletableFuture<Boolean> published =
+        new ComponentPublishedEndpoint().callAsync(baseUrl, authProvider, Collections.emptyMap());
+    CompletionException e = assertThrows(CompletionException.class, published::join);
+    assertThat(e.getCause().getMessage(), containsString("502"));
+    assertThat(requests.get(), is(MAX_RETRIES + 1));
+  }
+
+  @Test
+  public void shouldNotRetryUploadThatMayHaveBeenProcessed() throws IOException {
+    faults.add(502);
+
+    RuntimeException e = assertThrows(RuntimeException.class,
+        () -> new UploadPublisherEndpoint().call(baseUrl, authProvider, Collections.emptyMap(), newBundle()));
+    assertThat(e.getMessage(), containsString("502"));
+    assertThat(requests.get(), is(1));
+  }
+
+  @Test
+  public void shouldRetryRejectedUpload() throws IOException {
+    faults.add(503);
+
+    String deploymentId =
+        new UploadPublisherEndpoint().call(baseUrl, authProvider, Collections.emptyMap(), newBundle());
+    assertThat(deploymentId, is("deployment-id"));
+    assertThat(requests.get(), is(2));
+  }
+
+  private Path newBundle() throws IOException {
+    Path bundle = tempDir.newFile("central-bundle.zip").toPath();
+    Files.write(bundle, "bundle".getBytes(UTF_8));
+    return bundle;
+  }
+
+  private void respond(final HttpExchange exchange, final int successCode, final String body) throws IOException {
+    requests.incrementAndGet();
+    requestTimes.add(System.currentTimeMillis());
+    IOUtils.consume(exchange.getRequestBody());
+
+    Integer fault = faults.poll();
+    if (fault != null && fault == 429) {
+      exchange.getResponseHeaders().add("Retry-After", "1");
+    }
+    byte[] response = (fault != null ? "fault" : body).getBytes(UTF_8);
+    exchange.sendResponseHeaders(fault != null ? fault : successCode, response.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(response);
+    }
+  }
+}
@@ -0,0 +1,241 @@
+package org.sonatype.central.publisher.client.httpclient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.sonatype.central.publisher.client.httpclient.auth.AuthProvider;
+import org.sonatype.central.publisher.client.httpclient.auth.UserTokenAuthProvider;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+import static org.sonatype.central.publisher.client.PublisherConstants.HTTP_UPLOAD_LENGTH_HEADER;
+import static org.sonatype.central.publisher.client.PublisherConstants.HTTP_UPLOAD_OFFSET_HEADER;
+import static org.sonatype.central.publisher.client.PublisherConstants.RESUMABLE_UPLOAD_ENDPOINT_URL;
+
+/**
+ * Tests that {@link ResumableUploadEndpoint} resumes from the acknowledged offset, against a local server that
+ * implements the chunk protocol and drops the connection in the middle of a chunk.
+ */
+public class ResumableUploadEndpointTest
+{
+  private static final int BUNDLE_SIZE = 10_000;
+
+  private static final int CHUNK_SIZE = 1_000;
+
+  private static final String CONTENT_KEY = "content-hash";
+
+  @Rule
+  public TemporaryFolder tempDir = new TemporaryFolder();
+
+  private final AuthProvider authProvider = new UserTokenAuthProvider("org", "user", "principal", "credential");
+
+  private HttpServer server;
+
+  private String baseUrl;
+
+  private final Map<String, ByteArrayOutputStream> uploads = new HashMap<>();
+
+  private final AtomicInteger creates = new AtomicInteger();
+
+  private final AtomicInteger chunks = new AtomicInteger();
+
+  private final AtomicLong bytesReceived = new AtomicLong();
+
+  // the chunk to drop the connection in the middle of, 0 for none
+  private volatile int faultyChunk;
+
+  @Before
+  public void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext(RESUMABLE_UPLOAD_ENDPOINT_URL, this::handle);
+    server.start();
+    baseUrl = "http://localhost:" + server.getAddress().getPort();
+
+    PublisherHttpClient.setRetryPolicy(new RetryPolicy(3, 10, 50));
+  }
+
+  @After
+  public void stopServer() {
+    PublisherHttpClient.setRetryPolicy(new RetryPolicy(RetryPolicy.DEFAULT_MAX_RETRIES));
+    PublisherHttpClient.close();
+    server.stop(0);
+  }
+
+  @Test
+  public void shouldResumeAfterConnectionReset() throws IOException {
+    Path bundle = newBundle();
+    Path progressDirectory = tempDir.newFolder("progress").toPath();
+    faultyChunk = 3;
+
+    String deploymentId = new ResumableUploadEndpoint()
+        .call(baseUrl, authProvider, new HashMap<>(), bundle, CHUNK_SIZE, progressDirectory, null);
+
+    assertUploaded(deploymentId, bundle, progressDirectory);
+  }
+
+  @Test
+  public void shouldResumeAfterRestart() throws IOException {
+    Path bundle = newBundle();
+    Path progressDirectory = tempDir.newFolder("progress").toPath();
+    faultyChunk = 3;
+
+    PublisherHttpClient.setRetryPolicy(new RetryPolicy(0));
+    assertThrows(RuntimeException.class, () -> new ResumableUploadEndpoint()
+        .call(baseUrl, authProvider, new HashMap<>(), bundle, CHUNK_SIZE, progressDirectory, CONTENT_KEY));
+    assertThat(ResumableUploadEndpoint.canResume(progressDirectory, bundle, CONTENT_KEY), is(true));
+    assertThat(ResumableUploadEndpoint.canResume(progressDirectory, bundle, "other content"), is(false));
+
+    PublisherHttpClient.setRetryPolicy(new RetryPolicy(3, 10, 50));
+    String deploymentId = new ResumableUploadEndpoint()
+        .call(baseUrl, authProvider, new HashMap<>(), bundle, CHUNK_SIZE, progressDirectory, CONTENT_KEY);
+
+    assertUploaded(deploymentId, bundle, progressDirectory);
+  }
+
+  @Test
+  public void shouldStartOverWhenTheBundleIsWrittenAgain() throws IOException {
+    Path bundle = newBundle();
+    Path progressDirectory = tempDir.newFolder("progress").toPath();
+    faultyChunk = 3;
+
+    PublisherHttpClient.setRetryPolicy(new RetryPolicy(0));
+    assertThrows(RuntimeException.class, () -> new ResumableUploadEndpoint()
+        .call(baseUrl, authProvider, new HashMap<>(), bundle, CHUNK_SIZE, progressDirectory, CONTENT_KEY));
+
+    // the same content bundled again by the next build
+    Files.setLastModifiedTime(bundle, FileTime.fromMillis(Files.getLastModifiedTime(bundle).toMillis() + 60_000));
+    assertThat(ResumableUploadEndpoint.canResume(progressDirectory, bundle, CONTENT_KEY), is(false));
+
+    PublisherHttpClient.setRetryPolicy(new RetryPolicy(3, 10, 50));
+    String deploymentId = new ResumableUploadEndpoint()
+        .call(baseUrl, authProvider, new HashMap<>(), bundle, CHUNK_SIZE, progressDirectory, CONTENT_KEY);
+
+    assertThat(deploymentId, is("deployment-2"));
+    assertThat(uploads.get("2").toByteArray(), is(Files.readAllBytes(bundle)));
+  }
+
+  private void assertUploaded(
+      final String deploymentId,
+      final Path bundle,
+      final Path progressDirectory) throws IOException
+  {
+    assertThat(deploymentId, is("deployment-1"));
+    assertThat(creates.get(), is(1));
+    assertThat(uploads.get("1").toByteArray(), is(Files.readAllBytes(bundle)));
+    // nothing acknowledged was sent again
+    assertThat(bytesReceived.get(), is((long) BUNDLE_SIZE));
+    assertThat(Files.exists(progressDirectory.resolve("central-bundle.zip.upload")), is(false));
+  }
+
+  private Path newBundle() throws IOException {
+    byte[] content = new byte[BUNDLE_SIZE];
+    new Random(42).nextBytes(content);
+    Path bundle = tempDir.newFile("central-bundle.zip").toPath();
+    Files.write(bundle, content);
+    return bundle;
+  }
+
+  private synchronized void handle(final HttpExchange exchange) throws IOException {
+    String path = exchange.getRequestURI().getPath();
+    String method = exchange.getRequestMethod();
+
+    if (path.equals(RESUMABLE_UPLOAD_ENDPOINT_URL) && method.equals("POST")) {
+      String id = Integer.toString(creates.incrementAndGet());
+      uploads.put(id, new ByteArrayOutputStream());
+      assertThat(exchange.getRequestHeaders().getFirst(HTTP_UPLOAD_LENGTH_HEADER), is(Integer.toString(BUNDLE_SIZE)));
+      exchange.getResponseHeaders().add("Location", RESUMABLE_UPLOAD_ENDPOINT_URL + "/" + id);
+      respond(exchange, 201, null, null);
+      return;
+    }
+
+    ByteArrayOutputStream upload = uploads.get(path.substring(path.lastIndexOf('/') + 1));
+    if (upload == null) {
+      respond(exchange, 404, null, null);
+      return;
+    }
+
+    switch (method) {
+      case "HEAD":
+        respond(exchange, 200, (long) upload.size(), null);
+        return;
+      case "PATCH": {
+        long offset = Long.parseLong(exchange.getRequestHeaders().getFirst(HTTP_UPLOAD_OFFSET_HEADER));
+        if (offset != upload.size()) {
+          respond(exchange, 409, (long) upload.size(), null);
+          return;
+        }
+        byte[] chunk = readAll(exchange.getRequestBody());
+        if (chunks.incrementAndGet() == faultyChunk) {
+          // half of the chunk is received before the connection drops
+          upload.write(chunk, 0, chunk.length / 2);
+          bytesReceived.addAndGet(chunk.length / 2);
+          throw new IOException("connection reset");
+        }
+        upload.write(chunk);
+        bytesReceived.addAndGet(chunk.length);
+        respond(exchange, 204, (long) upload.size(), null);
+        return;
+      }
+      case "POST":
+        respond(exchange, 200, null, "deployment-" + path.substring(path.lastIndexOf('/') + 1));
+        return;
+      default:
+        respond(exchange, 405, null, null);
+    }
+  }
+
+  private static byte[] readAll(final InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[4096];
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+  private static void respond(
+      final HttpExchange exchange,
+      final int status,
+      final Long offset,
+      final String body) throws IOException
+  {
+    // this server does not reliably keep a connection alive after an empty response
+    exchange.getResponseHeaders().add("Connection", "close");
+    if (offset != null) {
+      exchange.getResponseHeaders().add(HTTP_UPLOAD_OFFSET_HEADER, Long.toString(offset));
+    }
+    if (body == null || body.isEmpty()) {
+      exchange.sendResponseHeaders(status, -1);
+      exchange.close();
+      return;
+    }
+    byte[] response = body.getBytes(UTF_8);
+    exchange.sendResponseHeaders(status, response.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(response);
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package org.sonatype.central.publisher.client.httpclient.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Tests that {@link IncrementalBundleWriter} bundles every file once, whether appended early or added on finish.
+ */
+public class IncrementalBundleWriterTest
+{
+  @Rule
+  public TemporaryFolder tempDir = new TemporaryFolder();
+
+  @Test
+  public void shouldAppendThenAddRemainingFilesOnFinish() throws IOException {
+    Path staging = tempDir.newFolder("staging").toPath();
+    Path moduleA = Files.createDirectories(staging.resolve("io/github/test/module-a/1.0.0"));
+    Path moduleB = Files.createDirectories(staging.resolve("io/github/test/module-b/1.0.0"));
+    Path pomA = Files.write(moduleA.resolve("module-a-1.0.0.pom"), "<project>a</project>".getBytes(UTF_8));
+    Path jarA = Files.write(tempDir.newFile("module-a.jar").toPath(), "jar a".getBytes(UTF_8));
+    Path bundle = tempDir.getRoot().toPath().resolve("output/central-bundle.zip");
+
+    try (IncrementalBundleWriter writer = new IncrementalBundleWriter(staging, bundle, 6)) {
+      writer.append(pomA, pomA);
+      // appended again, e.g. by an overlapping module
+      writer.append(pomA, pomA);
+      writer.append(moduleA.resolve("module-a-1.0.0.jar"), jarA);
+
+      Files.write(moduleB.resolve("module-b-1.0.0.pom"), "<project>b</project>".getBytes(UTF_8));
+      assertThat(writer.finish().getPath(), is(bundle));
+    }
+
+    List<String> names = new ArrayList<>();
+    try (ZipFile zipFile = new ZipFile(bundle.toFile())) {
+      for (ZipEntry entry : Collections.list(zipFile.entries())) {
+        names.add(entry.getName());
+      }
+      assertThat(IOUtils.toString(zipFile.getInputStream(zipFile.getEntry(
+          "io/github/test/module-a/1.0.0/module-a-1.0.0.jar")), UTF_8), is("jar a"));
+      assertThat(zipFile.getEntry("io/github/test/module-a/1.0.0/module-a-1.0.0.jar").getMethod(),
+          is(ZipEntry.STORED));
+    }
+    assertThat(names, contains(
+        "io/github/test/module-a/1.0.0/module-a-1.0.0.pom",
+        "io/github/test/module-a/1.0.0/module-a-1.0.0.jar",
+        "io/github/test/module-b/1.0.0/module-b-1.0.0.pom"));
+  }
+}
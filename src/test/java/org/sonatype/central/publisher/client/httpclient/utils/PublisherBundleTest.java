@@ -0,0 +1,190 @@
+package org.sonatype.central.publisher.client.httpclient.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.sonatype.central.publisher.client.httpclient.utils.PublisherBundle.BundleBuilder;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Tests that {@link PublisherBundle} bundles the files of the staging directory and of its staging manifest.
+ */
+public class PublisherBundleTest
+{
+  @Rule
+  public TemporaryFolder tempDir = new TemporaryFolder();
+
+  @Test
+  public void shouldBundleStagedAndManifestFiles() throws IOException {
+    Path staging = tempDir.newFolder("staging").toPath();
+    Path output = tempDir.newFolder("output").toPath();
+    Path gav = Files.createDirectories(staging.resolve("io/github/test/test-app/1.0.0"));
+    Files.write(gav.resolve("test-app-1.0.0.pom"), "<project/>".getBytes(UTF_8));
+    Files.write(gav.resolve("test-app-1.0.0.jar.md5"), "0123456789abcdef0123456789abcdef".getBytes(UTF_8));
+
+    Path jar = Files.write(tempDir.newFile("test-app.jar").toPath(), "jar content".getBytes(UTF_8));
+    Files.write(staging.resolve(PublisherBundle.STAGING_MANIFEST_FILE_NAME),
+        singletonList("io/github/test/test-app/1.0.0/test-app-1.0.0.jar=" + jar.toUri().toASCIIString()), ISO_8859_1);
+
+    PublisherBundle bundle = new BundleBuilder(staging)
+        .destPath(output)
+        .bundleName("central-bundle.zip")
+        .addAllSourceFiles()
+        .build();
+
+    Map<String, String> entries = read(bundle.getPath());
+    assertThat(entries.size(), is(3));
+    assertThat(entries.get("io/github/test/test-app/1.0.0/test-app-1.0.0.pom"), is("<project/>"));
+    assertThat(entries.get("io/github/test/test-app/1.0.0/test-app-1.0.0.jar"), is("jar content"));
+    assertThat(entries.get("io/github/test/test-app/1.0.0/test-app-1.0.0.jar.md5"),
+        is("0123456789abcdef0123456789abcdef"));
+  }
+
+  @Test
+  public void shouldBundleSameEntriesInParallel() throws IOException {
+    Path staging = tempDir.newFolder("staging").toPath();
+    Path gav = Files.createDirectories(staging.resolve("io/github/test/test-app/1.0.0"));
+    for (int i = 0; i < 20; i++) {
+      StringBuilder content = new StringBuilder();
+      for (int j = 0; j < 1000 * i; j++) {
+        content.append(i).append(j);
+      }
+      Files.write(gav.resolve("test-app-1.0.0-" + i + ".txt"), content.toString().getBytes(UTF_8));
+    }
+
+    PublisherBundle sequential = new BundleBuilder(staging)
+        .destPath(tempDir.newFolder("sequential").toPath())
+        .addAllSourceFiles()
+        .build();
+    PublisherBundle parallel = new BundleBuilder(staging)
+        .destPath(tempDir.newFolder("parallel").toPath())
+        .threads(4)
+        .addAllSourceFiles()
+        .build();
+
+    Map<String, String> entries = read(parallel.getPath());
+    assertThat(entries.size(), is(20));
+    assertThat(entries, is(read(sequential.getPath())));
+  }
+
+  @Test
+  public void shouldStoreCompressedEntries() throws IOException {
+    Path staging = tempDir.newFolder("staging").toPath();
+    Path gav = Files.createDirectories(staging.resolve("io/github/test/test-app/1.0.0"));
+    Files.write(gav.resolve("test-app-1.0.0.pom"), "<project/>".getBytes(UTF_8));
+    Files.write(gav.resolve("test-app-1.0.0.jar"), "jar content".getBytes(UTF_8));
+    Files.write(gav.resolve("test-app-1.0.0.tar.gz"), "gz content".getBytes(UTF_8));
+
+    for (int threads : new int[]{1, 4}) {
+      PublisherBundle bundle = new BundleBuilder(staging)
+          .destPath(tempDir.newFolder("output-" + threads).toPath())
+          .threads(threads)
+          .compressionLevel(9)
+          .addAllSourceFiles()
+          .build();
+
+      try (ZipFile zipFile = new ZipFile(bundle.getPath().toFile())) {
+        assertThat(zipFile.getEntry("io/github/test/test-app/1.0.0/test-app-1.0.0.pom").getMethod(),
+            is(ZipEntry.DEFLATED));
+        assertThat(zipFile.getEntry("io/github/test/test-app/1.0.0/test-app-1.0.0.jar").getMethod(),
+            is(ZipEntry.STORED));
+        assertThat(zipFile.getEntry("io/github/test/test-app/1.0.0/test-app-1.0.0.tar.gz").getMethod(),
+            is(ZipEntry.STORED));
+      }
+      Map<String, String> entries = read(bundle.getPath());
+      assertThat(entries.get("io/github/test/test-app/1.0.0/test-app-1.0.0.jar"), is("jar content"));
+      assertThat(entries.get("io/github/test/test-app/1.0.0/test-app-1.0.0.tar.gz"), is("gz content"));
+    }
+  }
+
+  @Test
+  public void shouldSplitBundleWithoutSplittingDirectories() throws IOException {
+    Path staging = tempDir.newFolder("staging").toPath();
+    Path output = tempDir.newFolder("output").toPath();
+    for (String module : new String[]{"module-a", "module-b", "module-c"}) {
+      Path gav = Files.createDirectories(staging.resolve("io/github/test/" + module + "/1.0.0"));
+      Files.write(gav.resolve(module + "-1.0.0.pom"), new byte[400]);
+      Files.write(gav.resolve(module + "-1.0.0.jar"), new byte[module.equals("module-c") ? 2000 : 400]);
+    }
+
+    List<BundleBuilder> bundleBuilders = new BundleBuilder(staging)
+        .destPath(output)
+        .bundleName("central-bundle.zip")
+        .addAllSourceFiles()
+        .split(1600);
+
+    assertThat(bundleBuilders.size(), is(2));
+    PublisherBundle first = bundleBuilders.get(0).build();
+    PublisherBundle second = bundleBuilders.get(1).build();
+    assertThat(first.getName(), is("central-bundle-1.zip"));
+    assertThat(second.getName(), is("central-bundle-2.zip"));
+    assertThat(read(first.getPath()).keySet(), containsInAnyOrder(
+        "io/github/test/module-a/1.0.0/module-a-1.0.0.pom",
+        "io/github/test/module-a/1.0.0/module-a-1.0.0.jar",
+        "io/github/test/module-b/1.0.0/module-b-1.0.0.pom",
+        "io/github/test/module-b/1.0.0/module-b-1.0.0.jar"));
+    assertThat(read(second.getPath()).keySet(), containsInAnyOrder(
+        "io/github/test/module-c/1.0.0/module-c-1.0.0.pom",
+        "io/github/test/module-c/1.0.0/module-c-1.0.0.jar"));
+  }
+
+  @Test
+  public void shouldBundleIndexedFilesSortedByPath() throws IOException {
+    Path staging = tempDir.newFolder("staging").toPath();
+    Path gav = Files.createDirectories(staging.resolve("io/github/test/test-app/1.0.0"));
+    Path pom = Files.write(gav.resolve("test-app-1.0.0.pom"), "<project/>".getBytes(UTF_8));
+    Path jar = Files.write(gav.resolve("test-app-1.0.0.jar"), "jar content".getBytes(UTF_8));
+    Path md5 = Files.write(gav.resolve("test-app-1.0.0.jar.md5"), "0123456789abcdef0123456789abcdef".getBytes(UTF_8));
+    Files.write(gav.resolve("not-staged.txt"), "left over".getBytes(UTF_8));
+
+    PublisherBundle.addToStagingIndex(staging, Arrays.asList(pom, jar));
+    PublisherBundle.addToStagingIndex(staging, Arrays.asList(md5, jar));
+
+    PublisherBundle bundle = new BundleBuilder(staging)
+        .destPath(tempDir.newFolder("output").toPath())
+        .addAllSourceFiles()
+        .build();
+
+    List<String> names = new ArrayList<>();
+    try (ZipFile zipFile = new ZipFile(bundle.getPath().toFile())) {
+      for (ZipEntry entry : Collections.list(zipFile.entries())) {
+        names.add(entry.getName());
+      }
+    }
+    assertThat(names, contains(
+        "io/github/test/test-app/1.0.0/test-app-1.0.0.jar",
+        "io/github/test/test-app/1.0.0/test-app-1.0.0.jar.md5",
+        "io/github/test/test-app/1.0.0/test-app-1.0.0.pom"));
+  }
+
+  private static Map<String, String> read(final Path bundle) throws IOException {
+    Map<String, String> entries = new HashMap<>();
+    try (ZipFile zipFile = new ZipFile(bundle.toFile())) {
+      for (ZipEntry entry : Collections.list(zipFile.entries())) {
+        entries.put(entry.getName(), IOUtils.toString(zipFile.getInputStream(entry), UTF_8));
+      }
+    }
+    return entries;
+  }
+}
@@ -0,0 +1,164 @@
+package org.sonatype.central.publisher.plugin.stager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.sonatype.central.publisher.client.httpclient.utils.PublisherBundle;
+import org.sonatype.central.publisher.plugin.model.ArtifactWithFile;
+import org.sonatype.central.publisher.plugin.model.StageArtifactRequest;
+import org.sonatype.central.publisher.plugin.model.StagedFile;
+import org.sonatype.central.publisher.plugin.model.StagingMode;
+import org.sonatype.central.publisher.plugin.utils.HashAlgorithm;
+import org.sonatype.central.publisher.plugin.utils.HashUtilsImpl;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.artifact.repository.MavenArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Tests that {@link ArtifactStagerImpl} stages artifacts of concurrent requests into the same GAV directory correctly.
+ */
+public class ArtifactStagerImplTest
+{
+  private static final String GAV_PATH = "io/github/test/test-app/1.0.0";
+
+  private static final int CONCURRENT_REQUESTS = 8;
+
+  private static final List<HashAlgorithm> ALGORITHMS = Arrays.asList(HashAlgorithm.MD5, HashAlgorithm.SHA1);
+
+  @Rule
+  public TemporaryFolder tempDir = new TemporaryFolder();
+
+  private HashUtilsImpl hashUtils;
+
+  private ArtifactStagerImpl artifactStager;
+
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() throws Exception {
+    hashUtils = new HashUtilsImpl();
+    hashUtils.enableLogging(new ConsoleLogger());
+    artifactStager = new ArtifactStagerImpl()
+    {
+      @Override
+      protected ArtifactRepository createStagingArtifactRepository(final String url) {
+        ArtifactRepositoryPolicy policy = new ArtifactRepositoryPolicy();
+        return new MavenArtifactRepository("staging", url, new DefaultRepositoryLayout(), policy, policy);
+      }
+    };
+    artifactStager.enableLogging(new ConsoleLogger());
+    FieldUtils.writeField(artifactStager, "hashUtils", hashUtils, true);
+    executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldCopyConcurrentlyIntoTheSameDirectory() throws Exception {
+    File stagingDirectory = tempDir.newFolder("staging");
+
+    List<StagedFile> stagedFiles = stageConcurrently(stagingDirectory, StagingMode.COPY);
+
+    assertThat(stagedFiles, hasSize(CONCURRENT_REQUESTS));
+    for (StagedFile stagedFile : stagedFiles) {
+      File staged = stagedFile.getStagedFile();
+      assertThat(staged.getParentFile(), is(new File(stagingDirectory, GAV_PATH)));
+      assertThat(read(staged), is(read(stagedFile.getSourceFile())));
+      assertThat(stagedFile.getHashes(), is(hashUtils.hash(stagedFile.getSourceFile(), ALGORITHMS)));
+    }
+    assertThat(new File(stagingDirectory, GAV_PATH).list().length, is(CONCURRENT_REQUESTS));
+  }
+
+  @Test
+  public void shouldRecordConcurrentVirtualStagingInTheManifest() throws Exception {
+    File stagingDirectory = tempDir.newFolder("staging");
+
+    List<StagedFile> stagedFiles = stageConcurrently(stagingDirectory, StagingMode.VIRTUAL);
+
+    Properties manifest = new Properties();
+    try (Reader reader = Files.newBufferedReader(
+        new File(stagingDirectory, PublisherBundle.STAGING_MANIFEST_FILE_NAME).toPath(), ISO_8859_1)) {
+      manifest.load(reader);
+    }
+    assertThat(manifest.size(), is(CONCURRENT_REQUESTS));
+    for (StagedFile stagedFile : stagedFiles) {
+      String path = GAV_PATH + "/" + stagedFile.getStagedFile().getName();
+      assertThat(manifest.getProperty(path), is(stagedFile.getSourceFile().toURI().toASCIIString()));
+      assertThat(stagedFile.getStagedFile().exists(), is(false));
+    }
+  }
+
+  /**
+   * Stage one artifact of the same GAV per request, all requests started at once.
+   */
+  private List<StagedFile> stageConcurrently(
+      final File stagingDirectory,
+      final StagingMode stagingMode) throws Exception
+  {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<List<StagedFile>>> results = new ArrayList<>();
+    for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+      String classifier = "part" + i;
+      File source = tempDir.newFile("test-app-1.0.0-" + classifier + ".jar");
+      Files.write(source.toPath(), ("content of " + classifier).getBytes(UTF_8));
+      StageArtifactRequest request = new StageArtifactRequest(
+          Collections.singletonList(new ArtifactWithFile(source, createArtifact(classifier))), stagingDirectory,
+          ALGORITHMS, stagingMode, null);
+      Callable<List<StagedFile>> stage = () -> {
+        start.await();
+        return artifactStager.stageArtifact(request);
+      };
+      results.add(executor.submit(stage));
+    }
+    start.countDown();
+
+    List<StagedFile> stagedFiles = new ArrayList<>();
+    for (Future<List<StagedFile>> result : results) {
+      stagedFiles.addAll(result.get());
+    }
+    return stagedFiles;
+  }
+
+  private static Artifact createArtifact(final String classifier) {
+    return new DefaultArtifact(
+        "io.github.test", "test-app", "1.0.0",
+        null, "jar", classifier, new DefaultArtifactHandler("jar"));
+  }
+
+  private static String read(final File file) throws IOException {
+    return new String(Files.readAllBytes(file.toPath()), UTF_8);
+  }
+}
@@ -0,0 +1,109 @@
+package org.sonatype.central.publisher.plugin.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Tests that {@link ChecksumCache} survives a reload, and never returns hashes of a file that changed since.
+ */
+public class ChecksumCacheTest
+{
+  private static final List<HashAlgorithm> ALGORITHMS = Arrays.asList(HashAlgorithm.MD5, HashAlgorithm.SHA1);
+
+  @Rule
+  public TemporaryFolder tempDir = new TemporaryFolder();
+
+  @Test
+  public void shouldReturnCachedHashesAfterReload() throws IOException {
+    Path cacheFile = tempDir.getRoot().toPath().resolve(ChecksumCache.CACHE_FILE_NAME);
+    File file = newFile("test-app-1.0.0.jar", "content");
+    Map<HashAlgorithm, String> hashes = hash(file);
+
+    ChecksumCache cache = ChecksumCache.load(cacheFile);
+    cache.put(cache.identify(file), hashes);
+    cache.save();
+
+    ChecksumCache reloaded = ChecksumCache.load(cacheFile);
+    assertThat(reloaded.size(), is(1));
+    assertThat(reloaded.get(file, ALGORITHMS), is(hashes));
+    assertThat(reloaded.get(file, Collections.singletonList(HashAlgorithm.SHA256)), is(nullValue()));
+  }
+
+  @Test
+  public void shouldNotRewriteCacheOnHits() throws IOException {
+    Path cacheFile = tempDir.getRoot().toPath().resolve(ChecksumCache.CACHE_FILE_NAME);
+    File file = newFile("test-app-1.0.0.jar", "content");
+
+    ChecksumCache cache = ChecksumCache.load(cacheFile);
+    cache.put(cache.identify(file), hash(file));
+    cache.save();
+    FileTime saved = FileTime.fromMillis(System.currentTimeMillis() - 60_000);
+    Files.setLastModifiedTime(cacheFile, saved);
+
+    ChecksumCache reloaded = ChecksumCache.load(cacheFile);
+    assertThat(reloaded.get(file, ALGORITHMS), is(hash(file)));
+    reloaded.save();
+
+    assertThat(Files.getLastModifiedTime(cacheFile), is(saved));
+  }
+
+  @Test
+  public void shouldMissWhenFileChanged() throws IOException {
+    Path cacheFile = tempDir.getRoot().toPath().resolve(ChecksumCache.CACHE_FILE_NAME);
+    File file = newFile("test-app-1.0.0.jar", "content");
+
+    ChecksumCache cache = ChecksumCache.load(cacheFile);
+    cache.put(cache.identify(file), hash(file));
+
+    // same size, only the last modified time tells the content apart
+    Files.write(file.toPath(), "CONTENT".getBytes(UTF_8));
+    Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(file.lastModified() + 2000));
+
+    assertThat(cache.get(file, ALGORITHMS), is(nullValue()));
+    assertThat(cache.size(), is(0));
+  }
+
+  @Test
+  public void shouldDropCorruptLines() throws IOException {
+    Path cacheFile = tempDir.getRoot().toPath().resolve(ChecksumCache.CACHE_FILE_NAME);
+    File file = newFile("test-app-1.0.0.jar", "content");
+
+    ChecksumCache cache = ChecksumCache.load(cacheFile);
+    cache.put(cache.identify(file), hash(file));
+    cache.save();
+
+    String content = new String(Files.readAllBytes(cacheFile), UTF_8);
+    Files.write(cacheFile, content.replace(HashAlgorithm.MD5.name() + "=", HashAlgorithm.MD5.name() + "=0").getBytes(UTF_8));
+
+    assertThat(ChecksumCache.load(cacheFile).get(file, ALGORITHMS), is(nullValue()));
+  }
+
+  private File newFile(final String name, final String content) throws IOException {
+    File file = tempDir.newFile(name);
+    Files.write(file.toPath(), content.getBytes(UTF_8));
+    return file;
+  }
+
+  private static Map<HashAlgorithm, String> hash(final File file) {
+    HashUtilsImpl hashUtils = new HashUtilsImpl();
+    hashUtils.enableLogging(new ConsoleLogger());
+    return hashUtils.hash(file, ALGORITHMS);
+  }
+}
@@ -0,0 +1,183 @@
+package org.sonatype.central.publisher.plugin.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Tests that the single pass multi-digest hashing of {@link HashUtilsImpl} matches the per algorithm results, and that
+ * hashing memory does not grow with the file size.
+ */
+public class HashUtilsImplTest
+{
+  private static final List<HashAlgorithm> ALL_ALGORITHMS =
+      Arrays.asList(HashAlgorithm.MD5, HashAlgorithm.SHA1, HashAlgorithm.SHA256, HashAlgorithm.SHA512);
+
+  // 3 GiB, larger than any byte[] can hold, so reading it fully into memory is not even possible.
+  private static final long LARGE_FILE_SIZE = 3L * 1024 * 1024 * 1024;
+
+  private static final String LARGE_FILE_MD5 = "c698c87fb53058d493492b61f4c74189";
+
+  @Rule
+  public TemporaryFolder tempDir = new TemporaryFolder();
+
+  private HashUtilsImpl hashUtils;
+
+  @Before
+  public void setUp() {
+    hashUtils = new HashUtilsImpl();
+    hashUtils.enableLogging(new ConsoleLogger());
+  }
+
+  @Test
+  public void shouldComputeAllHashesInOnePass() throws IOException {
+    File file = tempDir.newFile("test-app-1.0.0.jar");
+    byte[] content = new byte[200_000];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) (i * 31);
+    }
+    Files.write(file.toPath(), content);
+
+    Map<HashAlgorithm, String> hashes = hashUtils.hash(file, ALL_ALGORITHMS);
+
+    assertThat(hashes.keySet(), contains(ALL_ALGORITHMS.toArray()));
+    for (HashAlgorithm algorithm : ALL_ALGORITHMS) {
+      assertThat(hashes.get(algorithm), is(algorithm.function().hashBytes(content).toString()));
+    }
+  }
+
+  @Test
+  public void shouldCreateAllChecksumFiles() throws IOException {
+    File file = tempDir.newFile("test-app-1.0.0.pom");
+    Files.write(file.toPath(), "<project/>".getBytes(UTF_8));
+
+    List<File> checksumFiles = hashUtils.createChecksumFiles(file, ALL_ALGORITHMS);
+
+    assertThat(checksumFiles, hasSize(4));
+    for (HashAlgorithm algorithm : ALL_ALGORITHMS) {
+      File checksumFile = new File(file.getParentFile(), file.getName() + "." + algorithm.name());
+      assertThat(new String(Files.readAllBytes(checksumFile.toPath()), UTF_8), is(hashUtils.hash(file, algorithm)));
+    }
+  }
+
+  @Test
+  public void shouldReturnEmptyForMissingFile() {
+    File missing = new File(tempDir.getRoot(), "missing.jar");
+
+    assertThat(hashUtils.hash(missing, ALL_ALGORITHMS).isEmpty(), is(true));
+    assertThat(hashUtils.createChecksumFiles(missing, ALL_ALGORITHMS).isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldHashWhileCopying() throws IOException {
+    File file = tempDir.newFile("test-app-1.0.0.pom");
+    Files.write(file.toPath(), "<project/>".getBytes(UTF_8));
+    File copy = new File(tempDir.getRoot(), "copy.pom");
+
+    Map<HashAlgorithm, String> hashes = hashUtils.copy(file, copy, ALL_ALGORITHMS);
+
+    assertThat(Files.readAllBytes(copy.toPath()), is(Files.readAllBytes(file.toPath())));
+    assertThat(hashes, is(hashUtils.hash(file, ALL_ALGORITHMS)));
+  }
+
+  @Test
+  public void shouldHashTreeFromChecksumFiles() throws IOException {
+    File first = newStagedJar("first", "first content");
+    File second = newStagedJar("second", "second content");
+    String sha1 = "0123456789abcdef0123456789abcdef01234567";
+    for (File jar : Arrays.asList(first, second)) {
+      File checksumFile = new File(jar.getParentFile(), jar.getName() + ".sha1");
+      Files.write(checksumFile.toPath(), sha1.getBytes(UTF_8));
+      assertThat(checksumFile.setLastModified(jar.lastModified() + 1000), is(true));
+    }
+
+    // the content is not read again when it has a checksum file
+    assertThat(hashUtils.hashTree(tempDir.getRoot().toPath().resolve("first").toFile(), HashAlgorithm.SHA256),
+        is(hashUtils.hashTree(tempDir.getRoot().toPath().resolve("second").toFile(), HashAlgorithm.SHA256)));
+  }
+
+  @Test
+  public void shouldHashVirtuallyStagedContent() throws IOException {
+    File staging = tempDir.newFolder("staging");
+    File source = tempDir.newFile("test-app-1.0.0.jar");
+    Files.write(source.toPath(), "jar content".getBytes(UTF_8));
+    Files.write(staging.toPath().resolve(".staging-manifest"),
+        ("io/github/test/test-app/1.0.0/test-app-1.0.0.jar=" + source.toURI() + "\n").getBytes(UTF_8));
+    Files.write(staging.toPath().resolve(".staging-index"),
+        "io/github/test/test-app/1.0.0/test-app-1.0.0.pom\nio/github/test/test-app/1.0.0/test-app-1.0.0.jar\n"
+            .getBytes(UTF_8));
+    String hash = hashUtils.hashTree(staging, HashAlgorithm.SHA256);
+
+    // the staging index is in the order the modules were staged in
+    Files.write(staging.toPath().resolve(".staging-index"),
+        "io/github/test/test-app/1.0.0/test-app-1.0.0.jar\nio/github/test/test-app/1.0.0/test-app-1.0.0.pom\n"
+            .getBytes(UTF_8));
+    assertThat(hashUtils.hashTree(staging, HashAlgorithm.SHA256), is(hash));
+
+    Files.write(source.toPath(), "other jar content".getBytes(UTF_8));
+    assertThat(hashUtils.hashTree(staging, HashAlgorithm.SHA256), is(not(hash)));
+  }
+
+  /**
+   * Hashes a multi-gigabyte sparse file in a separate JVM with a heap of 32 MiB.
+   */
+  @Test
+  public void shouldHashLargeFileWithCappedHeap() throws Exception {
+    File file = tempDir.newFile("test-app-1.0.0-dist.zip");
+    try (RandomAccessFile sparse = new RandomAccessFile(file, "rw")) {
+      sparse.setLength(LARGE_FILE_SIZE);
+    }
+
+    String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    Process process = new ProcessBuilder(java, "-Xmx32m", "-cp", System.getProperty("java.class.path"),
+        LargeFileHasher.class.getName(), file.getAbsolutePath())
+        .redirectErrorStream(true)
+        .start();
+
+    String output = IOUtils.toString(process.getInputStream(), UTF_8).trim();
+
+    assertThat(output, process.waitFor(), is(0));
+    assertThat(output, is(LARGE_FILE_MD5));
+  }
+
+  /**
+   * Entry point of the capped heap JVM started by {@link #shouldHashLargeFileWithCappedHeap()}.
+   */
+  private File newStagedJar(final String staging, final String content) throws IOException {
+    File gav = new File(tempDir.getRoot(), staging + "/io/github/test/test-app/1.0.0");
+    assertThat(gav.mkdirs(), is(true));
+    File jar = new File(gav, "test-app-1.0.0.jar");
+    Files.write(jar.toPath(), content.getBytes(UTF_8));
+    return jar;
+  }
+
+  public static class LargeFileHasher
+  {
+    public static void main(final String[] args) {
+      HashUtilsImpl hashUtils = new HashUtilsImpl();
+      hashUtils.enableLogging(new ConsoleLogger());
+      String hash = hashUtils.hash(new File(args[0]), HashAlgorithm.MD5);
+      System.out.println(hash);
+      System.exit(hash != null ? 0 : 1);
+    }
+  }
+}
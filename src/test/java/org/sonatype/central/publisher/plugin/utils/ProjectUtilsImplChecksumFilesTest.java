@@ -0,0 +1,129 @@
+package org.sonatype.central.publisher.plugin.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.sonatype.central.publisher.plugin.model.ChecksumRequest;
+import org.sonatype.central.publisher.plugin.model.ChecksumSidecars;
+import org.sonatype.central.publisher.plugin.model.PreBundleRequest;
+import org.sonatype.central.publisher.plugin.model.StagedFile;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThrows;
+
+/**
+ * Tests that checksum files generated on several threads are the same as the ones generated on a single thread, and
+ * that a checksum that cannot be generated fails the generation.
+ */
+public class ProjectUtilsImplChecksumFilesTest
+{
+  private static final String GAV_PATH = "io/github/test/test-app/1.0.0";
+
+  @Rule
+  public TemporaryFolder tempDir = new TemporaryFolder();
+
+  private ProjectUtilsImpl projectUtils;
+
+  private MavenProject project;
+
+  @Before
+  public void setUp() throws Exception {
+    HashUtilsImpl hashUtils = new HashUtilsImpl();
+    hashUtils.enableLogging(new ConsoleLogger());
+    projectUtils = new ProjectUtilsImpl();
+    projectUtils.enableLogging(new ConsoleLogger());
+    FieldUtils.writeField(projectUtils, "hashUtils", hashUtils, true);
+
+    Model model = new Model();
+    model.setGroupId("io.github.test");
+    model.setArtifactId("test-app");
+    model.setVersion("1.0.0");
+    project = new MavenProject(model);
+  }
+
+  @Test
+  public void shouldGenerateTheSameChecksumFilesOnSeveralThreads() throws IOException {
+    Path sequentialStaging = newStaging("sequential");
+    Path parallelStaging = newStaging("parallel");
+
+    projectUtils.createChecksumFiles(request(sequentialStaging, Collections.emptyList(), 1));
+    projectUtils.createChecksumFiles(request(parallelStaging, Collections.emptyList(), 4));
+
+    Map<String, String> sequentialChecksums = readChecksumFiles(sequentialStaging);
+    assertThat(sequentialChecksums.size(), is(5 * ChecksumRequest.ALL.getHashAlgorithms().size()));
+    assertThat(sequentialChecksums, not(hasKey("test-app-1.0.0.jar.asc.md5")));
+    assertThat(readChecksumFiles(parallelStaging), is(sequentialChecksums));
+  }
+
+  @Test
+  public void shouldFailWhenAChecksumCannotBeGenerated() throws IOException {
+    for (int checksumThreads : new int[]{1, 4}) {
+      Path staging = newStaging("staging-" + checksumThreads);
+      File missingSource = new File(tempDir.getRoot(), "missing.jar");
+      File virtualJar = staging.resolve(GAV_PATH).resolve("test-app-1.0.0-tests.jar").toFile();
+      List<StagedFile> stagedFiles =
+          Collections.singletonList(new StagedFile(missingSource, virtualJar, Collections.emptyMap(), true));
+
+      RuntimeException e = assertThrows(RuntimeException.class,
+          () -> projectUtils.createChecksumFiles(request(staging, stagedFiles, checksumThreads)));
+      assertThat(e.getMessage(), containsString("Failed to generate checksums for"));
+      assertThat(e.getMessage(), containsString(virtualJar.getName()));
+    }
+  }
+
+  private Path newStaging(final String name) throws IOException {
+    Path gavDir = Files.createDirectories(tempDir.getRoot().toPath().resolve(name).resolve(GAV_PATH));
+    write(gavDir.resolve("test-app-1.0.0.pom"), "<project/>");
+    write(gavDir.resolve("test-app-1.0.0.jar"), "jar content");
+    write(gavDir.resolve("test-app-1.0.0-sources.jar"), "sources content");
+    write(gavDir.resolve("test-app-1.0.0-javadoc.jar"), "javadoc content");
+    write(gavDir.resolve("test-app-1.0.0.module"), "{}");
+    write(gavDir.resolve("test-app-1.0.0.jar.asc"), "signature");
+    return gavDir.getParent().getParent().getParent().getParent().getParent();
+  }
+
+  private PreBundleRequest request(final Path staging, final List<StagedFile> stagedFiles, final int checksumThreads) {
+    return new PreBundleRequest(project, staging, stagedFiles, ChecksumRequest.ALL, checksumThreads,
+        ChecksumSidecars.NONE);
+  }
+
+  /**
+   * @return the content of the checksum files of the staged GAV directory, by file name.
+   */
+  private static Map<String, String> readChecksumFiles(final Path staging) throws IOException {
+    Map<String, String> checksumFiles = new TreeMap<>();
+    File[] files = staging.resolve(GAV_PATH).toFile().listFiles();
+    for (File file : files) {
+      for (HashAlgorithm algorithm : ChecksumRequest.ALL.getHashAlgorithms()) {
+        if (file.getName().endsWith("." + algorithm.name())) {
+          checksumFiles.put(file.getName(), new String(Files.readAllBytes(file.toPath()), UTF_8));
+        }
+      }
+    }
+    return checksumFiles;
+  }
+
+  private static void write(final Path file, final String content) throws IOException {
+    Files.write(file, content.getBytes(UTF_8));
+  }
+}
@@ -0,0 +1,161 @@
+package org.sonatype.central.publisher.plugin.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.sonatype.central.publisher.plugin.model.ChecksumRequest;
+import org.sonatype.central.publisher.plugin.model.ChecksumSidecars;
+import org.sonatype.central.publisher.plugin.model.PreBundleRequest;
+import org.sonatype.central.publisher.plugin.model.StagedFile;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Tests that hashes computed while staging and existing checksum files of staged artifacts are reused, or verified,
+ * instead of being computed.
+ */
+public class ProjectUtilsImplChecksumSidecarsTest
+{
+  // deliberately not the hash of the jar, to tell a reused checksum from a computed one
+  private static final String EXISTING_SHA1 = "0123456789abcdef0123456789abcdef01234567";
+
+  @Rule
+  public TemporaryFolder tempDir = new TemporaryFolder();
+
+  private ProjectUtilsImpl projectUtils;
+
+  private HashUtilsImpl hashUtils;
+
+  private MavenProject project;
+
+  private Path stagingDir;
+
+  private File stagedJar;
+
+  private File sourceJar;
+
+  @Before
+  public void setUp() throws Exception {
+    hashUtils = new HashUtilsImpl();
+    hashUtils.enableLogging(new ConsoleLogger());
+    projectUtils = new ProjectUtilsImpl();
+    projectUtils.enableLogging(new ConsoleLogger());
+    FieldUtils.writeField(projectUtils, "hashUtils", hashUtils, true);
+
+    Model model = new Model();
+    model.setGroupId("io.github.test");
+    model.setArtifactId("test-app");
+    model.setVersion("1.0.0");
+    project = new MavenProject(model);
+
+    stagingDir = tempDir.newFolder("staging").toPath();
+    File gavDir = stagingDir.resolve("io/github/test/test-app/1.0.0").toFile();
+    gavDir.mkdirs();
+    stagedJar = new File(gavDir, "test-app-1.0.0.jar");
+    Files.write(stagedJar.toPath(), "jar content".getBytes(UTF_8));
+
+    sourceJar = tempDir.newFile("test-app.jar");
+    Files.write(sourceJar.toPath(), "jar content".getBytes(UTF_8));
+    Files.write(new File(sourceJar.getPath() + ".sha1").toPath(),
+        (EXISTING_SHA1.toUpperCase() + "  test-app.jar\n").getBytes(UTF_8));
+  }
+
+  @Test
+  public void shouldReuseExistingChecksumsAndComputeMissing() throws IOException {
+    projectUtils.createChecksumFiles(request(ChecksumSidecars.TRUST));
+
+    assertThat(read(stagedJar, HashAlgorithm.SHA1), is(EXISTING_SHA1));
+    assertThat(read(stagedJar, HashAlgorithm.MD5), is(hashUtils.hash(stagedJar, HashAlgorithm.MD5)));
+  }
+
+  @Test
+  public void shouldComputeChecksumsOlderThanTheirFile() throws IOException {
+    // left over by an earlier build of the jar
+    File sha1File = new File(sourceJar.getPath() + ".sha1");
+    sha1File.setLastModified(sourceJar.lastModified() - 60_000);
+
+    projectUtils.createChecksumFiles(request(ChecksumSidecars.TRUST));
+
+    assertThat(read(stagedJar, HashAlgorithm.SHA1), is(hashUtils.hash(stagedJar, HashAlgorithm.SHA1)));
+  }
+
+  @Test
+  public void shouldComputeAllChecksumsWhenVerificationFails() throws IOException {
+    projectUtils.createChecksumFiles(request(ChecksumSidecars.VERIFY));
+
+    assertThat(read(stagedJar, HashAlgorithm.SHA1), is(hashUtils.hash(stagedJar, HashAlgorithm.SHA1)));
+  }
+
+  @Test
+  public void shouldIgnoreExistingChecksumsByDefault() throws IOException {
+    projectUtils.createChecksumFiles(request(ChecksumSidecars.NONE));
+
+    assertThat(read(stagedJar, HashAlgorithm.SHA1), is(hashUtils.hash(stagedJar, HashAlgorithm.SHA1)));
+  }
+
+  @Test
+  public void shouldUseHashesComputedWhileStaging() throws IOException {
+    String stagedMd5 = "0123456789abcdef0123456789abcdef";
+    StagedFile stagedFile =
+        new StagedFile(sourceJar, stagedJar, Collections.singletonMap(HashAlgorithm.MD5, stagedMd5));
+
+    projectUtils.createChecksumFiles(request(stagedFile, ChecksumSidecars.TRUST));
+
+    assertThat(read(stagedJar, HashAlgorithm.MD5), is(stagedMd5));
+    assertThat(read(stagedJar, HashAlgorithm.SHA1), is(EXISTING_SHA1));
+  }
+
+  @Test
+  public void shouldHashVirtuallyStagedFileFromItsSource() throws IOException {
+    File virtualJar = new File(stagedJar.getParentFile(), "test-app-1.0.0-sources.jar");
+    StagedFile stagedFile = new StagedFile(sourceJar, virtualJar, Collections.emptyMap(), true);
+
+    projectUtils.createChecksumFiles(request(stagedFile, ChecksumSidecars.NONE));
+
+    assertThat(virtualJar.exists(), is(false));
+    assertThat(read(virtualJar, HashAlgorithm.SHA1), is(hashUtils.hash(sourceJar, HashAlgorithm.SHA1)));
+  }
+
+  @Test
+  public void shouldNotUseHashesOfAnotherArtifactWithTheSameFileName() throws IOException {
+    // staged by another GAV with the same artifactId and version
+    File otherJar = stagingDir.resolve("io/github/other/test-app/1.0.0/test-app-1.0.0.jar").toFile();
+    String otherMd5 = "0123456789abcdef0123456789abcdef";
+    StagedFile otherStagedFile =
+        new StagedFile(sourceJar, otherJar, Collections.singletonMap(HashAlgorithm.MD5, otherMd5));
+
+    projectUtils.createChecksumFiles(new PreBundleRequest(project, stagingDir,
+        Arrays.asList(new StagedFile(sourceJar, stagedJar, Collections.emptyMap()), otherStagedFile),
+        ChecksumRequest.REQUIRED, 1, ChecksumSidecars.NONE));
+
+    assertThat(read(stagedJar, HashAlgorithm.MD5), is(hashUtils.hash(stagedJar, HashAlgorithm.MD5)));
+  }
+
+  private PreBundleRequest request(final ChecksumSidecars checksumSidecars) {
+    return request(new StagedFile(sourceJar, stagedJar, Collections.emptyMap()), checksumSidecars);
+  }
+
+  private PreBundleRequest request(final StagedFile stagedFile, final ChecksumSidecars checksumSidecars) {
+    return new PreBundleRequest(project, stagingDir, Collections.singletonList(stagedFile), ChecksumRequest.REQUIRED,
+        1, checksumSidecars);
+  }
+
+  private static String read(final File file, final HashAlgorithm algorithm) throws IOException {
+    return new String(Files.readAllBytes(new File(file.getPath() + "." + algorithm.name()).toPath()), UTF_8);
+  }
+}
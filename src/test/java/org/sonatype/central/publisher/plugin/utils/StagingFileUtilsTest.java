@@ -0,0 +1,48 @@
+package org.sonatype.central.publisher.plugin.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Tests that {@link StagingFileUtils} links files where it can, and copies them otherwise.
+ */
+public class StagingFileUtilsTest
+{
+  @Rule
+  public TemporaryFolder tempDir = new TemporaryFolder();
+
+  @Test
+  public void shouldLinkAndReplaceExistingTarget() throws IOException {
+    Path source = write("test-app-1.0.0.jar", "jar content");
+    Path target = write("staged.jar", "stale content");
+
+    assertThat(StagingFileUtils.link(source, target), is(true));
+
+    assertThat(Files.isSameFile(source, target), is(true));
+    assertThat(new String(Files.readAllBytes(target), UTF_8), is("jar content"));
+  }
+
+  @Test
+  public void shouldCopyAndReplaceExistingTarget() throws IOException {
+    Path source = write("test-app-1.0.0.jar", "jar content");
+    Path target = write("staged.jar", "stale and longer content");
+
+    StagingFileUtils.copy(source, target);
+
+    assertThat(Files.isSameFile(source, target), is(false));
+    assertThat(new String(Files.readAllBytes(target), UTF_8), is("jar content"));
+  }
+
+  private Path write(final String name, final String content) throws IOException {
+    return Files.write(tempDir.getRoot().toPath().resolve(name), content.getBytes(UTF_8));
+  }
+}
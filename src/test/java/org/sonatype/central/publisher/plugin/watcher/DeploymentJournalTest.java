@@ -0,0 +1,41 @@
+package org.sonatype.central.publisher.plugin.watcher;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class DeploymentJournalTest
+{
+  @Rule
+  public TemporaryFolder tempDir = new TemporaryFolder();
+
+  @Test
+  public void shouldFindTheLastStateOfADeployment() throws IOException {
+    Path directory = tempDir.getRoot().toPath().resolve("central-deployments");
+
+    assertThat(new DeploymentJournal(directory).find("hash", "name"), is(nullValue()));
+
+    new DeploymentJournal(directory).record("hash", "name", "deployment-1", DeploymentJournal.UPLOADED);
+    new DeploymentJournal(directory).record("other-hash", "name", "deployment-2", DeploymentJournal.UPLOADED);
+    // a build killed while appending
+    Files.write(new DeploymentJournal(directory).getFile(), "1\thash\tname\tdeployment-1\tFAI".getBytes(UTF_8),
+        APPEND);
+    new DeploymentJournal(directory).record("hash", "name", "deployment-1", "VALIDATING");
+    new DeploymentJournal(directory).compact();
+
+    DeploymentJournal.Entry entry = new DeploymentJournal(directory).find("hash", "name");
+    assertThat(entry.getDeploymentId(), is("deployment-1"));
+    assertThat(entry.getState(), is("VALIDATING"));
+    assertThat(new DeploymentJournal(directory).find("hash", "other-name"), is(nullValue()));
+  }
+}
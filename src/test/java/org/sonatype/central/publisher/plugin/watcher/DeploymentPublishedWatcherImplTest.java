@@ -0,0 +1,98 @@
+package org.sonatype.central.publisher.plugin.watcher;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.sonatype.central.publisher.client.PublisherClient;
+import org.sonatype.central.publisher.client.model.DeploymentApiResponse;
+import org.sonatype.central.publisher.client.model.DeploymentState;
+import org.sonatype.central.publisher.plugin.exceptions.DeploymentPublishFailedException;
+import org.sonatype.central.publisher.plugin.model.WaitForDeploymentStateRequest;
+import org.sonatype.central.publisher.plugin.model.WaitUntilRequest;
+import org.sonatype.central.publisher.plugin.utils.PurlUtils;
+
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DeploymentPublishedWatcherImplTest
+{
+  private PublisherClient publisherClient;
+
+  private DeploymentPublishedWatcherImpl watcher;
+
+  @Before
+  public void setUp() {
+    publisherClient = mock(PublisherClient.class);
+    watcher = new DeploymentPublishedWatcherImpl(publisherClient, mock(PurlUtils.class));
+    watcher.enableLogging(new ConsoleLogger(Logger.LEVEL_WARN, "test"));
+  }
+
+  @Test
+  public void testWaitsForAllDeployments() {
+    statusIs("a", DeploymentState.VALIDATED);
+    statusIs("b", DeploymentState.PUBLISHING);
+
+    Map<String, CompletableFuture<DeploymentApiResponse>> deployments =
+        watcher.watchDeploymentStates(Arrays.asList(request("a"), request("b")));
+    watcher.waitForDeploymentStates(deployments);
+
+    assertThat(deployments.get("a").join().getDeploymentState(), is(DeploymentState.VALIDATED));
+    assertThat(deployments.get("b").join().getDeploymentState(), is(DeploymentState.PUBLISHING));
+  }
+
+  @Test
+  public void testFailsAsSoonAsAnyDeploymentFailed() {
+    statusIs("a", DeploymentState.VALIDATING);
+    statusIs("b", DeploymentState.FAILED);
+
+    Map<String, CompletableFuture<DeploymentApiResponse>> deployments =
+        watcher.watchDeploymentStates(Arrays.asList(request("a"), request("b")));
+    try {
+      watcher.waitForDeploymentStates(deployments);
+      fail("Expected the failed deployment to fail the wait");
+    }
+    catch (DeploymentPublishFailedException expected) {
+      // the deployment still validating is no longer watched
+      assertThat(deployments.get("a").isCancelled(), is(true));
+    }
+  }
+
+  @Test
+  public void testWaitsForAllDeploymentsWhenAnyFailed() {
+    statusIs("a", DeploymentState.FAILED);
+    statusIs("b", DeploymentState.PUBLISHED);
+
+    Map<String, CompletableFuture<DeploymentApiResponse>> deployments =
+        watcher.watchDeploymentStates(Arrays.asList(request("a"), request("b")));
+    watcher.waitForAllDeploymentStates(deployments);
+
+    assertThat(deployments.get("a").isCompletedExceptionally(), is(true));
+    assertThat(deployments.get("b").join().getDeploymentState(), is(DeploymentState.PUBLISHED));
+  }
+
+  private void statusIs(final String deploymentId, final DeploymentState deploymentState) {
+    DeploymentApiResponse status = new DeploymentApiResponse();
+    status.setDeploymentId(deploymentId);
+    status.setDeploymentName(deploymentId);
+    status.setDeploymentState(deploymentState);
+    status.setPurls(Collections.emptyList());
+    status.setErrors(Collections.emptyMap());
+    status.setWarnings(Collections.emptyList());
+    when(publisherClient.statusAsync(deploymentId)).thenReturn(CompletableFuture.completedFuture(status));
+  }
+
+  private static WaitForDeploymentStateRequest request(final String deploymentId) {
+    return new WaitForDeploymentStateRequest("http://localhost", deploymentId, WaitUntilRequest.VALIDATED, 600, 60,
+        60);
+  }
+}
@@ -0,0 +1,37 @@
+package org.sonatype.central.publisher.plugin.watcher;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+import org.sonatype.central.publisher.plugin.model.WaitUntilRequest;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
+
+public class PendingDeploymentsTest
+{
+  @Rule
+  public TemporaryFolder tempDir = new TemporaryFolder();
+
+  @Test
+  public void shouldRecordDeploymentsAcrossInstances() throws IOException {
+    Path directory = tempDir.getRoot().toPath().resolve("central-deployments");
+
+    assertThat(new PendingDeployments(directory).load(), is(Collections.emptyMap()));
+
+    new PendingDeployments(directory).add("deployment-1", WaitUntilRequest.PUBLISHED);
+    new PendingDeployments(directory).add("deployment-2", WaitUntilRequest.VALIDATED);
+    new PendingDeployments(directory).remove("deployment-1");
+
+    Map<String, WaitUntilRequest> deployments = new PendingDeployments(directory).load();
+    assertThat(deployments.size(), is(1));
+    assertThat(deployments, hasEntry("deployment-2", WaitUntilRequest.VALIDATED));
+  }
+}
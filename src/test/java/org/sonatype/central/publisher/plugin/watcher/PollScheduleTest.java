@@ -0,0 +1,45 @@
+package org.sonatype.central.publisher.plugin.watcher;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.sonatype.central.publisher.client.model.DeploymentState.PENDING;
+import static org.sonatype.central.publisher.client.model.DeploymentState.PUBLISHING;
+import static org.sonatype.central.publisher.client.model.DeploymentState.VALIDATING;
+
+public class PollScheduleTest
+{
+  @Test
+  public void shouldPollAtMinIntervalWhileValidating() {
+    PollSchedule pollSchedule = new PollSchedule(5_000, 60_000);
+
+    assertThat(pollSchedule.nextDelayMillis(PENDING), is(5_000L));
+    assertThat(pollSchedule.nextDelayMillis(VALIDATING), is(5_000L));
+    assertThat(pollSchedule.nextDelayMillis(VALIDATING), is(5_000L));
+  }
+
+  @Test
+  public void shouldBackOffUpToMaxIntervalWhilePublishing() {
+    PollSchedule pollSchedule = new PollSchedule(5_000, 60_000);
+
+    assertThat(pollSchedule.nextDelayMillis(PUBLISHING), is(5_000L));
+    assertBetween(pollSchedule.nextDelayMillis(PUBLISHING), 5_000L, 10_000L);
+    assertBetween(pollSchedule.nextDelayMillis(PUBLISHING), 10_000L, 20_000L);
+    assertBetween(pollSchedule.nextDelayMillis(PUBLISHING), 20_000L, 40_000L);
+    for (int i = 0; i < 10; i++) {
+      assertBetween(pollSchedule.nextDelayMillis(PUBLISHING), 30_000L, 60_000L);
+    }
+
+    // validating again, e.g. another deployment
+    assertThat(pollSchedule.nextDelayMillis(VALIDATING), is(5_000L));
+    assertThat(pollSchedule.nextDelayMillis(PUBLISHING), is(5_000L));
+  }
+
+  private static void assertBetween(final long delayMillis, final long min, final long max) {
+    assertThat(delayMillis, allOf(greaterThanOrEqualTo(min), lessThanOrEqualTo(max)));
+  }
+}
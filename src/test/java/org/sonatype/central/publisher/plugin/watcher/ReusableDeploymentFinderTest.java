@@ -0,0 +1,143 @@
+package org.sonatype.central.publisher.plugin.watcher;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.sonatype.central.publisher.client.PublisherClient;
+import org.sonatype.central.publisher.client.model.DeploymentApiResponse;
+import org.sonatype.central.publisher.client.model.DeploymentState;
+import org.sonatype.central.publisher.client.model.PublishingType;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ReusableDeploymentFinderTest
+{
+  private static final String CONTENT_HASH = "content-hash";
+
+  private static final String DEPLOYMENT_NAME = "deployment";
+
+  private static final String DEPLOYMENT_ID = "deployment-1";
+
+  @Rule
+  public TemporaryFolder tempDir = new TemporaryFolder();
+
+  private PublisherClient publisherClient;
+
+  private DeploymentJournal deploymentJournal;
+
+  @Before
+  public void setUp() {
+    publisherClient = mock(PublisherClient.class);
+    deploymentJournal = new DeploymentJournal(tempDir.getRoot().toPath().resolve("central-deployments"));
+  }
+
+  @Test
+  public void shouldResumeDeploymentInFlight() throws IOException {
+    deploymentJournal.record(CONTENT_HASH, DEPLOYMENT_NAME, DEPLOYMENT_ID, DeploymentJournal.UPLOADED);
+    statusIs(DeploymentState.VALIDATING);
+
+    assertThat(finder(PublishingType.AUTOMATIC).find(CONTENT_HASH, DEPLOYMENT_NAME), is(DEPLOYMENT_ID));
+  }
+
+  @Test
+  public void shouldReusePublishedDeployment() throws IOException {
+    deploymentJournal.record(CONTENT_HASH, DEPLOYMENT_NAME, DEPLOYMENT_ID, DeploymentState.PUBLISHED.name());
+    statusIs(DeploymentState.PUBLISHED);
+
+    assertThat(finder(PublishingType.AUTOMATIC).find(CONTENT_HASH, DEPLOYMENT_NAME), is(DEPLOYMENT_ID));
+  }
+
+  @Test
+  public void shouldReuseValidatedDeploymentToPublishByUser() throws IOException {
+    deploymentJournal.record(CONTENT_HASH, DEPLOYMENT_NAME, DEPLOYMENT_ID, DeploymentState.VALIDATED.name());
+    statusIs(DeploymentState.VALIDATED);
+
+    assertThat(finder(PublishingType.USER_MANAGED).find(CONTENT_HASH, DEPLOYMENT_NAME), is(DEPLOYMENT_ID));
+  }
+
+  @Test
+  public void shouldNotReuseValidatedDeploymentToPublishAutomatically() throws IOException {
+    deploymentJournal.record(CONTENT_HASH, DEPLOYMENT_NAME, DEPLOYMENT_ID, DeploymentState.VALIDATED.name());
+    statusIs(DeploymentState.VALIDATED);
+
+    assertThat(finder(PublishingType.AUTOMATIC).find(CONTENT_HASH, DEPLOYMENT_NAME), is(nullValue()));
+  }
+
+  @Test
+  public void shouldNotReuseDeploymentValidatedSinceUploaded() throws IOException {
+    deploymentJournal.record(CONTENT_HASH, DEPLOYMENT_NAME, DEPLOYMENT_ID, DeploymentJournal.UPLOADED);
+    statusIs(DeploymentState.VALIDATED);
+
+    assertThat(finder(PublishingType.AUTOMATIC).find(CONTENT_HASH, DEPLOYMENT_NAME), is(nullValue()));
+  }
+
+  @Test
+  public void shouldNotReuseFailedDeployment() throws IOException {
+    deploymentJournal.record(CONTENT_HASH, DEPLOYMENT_NAME, DEPLOYMENT_ID, DeploymentState.VALIDATING.name());
+    statusIs(DeploymentState.FAILED);
+
+    assertThat(finder(PublishingType.AUTOMATIC).find(CONTENT_HASH, DEPLOYMENT_NAME), is(nullValue()));
+  }
+
+  @Test
+  public void shouldNotReuseDeploymentNoLongerAvailable() throws IOException {
+    deploymentJournal.record(CONTENT_HASH, DEPLOYMENT_NAME, DEPLOYMENT_ID, DeploymentState.PUBLISHED.name());
+    when(publisherClient.status(DEPLOYMENT_ID)).thenThrow(
+        new RuntimeException("Cannot get deployment status. Response status code: 404 response message: "));
+
+    assertThat(finder(PublishingType.AUTOMATIC).find(CONTENT_HASH, DEPLOYMENT_NAME), is(nullValue()));
+  }
+
+  @Test
+  public void shouldNotReuseDroppedDeployment() throws IOException {
+    deploymentJournal.record(CONTENT_HASH, DEPLOYMENT_NAME, DEPLOYMENT_ID, DeploymentState.VALIDATED.name());
+    deploymentJournal.record(CONTENT_HASH, DEPLOYMENT_NAME, DEPLOYMENT_ID, DeploymentJournal.DROPPED);
+
+    assertThat(finder(PublishingType.USER_MANAGED).find(CONTENT_HASH, DEPLOYMENT_NAME), is(nullValue()));
+    verify(publisherClient, never()).status(anyString());
+  }
+
+  @Test
+  public void shouldNotReuseDeploymentOfOtherContent() throws IOException {
+    deploymentJournal.record("other-content-hash", DEPLOYMENT_NAME, DEPLOYMENT_ID, DeploymentJournal.UPLOADED);
+
+    assertThat(finder(PublishingType.AUTOMATIC).find(CONTENT_HASH, DEPLOYMENT_NAME), is(nullValue()));
+    verify(publisherClient, never()).status(anyString());
+  }
+
+  @Test
+  public void shouldUploadWhenTheJournalCannotBeRead() throws IOException {
+    // a directory in place of the journal file
+    Path journalFile = deploymentJournal.getFile();
+    Files.createDirectories(journalFile);
+
+    assertThat(finder(PublishingType.AUTOMATIC).find(CONTENT_HASH, DEPLOYMENT_NAME), is(nullValue()));
+    verify(publisherClient, never()).status(anyString());
+  }
+
+  private ReusableDeploymentFinder finder(final PublishingType publishingType) {
+    return new ReusableDeploymentFinder(deploymentJournal, publisherClient, publishingType, new SystemStreamLog());
+  }
+
+  private void statusIs(final DeploymentState deploymentState) {
+    DeploymentApiResponse status = new DeploymentApiResponse();
+    status.setDeploymentId(DEPLOYMENT_ID);
+    status.setDeploymentName(DEPLOYMENT_NAME);
+    status.setDeploymentState(deploymentState);
+    when(publisherClient.status(DEPLOYMENT_ID)).thenReturn(status);
+  }
+}